@@ -0,0 +1,129 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Preistabelle auf dem Heap, gebaut aus API-Antworten; Deltas legt {@link PatchedPriceTable} darüber.
+ * Die Item-IDs aus der API werden beim Bauen einmalig auf {@code Registries.ITEM.getRawId} aufgelöst,
+ * die Preise liegen danach in parallelen int-Arrays. Ein Lookup ist ein reiner Array-Zugriff ohne Allokation.
+ */
+public final class ArrayPriceTable implements PriceTable {
+
+    static final int MAX_REPORTED_UNKNOWN_IDS = 5;
+
+    // itemIds[rawId] == null bedeutet: kein Preis für dieses Item
+    private final String[] itemIds;
+    private final int[] stueckpreise;
+    private final int[] stackpreise;
+    private final int[] dkpreise;
+    private final int size;
+    private final VariantPrices variants;
+
+    ArrayPriceTable(String[] itemIds, int[] stueckpreise, int[] stackpreise, int[] dkpreise, int size) {
+        this(itemIds, stueckpreise, stackpreise, dkpreise, size, VariantPrices.EMPTY);
+    }
+
+    ArrayPriceTable(String[] itemIds, int[] stueckpreise, int[] stackpreise, int[] dkpreise, int size, VariantPrices variants) {
+        this.itemIds = itemIds;
+        this.stueckpreise = stueckpreise;
+        this.stackpreise = stackpreise;
+        this.dkpreise = dkpreise;
+        this.size = size;
+        this.variants = variants;
+    }
+
+    @Override
+    public boolean contains(int rawId) {
+        return rawId >= 0 && rawId < itemIds.length && itemIds[rawId] != null;
+    }
+
+    @Override
+    public int getStueckpreis(int rawId) {
+        return stueckpreise[rawId];
+    }
+
+    @Override
+    public int getStackpreis(int rawId) {
+        return stackpreise[rawId];
+    }
+
+    @Override
+    public int getDkpreis(int rawId) {
+        return dkpreise[rawId];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return itemIds.length;
+    }
+
+    @Override
+    public String getItemId(int rawId) {
+        return itemIds[rawId];
+    }
+
+    @Override
+    public VariantPrices getVariants() {
+        return variants;
+    }
+
+    @Override
+    public Map<String, PriceAPIClient.PriceResult> toMap() {
+        Map<String, PriceAPIClient.PriceResult> result = new HashMap<>(size * 2);
+        for (int rawId = 0; rawId < itemIds.length; rawId++) {
+            if (itemIds[rawId] != null) {
+                result.put(itemIds[rawId], new PriceAPIClient.PriceResult(stackpreise[rawId], dkpreise[rawId], stueckpreise[rawId]));
+            }
+        }
+        for (int i = 0; i < variants.size(); i++) {
+            result.put(variants.getId(i), new PriceAPIClient.PriceResult(variants.getStackpreis(i), variants.getDkpreis(i), variants.getStueckpreis(i)));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Kompatibilitätspfad für String-IDs, erzeugt ein neues PriceResult
+    @Override
+    public PriceAPIClient.PriceResult get(String itemId) {
+        if (VariantPrices.isVariantId(itemId)) {
+            return variants.get(itemId);
+        }
+        int rawId = resolveRawId(itemId);
+        if (!contains(rawId)) {
+            return null;
+        }
+        return new PriceAPIClient.PriceResult(stackpreise[rawId], dkpreise[rawId], stueckpreise[rawId]);
+    }
+
+    /**
+     * Wendet ein Delta an und liefert eine neue Tabelle. Die Arrays dieser Tabelle werden nicht kopiert; die
+     * Änderungen liegen in einer {@link PatchedPriceTable} darüber, die Kosten skalieren mit dem Delta.
+     */
+    @Override
+    public PriceTable withPatch(PricePatch patch) {
+        return PatchedPriceTable.of(this, patch);
+    }
+
+    static int resolveRawId(String itemId) {
+        Identifier id = itemId != null ? Identifier.tryParse(itemId) : null;
+        if (id == null || !Registries.ITEM.containsId(id)) {
+            return -1;
+        }
+        Item item = Registries.ITEM.get(id);
+        return Registries.ITEM.getRawId(item);
+    }
+}
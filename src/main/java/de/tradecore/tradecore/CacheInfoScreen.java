@@ -45,6 +45,11 @@ public class CacheInfoScreen extends Screen {
     private ButtonWidget bewerbenButton;
     private ButtonWidget modEnableToggleButton;
     private ButtonWidget userLevelButton;
+    private ButtonWidget clearCacheButton;
+    private ButtonWidget priceChartButton;
+    private ButtonWidget priceMoversButton;
+    private ButtonWidget inventoryValueToggleButton;
+    private ButtonWidget slotBadgesToggleButton;
 
     private final int buttonSpacing = 25;
     private final int linkButtonSpacing = 5;
@@ -64,6 +69,22 @@ public class CacheInfoScreen extends Screen {
         return Text.literal("Preisanzeige: " + (TradeCoreConfig.showPricesOnlyOnShift ? "Nur bei Shift" : "Immer"));
     }
 
+    private Text getInventoryValueToggleText() {
+        return Text.literal("Wert: ").append(
+                TradeCoreConfig.showInventoryValue ?
+                        Text.literal("An").formatted(Formatting.GREEN) :
+                        Text.literal("Aus").formatted(Formatting.RED)
+        );
+    }
+
+    private Text getSlotBadgesToggleText() {
+        return Text.literal("Slots: ").append(
+                TradeCoreConfig.showSlotBadges ?
+                        Text.literal("An").formatted(Formatting.GREEN) :
+                        Text.literal("Aus").formatted(Formatting.RED)
+        );
+    }
+
     private Text getModEnableToggleText() {
         return Text.literal("Mod Status: ").append(
                 TradeCoreConfig.modEnabled ?
@@ -112,14 +133,42 @@ public class CacheInfoScreen extends Screen {
                 }).dimensions(centerX - mainButtonWidth / 2, currentY, mainButtonWidth, 20)
                 .build();
         this.addDrawableChild(updateButton);
+
+        // Ersetzt das frühere Löschen der Preisdatei bei jedem Beenden
+        clearCacheButton = ButtonWidget.builder(Text.literal("Cache leeren"), button -> {
+                    if (TradeCore.apiClient != null) {
+                        setFeedback(Text.literal("Leere Preis-Cache...").formatted(Formatting.YELLOW), 3000);
+                        TradeCore.apiClient.deletePriceFile().whenCompleteAsync((ignored, throwable) -> {
+                            if (throwable != null) {
+                                TradeCore.LOGGER.error("Fehler beim Leeren des Preis-Caches: ", throwable);
+                                setFeedback(Text.literal("Fehler beim Leeren des Caches!").formatted(Formatting.RED), 3000);
+                            } else {
+                                setFeedback(Text.literal("Preis-Cache geleert.").formatted(Formatting.GREEN), 3000);
+                            }
+                        }, MinecraftClient.getInstance());
+                    } else {
+                        setFeedback(Text.literal("Fehler: API Client nicht initialisiert.").formatted(Formatting.RED), 3000);
+                    }
+                }).dimensions(centerX + mainButtonWidth / 2 + 5, currentY, 80, 20)
+                .build();
+        this.addDrawableChild(clearCacheButton);
         currentY += buttonSpacing;
 
         priceToggleButton = this.addDrawableChild(ButtonWidget.builder(getPriceToggleText(), button -> {
-                    TradeCoreConfig.showPricesOnlyOnShift = !TradeCoreConfig.showPricesOnlyOnShift;
+                    TradeCoreConfig.toggleShowPricesOnlyOnShift();
                     button.setMessage(getPriceToggleText());
-                    TradeCoreConfig.saveConfig();
                 }).dimensions(centerX - mainButtonWidth / 2, currentY, mainButtonWidth, 20)
                 .build());
+
+        // Größte Änderungen seit dem vorigen Katalog
+        priceMoversButton = ButtonWidget.builder(Text.literal("Bewegungen"), button -> {
+                    if (this.client != null) {
+                        this.client.setScreen(new PriceMoversScreen(this));
+                    }
+                })
+                .dimensions(centerX + mainButtonWidth / 2 + 5, currentY, 80, 20)
+                .build();
+        this.addDrawableChild(priceMoversButton);
         currentY += buttonSpacing;
 
         modEnableToggleButton = this.addDrawableChild(ButtonWidget.builder(getModEnableToggleText(), button -> {
@@ -127,6 +176,19 @@ public class CacheInfoScreen extends Screen {
                     button.setMessage(getModEnableToggleText());
                 }).dimensions(centerX - mainButtonWidth / 2, currentY, mainButtonWidth, 20)
                 .build());
+
+        // Wertanzeige für Inventar und geöffnete Container
+        inventoryValueToggleButton = this.addDrawableChild(ButtonWidget.builder(getInventoryValueToggleText(), button -> {
+                    TradeCoreConfig.toggleShowInventoryValue();
+                    button.setMessage(getInventoryValueToggleText());
+                }).dimensions(centerX + mainButtonWidth / 2 + 5, currentY, 80, 20)
+                .build());
+        // Preis-Badges auf den Slots von Truhen, Shulkerkisten und Händlern
+        slotBadgesToggleButton = this.addDrawableChild(ButtonWidget.builder(getSlotBadgesToggleText(), button -> {
+                    TradeCoreConfig.toggleShowSlotBadges();
+                    button.setMessage(getSlotBadgesToggleText());
+                }).dimensions(centerX - mainButtonWidth / 2 - 85, currentY, 80, 20)
+                .build());
         currentY += buttonSpacing;
 
         userLevelButton = ButtonWidget.builder(Text.literal("Level-Anzeige"), button -> {
@@ -137,6 +199,17 @@ public class CacheInfoScreen extends Screen {
                 .dimensions(centerX - mainButtonWidth / 2, currentY, mainButtonWidth, 20)
                 .build();
         this.addDrawableChild(userLevelButton);
+
+        // Verlauf des Items in der Hand; ohne Item ist der Button deaktiviert
+        priceChartButton = ButtonWidget.builder(Text.literal("Preisverlauf"), button -> {
+                    if (this.client != null && this.client.player != null && !this.client.player.getMainHandStack().isEmpty()) {
+                        this.client.setScreen(new PriceChartScreen(this, this.client.player.getMainHandStack().getItem()));
+                    }
+                })
+                .dimensions(centerX + mainButtonWidth / 2 + 5, currentY, 80, 20)
+                .build();
+        priceChartButton.active = this.client.player != null && !this.client.player.getMainHandStack().isEmpty();
+        this.addDrawableChild(priceChartButton);
         currentY += buttonSpacing + 10;
 
         impressumButton = ButtonWidget.builder(Text.literal("Impressum").formatted(Formatting.GOLD), button -> openLink("https://mc-tradecore.de/Impressum.php", "Impressum"))
@@ -169,6 +242,18 @@ public class CacheInfoScreen extends Screen {
         }
     }
 
+    private static String formatAge(long ageMillis) {
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(ageMillis);
+        if (minutes < 60) {
+            return minutes + " Min.";
+        }
+        long hours = TimeUnit.MILLISECONDS.toHours(ageMillis);
+        if (hours < 48) {
+            return hours + " Std.";
+        }
+        return TimeUnit.MILLISECONDS.toDays(ageMillis) + " Tage";
+    }
+
     private boolean isNameActive(String name) {
         for (FlyingText ft : activeFlyingTexts) {
             if (ft.text.equals(name)) {
@@ -257,6 +342,7 @@ public class CacheInfoScreen extends Screen {
         context.drawCenteredTextWithShadow(this.textRenderer, this.title, this.width / 2, titleY, 0xFFFFFF);
 
         String lastUpdateText;
+        Formatting lastUpdateColor = Formatting.YELLOW;
         if (TradeCore.apiClient != null) {
             long lastUpdate = TradeCore.apiClient.getLastUpdateTimestamp();
             if (lastUpdate == 0) {
@@ -267,12 +353,59 @@ public class CacheInfoScreen extends Screen {
                 } catch (Exception e) {
                     lastUpdateText = "Preisdaten vorhanden (Formatierungsfehler)";
                 }
+                // Veraltete Daten werden weiter angezeigt, während im Hintergrund neu geprüft wird
+                if (!TradeCore.apiClient.isCacheFresh(System.currentTimeMillis())) {
+                    lastUpdateText += " (veraltet, " + formatAge(TradeCore.apiClient.getCacheAgeMillis()) + " alt)";
+                    lastUpdateColor = Formatting.GOLD;
+                }
             }
         } else {
             lastUpdateText = "Fehler: API Client nicht initialisiert.";
         }
         int infoY = titleY + this.textRenderer.fontHeight + 5;
-        context.drawCenteredTextWithShadow(this.textRenderer, Text.literal(lastUpdateText).formatted(Formatting.YELLOW), this.width / 2, infoY, 0xFFFFFF);
+        context.drawCenteredTextWithShadow(this.textRenderer, Text.literal(lastUpdateText).formatted(lastUpdateColor), this.width / 2, infoY, 0xFFFFFF);
+
+        // Übertragene vs. entpackte Bytes, zeigt die Ersparnis durch gzip
+        if (TradeCore.apiClient != null && TradeCore.apiClient.getWireBytesReceived() > 0) {
+            String trafficText = "Netzwerk: " + (TradeCore.apiClient.getWireBytesReceived() / 1024) + " KB empfangen ("
+                    + (TradeCore.apiClient.getDecodedBytesReceived() / 1024) + " KB entpackt)";
+            long coalesced = TradeCore.apiClient.getCoalescedRequestCount();
+            if (coalesced > 0) {
+                trafficText += ", " + coalesced + " Anfragen zusammengefasst";
+            }
+            context.drawCenteredTextWithShadow(this.textRenderer, Text.literal(trafficText).formatted(Formatting.GRAY), this.width / 2, infoY + this.textRenderer.fontHeight + 2, 0xFFFFFF);
+        }
+
+        // API-Status unten links: Circuit Breaker je Endpunkt und Warteschlangen, solange etwas wartet
+        if (TradeCore.apiClient != null) {
+            List<Text> statusLines = new ArrayList<>();
+            for (CircuitBreaker breaker : TradeCore.apiClient.getCircuitBreakers()) {
+                CircuitBreaker.State state = breaker.getState();
+                if (state == CircuitBreaker.State.OPEN) {
+                    long seconds = (breaker.getRemainingOpenMillis() + 999) / 1000;
+                    statusLines.add(Text.literal(breaker.getName() + ": gesperrt (" + seconds + " s)").formatted(Formatting.RED));
+                } else if (state == CircuitBreaker.State.HALF_OPEN) {
+                    statusLines.add(Text.literal(breaker.getName() + ": Probe-Anfrage").formatted(Formatting.GOLD));
+                } else if (breaker.getConsecutiveFailures() > 0) {
+                    statusLines.add(Text.literal(breaker.getName() + ": " + breaker.getConsecutiveFailures() + " Fehler").formatted(Formatting.YELLOW));
+                }
+            }
+            if (statusLines.isEmpty()) {
+                statusLines.add(Text.literal("API: erreichbar").formatted(Formatting.GRAY));
+            }
+            RequestScheduler scheduler = TradeCore.apiClient.getRequestScheduler();
+            int interactiveQueued = scheduler.getQueueDepth(RequestScheduler.Lane.INTERACTIVE);
+            int backgroundQueued = scheduler.getQueueDepth(RequestScheduler.Lane.BACKGROUND);
+            if (interactiveQueued > 0 || backgroundQueued > 0) {
+                statusLines.add(Text.literal("Wartend: " + interactiveQueued + " / " + backgroundQueued
+                        + " (Ø " + scheduler.getAverageWaitMillis(RequestScheduler.Lane.INTERACTIVE) + " ms)").formatted(Formatting.GRAY));
+            }
+            int statusY = this.height - 5 - statusLines.size() * (this.textRenderer.fontHeight + 2);
+            for (Text line : statusLines) {
+                context.drawTextWithShadow(this.textRenderer, line, 5, statusY, 0xFFFFFF);
+                statusY += this.textRenderer.fontHeight + 2;
+            }
+        }
 
         for (FlyingText ft : activeFlyingTexts) {
             int rainbowColor = getRainbowColor(ft.colorTime);
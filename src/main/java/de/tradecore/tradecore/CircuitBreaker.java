@@ -0,0 +1,112 @@
+package de.tradecore.tradecore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit Breaker pro API-Endpunkt. Nach {@code failureThreshold} Fehlern in Folge (Netzwerkfehler, 5xx, 429)
+ * werden Anfragen für {@code openDurationMillis} sofort abgelehnt, statt den Server weiter zu belasten.
+ * Danach darf genau eine Probe-Anfrage durch (HALF_OPEN); ihr Ergebnis entscheidet über Schließen oder erneutes Öffnen.
+ * Ein einzelnes Retry-After öffnet den Breaker nur, wenn es über der Wartegrenze des Clients liegt ({@link #openFor}).
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openUntilMillis = 0L;
+    private boolean probeInFlight = false;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // false = Anfrage sofort ablehnen
+    public synchronized boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN) {
+            if (now < openUntilMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            TradeCore.LOGGER.info("Circuit Breaker {}: halb offen, sende Probe-Anfrage.", name);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            TradeCore.LOGGER.info("Circuit Breaker {}: geschlossen, Endpunkt wieder erreichbar.", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        recordFailure(0L);
+    }
+
+    // minOpenMillis: z.B. aus Retry-After; verlängert nur die Sperre, wenn der Breaker ohnehin öffnet
+    public synchronized void recordFailure(long minOpenMillis) {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                TradeCore.LOGGER.warn("Circuit Breaker {}: geöffnet nach {} Fehlern in Folge.", name, consecutiveFailures);
+            }
+            open(Math.max(openDurationMillis, minOpenMillis));
+        }
+    }
+
+    // Der Server verlangt ausdrücklich eine längere Pause (Retry-After über der Wartegrenze): sofort öffnen
+    public synchronized void openFor(long millis) {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state != State.OPEN) {
+            TradeCore.LOGGER.warn("Circuit Breaker {}: geöffnet für {} s (Retry-After).", name, TimeUnit.MILLISECONDS.toSeconds(millis));
+        }
+        open(millis);
+    }
+
+    private void open(long millis) {
+        state = State.OPEN;
+        openUntilMillis = Math.max(openUntilMillis, System.currentTimeMillis() + millis);
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntilMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized long getRemainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0L, openUntilMillis - System.currentTimeMillis()) : 0L;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
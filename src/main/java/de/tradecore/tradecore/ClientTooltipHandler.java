@@ -4,10 +4,13 @@ import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.item.v1.ItemTooltipCallback;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenKeyboardEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.registry.Registries;
 import net.minecraft.text.Text;
@@ -18,6 +21,21 @@ public class ClientTooltipHandler implements ClientModInitializer {
     private static KeyBinding openCacheInfoKey;
     private static KeyBinding openPriceSubmitKey;
     private static KeyBinding openBdtKey;
+    private static KeyBinding openPriceChartKey;
+    // Zuletzt per Tooltip angezeigtes Item: die Chart-Taste öffnet in Inventaren dessen Verlauf
+    private static Item lastTooltipItem = null;
+    private static long lastTooltipMillis = 0L;
+    private static final long TOOLTIP_HOVER_WINDOW_MILLIS = 250L;
+    // Einmal erzeugt, da der Tooltip bis zum Laden der Preisdatei in jedem Frame gebaut wird
+    private static final Text LOADING_LINE = Text.literal("Preise laden…").formatted(Formatting.GRAY);
+    private static final Text ERROR_LINE = Text.literal("Fehler beim Preisabruf").formatted(Formatting.RED);
+    private static final TooltipLineCache LINE_CACHE = new TooltipLineCache();
+    private static final Text[] NO_LINES = new Text[0];
+    // Wertzeilen des zuletzt gehoverten Stacks; hängen von der Anzahl ab und liegen daher nicht im LINE_CACHE
+    private static ItemStack lastValueStack = null;
+    private static int lastValueCount = 0;
+    private static PriceSnapshot lastValueSnapshot = null;
+    private static Text[] lastValueLines = NO_LINES;
 
 
     @Override
@@ -33,36 +51,61 @@ public class ClientTooltipHandler implements ClientModInitializer {
         openBdtKey = KeyBindingHelper.registerKeyBinding(new KeyBinding(
                 "key.tradecore.open_bdt", InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_RIGHT, "category.tradecore"
         ));
+        openPriceChartKey = KeyBindingHelper.registerKeyBinding(new KeyBinding(
+                "key.tradecore.open_price_chart", InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_LEFT, "category.tradecore"
+        ));
 
         ItemTooltipCallback.EVENT.register((stack, context, type, lines) -> {
             if (!TradeCoreConfig.modEnabled) {
                 return;
             }
             if (TradeCore.apiClient == null) return;
+            if (stack != null && !stack.isEmpty()) {
+                lastTooltipItem = stack.getItem();
+                lastTooltipMillis = System.currentTimeMillis();
+            }
             boolean shouldShowPrices = !TradeCoreConfig.showPricesOnlyOnShift || Screen.hasShiftDown();
             if (shouldShowPrices && stack != null && !stack.isEmpty()) {
+                if (!TradeCore.apiClient.isReady()) {
+                    lines.add(LOADING_LINE);
+                    return;
+                }
                 try {
-                    String itemId = Registries.ITEM.getId(stack.getItem()).toString();
-                    PriceAPIClient.PriceResult priceResult = TradeCore.apiClient.getItemPrices(itemId);
-                    if (priceResult != null) {
-                        if (priceResult.stueckpreis > 0) {
-                            lines.add(Text.literal("Stückpreis: " + priceResult.stueckpreis + "$").formatted(Formatting.GREEN));
-                        }
-                        if (priceResult.stackpreis > 0) {
-                            lines.add(Text.literal("Stackpreis: " + priceResult.stackpreis + "$").formatted(Formatting.GREEN));
-                        }
-                        if (priceResult.dkpreis > 0) {
-                            lines.add(Text.literal("DK-Preis: " + priceResult.dkpreis + "$").formatted(Formatting.GREEN));
-                        }
-                    } else {
-                        lines.add(Text.literal("Preis: Unbekannt").formatted(Formatting.GRAY));
+                    // Raw-ID statt String-ID: reiner Array-Zugriff, keine Allokation pro Frame
+                    int rawId = Registries.ITEM.getRawId(stack.getItem());
+                    PriceSnapshot snapshot = TradeCore.apiClient.getSnapshot();
+                    // Variantenpreis (z.B. verzaubert) vor Basispreis; der Hash wird pro Stack nur einmal berechnet
+                    VariantPrices variants = snapshot.getTable().getVariants();
+                    int variantIndex = -1;
+                    if (!variants.isEmpty()) {
+                        long variantHash = ItemVariantKey.of(stack);
+                        variantIndex = variantHash != 0L ? variants.find(rawId, variantHash) : -1;
+                    }
+                    // Zeilen sind pro Snapshot vorgebaut, hier wird nur noch angehängt
+                    for (Text line : LINE_CACHE.get(snapshot, rawId, variantIndex)) {
+                        lines.add(line);
+                    }
+                    for (Text line : getValueLines(snapshot, stack)) {
+                        lines.add(line);
                     }
                 } catch (Exception e) {
-                    lines.add(Text.literal("Fehler beim Preisabruf").formatted(Formatting.RED));
+                    lines.add(ERROR_LINE);
                 }
             }
         });
 
+        // Chart-Taste über einem Item mit Tooltip (Inventar, Truhe, ...): öffnet den Verlauf dieses Items
+        ScreenEvents.AFTER_INIT.register((client, screen, scaledWidth, scaledHeight) -> {
+            ScreenKeyboardEvents.afterKeyPress(screen).register((currentScreen, key, scancode, modifiers) -> {
+                if (!TradeCoreConfig.modEnabled || !openPriceChartKey.matchesKey(key, scancode) || lastTooltipItem == null) {
+                    return;
+                }
+                if (System.currentTimeMillis() - lastTooltipMillis <= TOOLTIP_HOVER_WINDOW_MILLIS) {
+                    client.setScreen(new PriceChartScreen(currentScreen, lastTooltipItem));
+                }
+            });
+        });
+
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             if (client.player != null && !TradeCoreConfig.tutorialShown && client.currentScreen == null) {
                 client.setScreen(new TutorialScreen());
@@ -83,11 +126,41 @@ public class ClientTooltipHandler implements ClientModInitializer {
                         }
                     } else if (openBdtKey.wasPressed()) {
                         client.setScreen(new BlockOfTheDayScreen());
+                    } else if (openPriceChartKey.wasPressed()) {
+                        ItemStack heldItem = client.player.getMainHandStack();
+                        if (!heldItem.isEmpty()) {
+                            client.setScreen(new PriceChartScreen(null, heldItem.getItem()));
+                        } else {
+                            client.player.sendMessage(Text.literal("Du musst ein Item in der Hand halten!").formatted(Formatting.YELLOW), false);
+                        }
                     }
                 }
                 // Der fehlerhafte "else"-Block wurde hier entfernt.
             }
         });
+        InventoryValueOverlay.register();
+        SlotPriceBadges.register();
         TradeCore.LOGGER.info("Client Handlers registriert.");
     }
-}
\ No newline at end of file
+
+    // Gesamtwert bei mehreren Items und Inhaltswert bei Shulkerkisten/Bündeln
+    private static Text[] getValueLines(PriceSnapshot snapshot, ItemStack stack) {
+        if (stack == lastValueStack && stack.getCount() == lastValueCount && snapshot == lastValueSnapshot) {
+            return lastValueLines;
+        }
+        long contents = ItemValuation.contentsValue(snapshot, stack);
+        long total = ItemValuation.stackValue(snapshot, stack);
+        Text[] valueLines = NO_LINES;
+        if (contents > 0 || (stack.getCount() > 1 && total > 0)) {
+            String totalLabel = stack.getCount() > 1 ? "Gesamtwert (" + stack.getCount() + "x): " : "Gesamtwert: ";
+            valueLines = contents > 0
+                    ? new Text[]{Text.literal("Inhalt: " + contents + "$").formatted(Formatting.GOLD), Text.literal(totalLabel + total + "$").formatted(Formatting.GOLD)}
+                    : new Text[]{Text.literal(totalLabel + total + "$").formatted(Formatting.GOLD)};
+        }
+        lastValueStack = stack;
+        lastValueCount = stack.getCount();
+        lastValueSnapshot = snapshot;
+        lastValueLines = valueLines;
+        return valueLines;
+    }
+}
@@ -0,0 +1,107 @@
+package de.tradecore.tradecore;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+
+/**
+ * Gesamtwert von Spielerinventar und geöffnetem Container, im HUD bzw. über dem Container-Screen.
+ * Die Summen werden pro Tick inkrementell über {@link SlotValueTracker} gepflegt: Neu bewertet werden nur geänderte
+ * Slots, ein neuer Snapshot bewertet alles einmal neu. Die angezeigten Texte entstehen nur, wenn sich eine Summe ändert.
+ */
+public final class InventoryValueOverlay {
+
+    private static final int TEXT_X = 4;
+    private static final int TEXT_Y = 4;
+
+    private static final SlotValueTracker INVENTORY = new SlotValueTracker();
+    private static PriceSnapshot trackedSnapshot = null;
+    private static boolean containerOpen = false;
+    private static long containerTotal = 0L;
+
+    private static long shownInventoryTotal = -1L;
+    private static long shownContainerTotal = -1L;
+    private static Text inventoryLine = Text.empty();
+    private static Text containerLine = Text.empty();
+
+    private InventoryValueOverlay() {
+    }
+
+    public static void register() {
+        ClientTickEvents.END_CLIENT_TICK.register(InventoryValueOverlay::tick);
+        HudRenderCallback.EVENT.register((context, tickCounter) -> {
+            MinecraftClient client = MinecraftClient.getInstance();
+            if (client.currentScreen == null && !client.options.hudHidden && isVisible()) {
+                context.drawTextWithShadow(client.textRenderer, inventoryLine, TEXT_X, TEXT_Y, 0xFFFFFF);
+            }
+        });
+        ScreenEvents.AFTER_INIT.register((client, screen, scaledWidth, scaledHeight) -> {
+            if (screen instanceof HandledScreen<?>) {
+                ScreenEvents.afterRender(screen).register((currentScreen, context, mouseX, mouseY, tickDelta) -> renderInScreen(client, context));
+            }
+        });
+    }
+
+    private static boolean isVisible() {
+        return TradeCoreConfig.modEnabled && TradeCoreConfig.showInventoryValue && TradeCore.apiClient != null && TradeCore.apiClient.isReady()
+                && (!TradeCoreConfig.showPricesOnlyOnShift || Screen.hasShiftDown());
+    }
+
+    private static void renderInScreen(MinecraftClient client, DrawContext context) {
+        if (!isVisible()) {
+            return;
+        }
+        context.drawTextWithShadow(client.textRenderer, inventoryLine, TEXT_X, TEXT_Y, 0xFFFFFF);
+        if (containerOpen) {
+            context.drawTextWithShadow(client.textRenderer, containerLine, TEXT_X, TEXT_Y + client.textRenderer.fontHeight + 2, 0xFFFFFF);
+        }
+    }
+
+    private static void tick(MinecraftClient client) {
+        ClientPlayerEntity player = client.player;
+        // Ohne Anzeige wird auch nichts verfolgt; beim Einschalten wird einmal komplett bewertet
+        if (player == null || !TradeCoreConfig.modEnabled || !TradeCoreConfig.showInventoryValue
+                || TradeCore.apiClient == null || !TradeCore.apiClient.isReady()) {
+            trackedSnapshot = null;
+            containerOpen = false;
+            return;
+        }
+
+        PriceSnapshot snapshot = TradeCore.apiClient.getSnapshot();
+        if (snapshot != trackedSnapshot) {
+            INVENTORY.clear();
+            trackedSnapshot = snapshot;
+        }
+
+        PlayerInventory inventory = player.getInventory();
+        INVENTORY.resize(inventory.size());
+        for (int i = 0; i < inventory.size(); i++) {
+            INVENTORY.update(i, inventory.getStack(i), snapshot);
+        }
+
+        ScreenHandler handler = player.currentScreenHandler;
+        containerOpen = handler != null && handler != player.playerScreenHandler;
+        if (containerOpen) {
+            // Derselbe Tracker wie für die Slot-Badges; was dort schon bewertet ist, wird hier nur gelesen
+            containerTotal = SlotValueTracker.forHandler(handler, inventory, snapshot).getTotal();
+        }
+
+        if (INVENTORY.getTotal() != shownInventoryTotal) {
+            shownInventoryTotal = INVENTORY.getTotal();
+            inventoryLine = Text.literal("Inventarwert: " + shownInventoryTotal + "$").formatted(Formatting.GOLD);
+        }
+        if (containerOpen && containerTotal != shownContainerTotal) {
+            shownContainerTotal = containerTotal;
+            containerLine = Text.literal("Containerwert: " + shownContainerTotal + "$").formatted(Formatting.GOLD);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.BundleContentsComponent;
+import net.minecraft.component.type.ContainerComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+
+import java.util.Arrays;
+
+/**
+ * Wert ganzer Stacks inklusive Inhalt von Shulkerkisten ({@code CONTAINER}) und Bündeln ({@code BUNDLE_CONTENTS}),
+ * auch verschachtelt. Pro Item gilt der Stückpreis, sonst der Stackpreis anteilig, sonst der DK-Preis anteilig
+ * (eine Doppelkiste = 54 volle Stacks); Varianten gehen vor dem Basispreis.
+ * <p>
+ * Inhaltswerte werden nach Inhalt gemerkt ({@code hashCode}/{@code equals} der Komponente), nicht nach Identität:
+ * Der Server schickt beim Öffnen eines Inventars neue, aber gleiche Komponenten, die damit weiter treffen. Derselbe
+ * Inhalt wird zuerst über die Identität erkannt, erst danach per {@code equals}. Der Merker gilt für genau einen
+ * Snapshot und wird bei jedem neuen komplett geleert. Nur für den Client-Thread gedacht.
+ */
+public final class ItemValuation {
+
+    private static final int DOUBLE_CHEST_STACKS = 54;
+    // Tiefer verschachtelt ist im Spiel nicht erreichbar; schützt vor manipulierten Komponenten
+    static final int MAX_DEPTH = 8;
+
+    private static final int MEMO_SIZE = 128;
+    private static final Object[] MEMO_CONTENTS = new Object[MEMO_SIZE];
+    private static final int[] MEMO_HASHES = new int[MEMO_SIZE];
+    private static final long[] MEMO_VALUES = new long[MEMO_SIZE];
+    private static long memoVersion = -1L;
+    private static PriceTable memoTable = null;
+
+    private ItemValuation() {
+    }
+
+    /** Wert der Items selbst (Anzahl x Einzelwert) plus Inhalt, in $. */
+    public static long stackValue(PriceSnapshot snapshot, ItemStack stack) {
+        return stackValue(prepare(snapshot), stack, 0);
+    }
+
+    /** Nur der Inhalt eines Containers oder Bündels, 0 bei anderen Items. */
+    public static long contentsValue(PriceSnapshot snapshot, ItemStack stack) {
+        return contentsValue(prepare(snapshot), stack, 0);
+    }
+
+    /** Nur Anzahl x Einzelwert, ohne Inhalt. */
+    public static long itemsValue(PriceSnapshot snapshot, ItemStack stack) {
+        return itemsValue(snapshot.getTable(), stack);
+    }
+
+    private static PriceTable prepare(PriceSnapshot snapshot) {
+        PriceTable table = snapshot.getTable();
+        if (snapshot.getVersion() != memoVersion || table != memoTable) {
+            Arrays.fill(MEMO_CONTENTS, null);
+            memoVersion = snapshot.getVersion();
+            memoTable = table;
+        }
+        return table;
+    }
+
+    private static long stackValue(PriceTable table, ItemStack stack, int depth) {
+        if (stack.isEmpty()) {
+            return 0L;
+        }
+        long contents = contentsValue(table, stack, depth);
+        return itemsValue(table, stack) + (contents > 0 ? contents * stack.getCount() : 0L);
+    }
+
+    private static long contentsValue(PriceTable table, ItemStack stack, int depth) {
+        Object contents = contentsComponent(stack);
+        if (contents == null || depth >= MAX_DEPTH) {
+            return 0L;
+        }
+        // ContainerComponent hält seinen Hash vor, beim Bündel sind es höchstens 64 Items
+        int hash = contents.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (MEMO_SIZE - 1);
+        Object cached = MEMO_CONTENTS[slot];
+        if (cached == contents) {
+            return MEMO_VALUES[slot];
+        }
+        if (cached != null && MEMO_HASHES[slot] == hash && cached.equals(contents)) {
+            // Neue Instanz merken, der nächste Treffer geht dann über die Identität
+            MEMO_CONTENTS[slot] = contents;
+            return MEMO_VALUES[slot];
+        }
+        long sum = 0L;
+        Iterable<ItemStack> stacks = contents instanceof ContainerComponent container
+                ? container.iterateNonEmpty() : ((BundleContentsComponent) contents).iterate();
+        for (ItemStack inner : stacks) {
+            sum += stackValue(table, inner, depth + 1);
+        }
+        // Innere Aufrufe können denselben Slot belegt haben, daher erst jetzt eintragen
+        MEMO_CONTENTS[slot] = contents;
+        MEMO_HASHES[slot] = hash;
+        MEMO_VALUES[slot] = sum;
+        return sum;
+    }
+
+    /** {@code CONTAINER} oder {@code BUNDLE_CONTENTS} des Stacks, sonst null. */
+    static Object contentsComponent(ItemStack stack) {
+        ContainerComponent container = stack.get(DataComponentTypes.CONTAINER);
+        return container != null ? container : stack.get(DataComponentTypes.BUNDLE_CONTENTS);
+    }
+
+    private static long itemsValue(PriceTable table, ItemStack stack) {
+        int rawId = Registries.ITEM.getRawId(stack.getItem());
+        VariantPrices variants = table.getVariants();
+        int variantIndex = -1;
+        if (!variants.isEmpty()) {
+            long variantHash = ItemVariantKey.of(stack);
+            variantIndex = variantHash != 0L ? variants.find(rawId, variantHash) : -1;
+        }
+        int stueckpreis;
+        int stackpreis;
+        int dkpreis;
+        if (variantIndex >= 0) {
+            stueckpreis = variants.getStueckpreis(variantIndex);
+            stackpreis = variants.getStackpreis(variantIndex);
+            dkpreis = variants.getDkpreis(variantIndex);
+        } else if (table.contains(rawId)) {
+            stueckpreis = table.getStueckpreis(rawId);
+            stackpreis = table.getStackpreis(rawId);
+            dkpreis = table.getDkpreis(rawId);
+        } else {
+            return 0L;
+        }
+        long count = stack.getCount();
+        long maxCount = Math.max(1, stack.getMaxCount());
+        if (stueckpreis > 0) {
+            return stueckpreis * count;
+        }
+        if (stackpreis > 0) {
+            return divideRounded(stackpreis * count, maxCount);
+        }
+        if (dkpreis > 0) {
+            return divideRounded(dkpreis * count, DOUBLE_CHEST_STACKS * maxCount);
+        }
+        return 0L;
+    }
+
+    private static long divideRounded(long value, long divisor) {
+        return (value + divisor / 2) / divisor;
+    }
+}
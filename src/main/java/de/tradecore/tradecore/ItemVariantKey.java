@@ -0,0 +1,242 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.CustomModelDataComponent;
+import net.minecraft.component.type.ItemEnchantmentsComponent;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.component.type.PotionContentsComponent;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stabiler 64-Bit-Hash über die preisrelevanten Komponenten eines Stacks; 0 = keine Variante, es gilt der Basispreis.
+ * Eingerechnet werden (in dieser Reihenfolge, jeweils mit eigenem Tag) Verzauberungen, gespeicherte Verzauberungen,
+ * Trankinhalt, das Spawner-Mob aus {@code SpawnData} und Custom Model Data. Gehasht werden nur Registry-IDs und Zahlen
+ * (FNV-1a über die UTF-16-Zeichen, Splitmix-Finalizer), nie Raw-IDs oder {@code hashCode}, damit Server und
+ * andere Clients denselben Schlüssel berechnen. Verzauberungen werden reihenfolgeunabhängig addiert.
+ * <p>
+ * {@link #of(ItemStack)} merkt sich den Hash zu den Instanzen der fünf Komponentenwerte. Diese sind unveränderlich;
+ * ändert sich ein Stack, ersetzt er den Wert, ein veralteter Eintrag wird also nie getroffen. Gehalten werden nur die
+ * Komponenten, nie der Stack. Beide Methoden sind threadsicher, {@link #compute(ItemStack)} arbeitet ohne Cache.
+ */
+public final class ItemVariantKey {
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private static final int TAG_ENCHANTMENTS = 1;
+    private static final int TAG_STORED_ENCHANTMENTS = 2;
+    private static final int TAG_POTION = 3;
+    private static final int TAG_SPAWNER = 4;
+    private static final int TAG_CUSTOM_MODEL_DATA = 5;
+
+    // Direkt abgebildeter Cache; eine Kollision verdrängt nur den alten Eintrag. Die Einträge sind unveränderlich,
+    // ein Slot wird also immer vollständig gelesen oder ersetzt.
+    private static final int MEMO_SIZE = 256;
+    private static final MemoEntry[] MEMO = new MemoEntry[MEMO_SIZE];
+
+    private static final ThreadLocal<EnchantmentSum> ENCHANTMENT_SUM = ThreadLocal.withInitial(EnchantmentSum::new);
+
+    private ItemVariantKey() {
+    }
+
+    public static long of(ItemStack stack) {
+        ItemEnchantmentsComponent enchantments = stack.get(DataComponentTypes.ENCHANTMENTS);
+        ItemEnchantmentsComponent storedEnchantments = stack.get(DataComponentTypes.STORED_ENCHANTMENTS);
+        PotionContentsComponent potion = stack.get(DataComponentTypes.POTION_CONTENTS);
+        NbtComponent blockEntityData = stack.get(DataComponentTypes.BLOCK_ENTITY_DATA);
+        CustomModelDataComponent customModelData = stack.get(DataComponentTypes.CUSTOM_MODEL_DATA);
+        if (enchantments == null && storedEnchantments == null && potion == null && blockEntityData == null && customModelData == null) {
+            return 0L;
+        }
+        int identity = System.identityHashCode(enchantments);
+        identity = identity * 31 + System.identityHashCode(storedEnchantments);
+        identity = identity * 31 + System.identityHashCode(potion);
+        identity = identity * 31 + System.identityHashCode(blockEntityData);
+        identity = identity * 31 + System.identityHashCode(customModelData);
+        int slot = (identity ^ (identity >>> 16)) & (MEMO_SIZE - 1);
+        MemoEntry entry = MEMO[slot];
+        if (entry != null && entry.enchantments == enchantments && entry.storedEnchantments == storedEnchantments
+                && entry.potion == potion && entry.blockEntityData == blockEntityData && entry.customModelData == customModelData) {
+            return entry.hash;
+        }
+        long hash = compute(enchantments, storedEnchantments, potion, blockEntityData, customModelData);
+        MEMO[slot] = new MemoEntry(enchantments, storedEnchantments, potion, blockEntityData, customModelData, hash);
+        return hash;
+    }
+
+    public static long compute(ItemStack stack) {
+        return compute(stack.get(DataComponentTypes.ENCHANTMENTS), stack.get(DataComponentTypes.STORED_ENCHANTMENTS),
+                stack.get(DataComponentTypes.POTION_CONTENTS), stack.get(DataComponentTypes.BLOCK_ENTITY_DATA),
+                stack.get(DataComponentTypes.CUSTOM_MODEL_DATA));
+    }
+
+    private static long compute(ItemEnchantmentsComponent enchantments, ItemEnchantmentsComponent storedEnchantments,
+                                PotionContentsComponent potion, NbtComponent blockEntityData, CustomModelDataComponent customModelData) {
+        long hash = 0L;
+        hash = mixComponent(hash, TAG_ENCHANTMENTS, hashEnchantments(enchantments));
+        hash = mixComponent(hash, TAG_STORED_ENCHANTMENTS, hashEnchantments(storedEnchantments));
+        hash = mixComponent(hash, TAG_POTION, hashPotion(potion));
+        hash = mixComponent(hash, TAG_SPAWNER, hashSpawner(blockEntityData));
+        hash = mixComponent(hash, TAG_CUSTOM_MODEL_DATA, hashCustomModelData(customModelData));
+        return hash;
+    }
+
+    // Fehlende Komponenten (0) verändern den Hash nicht, ein Stack ohne Varianten bleibt bei 0
+    private static long mixComponent(long hash, int tag, long componentHash) {
+        if (componentHash == 0L) {
+            return hash;
+        }
+        long mixed = finish(componentHash * 31 + tag);
+        return hash == 0L ? mixed : finish(hash ^ mixed);
+    }
+
+    private static long hashEnchantments(ItemEnchantmentsComponent enchantments) {
+        if (enchantments == null || enchantments.isEmpty()) {
+            return 0L;
+        }
+        // forEach auf der Schlüsselmenge läuft in fastutil direkt über die Arrays, ohne Iterator und Entry-Objekte
+        EnchantmentSum sum = ENCHANTMENT_SUM.get();
+        sum.enchantments = enchantments;
+        sum.sum = 0L;
+        enchantments.getEnchantments().forEach(sum);
+        sum.enchantments = null;
+        return sum.sum == 0L ? 1L : sum.sum;
+    }
+
+    private static long hashPotion(PotionContentsComponent potion) {
+        if (potion == null) {
+            return 0L;
+        }
+        long hash = FNV_OFFSET;
+        if (potion.potion().isPresent()) {
+            hash = hashEntry(hash, potion.potion().get());
+        }
+        List<StatusEffectInstance> effects = potion.customEffects();
+        for (int i = 0; i < effects.size(); i++) {
+            StatusEffectInstance effect = effects.get(i);
+            hash = hashEntry(hash, effect.getEffectType());
+            hash = mixInt(hash, effect.getAmplifier());
+            hash = mixInt(hash, effect.getDuration());
+        }
+        return hash == FNV_OFFSET ? 0L : hash;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static long hashSpawner(NbtComponent blockEntityData) {
+        if (blockEntityData == null) {
+            return 0L;
+        }
+        // getNbt() liefert die interne Instanz ohne Kopie; es wird nur gelesen
+        NbtCompound nbt = blockEntityData.getNbt();
+        if (!nbt.contains("SpawnData", NbtElement.COMPOUND_TYPE)) {
+            return 0L;
+        }
+        NbtCompound spawnData = nbt.getCompound("SpawnData");
+        if (!spawnData.contains("entity", NbtElement.COMPOUND_TYPE)) {
+            return 0L;
+        }
+        NbtCompound entity = spawnData.getCompound("entity");
+        if (!entity.contains("id", NbtElement.STRING_TYPE)) {
+            return 0L;
+        }
+        return hashChars(FNV_OFFSET, entity.getString("id"));
+    }
+
+    private static long hashCustomModelData(CustomModelDataComponent customModelData) {
+        if (customModelData == null) {
+            return 0L;
+        }
+        long hash = FNV_OFFSET;
+        List<Float> floats = customModelData.floats();
+        for (int i = 0; i < floats.size(); i++) {
+            hash = mixInt(hash, Float.floatToIntBits(floats.get(i)));
+        }
+        List<Boolean> flags = customModelData.flags();
+        for (int i = 0; i < flags.size(); i++) {
+            hash = mixInt(hash, flags.get(i) ? 1 : 0);
+        }
+        List<String> strings = customModelData.strings();
+        for (int i = 0; i < strings.size(); i++) {
+            hash = hashChars(hash, strings.get(i));
+        }
+        List<Integer> colors = customModelData.colors();
+        for (int i = 0; i < colors.size(); i++) {
+            hash = mixInt(hash, colors.get(i));
+        }
+        return hash == FNV_OFFSET ? 0L : hash;
+    }
+
+    // Direkte Einträge ohne Registry-Schlüssel tragen nichts bei
+    private static long hashEntry(long hash, RegistryEntry<?> entry) {
+        if (entry instanceof RegistryEntry.Reference<?> reference) {
+            Identifier id = reference.registryKey().getValue();
+            hash = hashChars(hash, id.getNamespace());
+            hash = (hash ^ ':') * FNV_PRIME;
+            hash = hashChars(hash, id.getPath());
+        }
+        return hash;
+    }
+
+    private static long hashChars(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // Trenner, damit "ab"+"c" und "a"+"bc" verschieden sind
+        return (hash ^ 0xFF) * FNV_PRIME;
+    }
+
+    private static long mixInt(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // Splitmix64-Finalizer
+    private static long finish(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class MemoEntry {
+        final ItemEnchantmentsComponent enchantments;
+        final ItemEnchantmentsComponent storedEnchantments;
+        final PotionContentsComponent potion;
+        final NbtComponent blockEntityData;
+        final CustomModelDataComponent customModelData;
+        final long hash;
+
+        MemoEntry(ItemEnchantmentsComponent enchantments, ItemEnchantmentsComponent storedEnchantments, PotionContentsComponent potion,
+                  NbtComponent blockEntityData, CustomModelDataComponent customModelData, long hash) {
+            this.enchantments = enchantments;
+            this.storedEnchantments = storedEnchantments;
+            this.potion = potion;
+            this.blockEntityData = blockEntityData;
+            this.customModelData = customModelData;
+            this.hash = hash;
+        }
+    }
+
+    // Reihenfolgeunabhängige Summe über die Verzauberungen, eine Instanz pro Thread
+    private static final class EnchantmentSum implements Consumer<RegistryEntry<Enchantment>> {
+        private ItemEnchantmentsComponent enchantments;
+        private long sum;
+
+        @Override
+        public void accept(RegistryEntry<Enchantment> enchantment) {
+            long single = hashEntry(FNV_OFFSET, enchantment);
+            sum += finish(mixInt(single, enchantments.getLevel(enchantment)));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Preistabelle direkt auf der per {@code FileChannel.map} eingeblendeten Preisdatei (Format v2 und v3).
+ * Beim Laden wird nichts geparst: Ein Eintrag wird erst beim ersten Zugriff über den sortierten Hash-Index
+ * gesucht und seine Position pro Raw-ID gemerkt. Der Heap wächst nur mit den tatsächlich abgefragten Items.
+ * Es werden ausschließlich absolute Lesezugriffe verwendet, daher ist der Buffer ohne Lock threadsicher.
+ */
+public final class MappedPriceTable implements PriceTable {
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int offsetsStart;
+    private final int blobStart;
+    private final int stueckStart;
+    private final int stackStart;
+    private final int dkStart;
+    private final int indexStart;
+    private final int payloadLength;
+    // rawId -> Eintrag + 1; 0 = noch nicht aufgelöst, -1 = kein Preis. Wettläufe sind harmlos (gleiches Ergebnis).
+    private final int[] resolved;
+    // Varianten sind wenige und werden beim Mappen direkt auf den Heap gelesen
+    private final VariantPrices variants;
+
+    MappedPriceTable(ByteBuffer buffer, int count, int offsetsStart, int blobStart, int stueckStart, int indexStart, int payloadLength,
+                     VariantPrices variants) {
+        this.buffer = buffer;
+        this.count = count;
+        this.offsetsStart = offsetsStart;
+        this.blobStart = blobStart;
+        this.stueckStart = stueckStart;
+        this.stackStart = stueckStart + count * 4;
+        this.dkStart = stackStart + count * 4;
+        this.indexStart = indexStart;
+        this.payloadLength = payloadLength;
+        this.resolved = new int[Registries.ITEM.size()];
+        this.variants = variants;
+    }
+
+    @Override
+    public boolean contains(int rawId) {
+        return entryFor(rawId) >= 0;
+    }
+
+    // Ohne Preis 0 wie bei ArrayPriceTable; ohne Prüfung würde Eintrag -1 das Feld davor lesen
+    @Override
+    public int getStueckpreis(int rawId) {
+        int entry = entryFor(rawId);
+        return entry >= 0 ? buffer.getInt(stueckStart + entry * 4) : 0;
+    }
+
+    @Override
+    public int getStackpreis(int rawId) {
+        int entry = entryFor(rawId);
+        return entry >= 0 ? buffer.getInt(stackStart + entry * 4) : 0;
+    }
+
+    @Override
+    public int getDkpreis(int rawId) {
+        int entry = entryFor(rawId);
+        return entry >= 0 ? buffer.getInt(dkStart + entry * 4) : 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return resolved.length;
+    }
+
+    @Override
+    public String getItemId(int rawId) {
+        int entry = entryFor(rawId);
+        return entry >= 0 ? readId(entry) : null;
+    }
+
+    @Override
+    public VariantPrices getVariants() {
+        return variants;
+    }
+
+    @Override
+    public PriceAPIClient.PriceResult get(String itemId) {
+        if (VariantPrices.isVariantId(itemId)) {
+            return variants.get(itemId);
+        }
+        int entry = entryFor(ArrayPriceTable.resolveRawId(itemId));
+        if (entry < 0) {
+            return null;
+        }
+        return new PriceAPIClient.PriceResult(buffer.getInt(stackStart + entry * 4), buffer.getInt(dkStart + entry * 4), buffer.getInt(stueckStart + entry * 4));
+    }
+
+    // Nur die geänderten Einträge kommen auf den Heap, der Rest wird weiter aus der Datei gelesen
+    @Override
+    public PriceTable withPatch(PricePatch patch) {
+        return PatchedPriceTable.of(this, patch);
+    }
+
+    // Liest die komplette Datei einmal; gedacht für die Prüfung im Hintergrund nach dem Laden
+    public boolean verifyChecksum() {
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(0).limit(payloadLength);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(payloadLength);
+    }
+
+    private int entryFor(int rawId) {
+        if (rawId < 0 || rawId >= resolved.length) {
+            return -1;
+        }
+        int cached = resolved[rawId];
+        if (cached != 0) {
+            return cached > 0 ? cached - 1 : -1;
+        }
+        Item item = Registries.ITEM.get(rawId);
+        int entry = findEntry(Registries.ITEM.getId(item).toString());
+        resolved[rawId] = entry >= 0 ? entry + 1 : -1;
+        return entry;
+    }
+
+    // Binärsuche im nach Hash sortierten Index, bei Kollisionen Vergleich der UTF-8 Bytes
+    private int findEntry(String itemId) {
+        int hash = itemId.hashCode();
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(indexStart + mid * 8) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        byte[] key = itemId.getBytes(StandardCharsets.UTF_8);
+        for (int i = low; i < count && buffer.getInt(indexStart + i * 8) == hash; i++) {
+            int entry = buffer.getInt(indexStart + i * 8 + 4);
+            if (idEquals(entry, key)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private boolean idEquals(int entry, byte[] key) {
+        int start = buffer.getInt(offsetsStart + entry * 4);
+        int end = buffer.getInt(offsetsStart + (entry + 1) * 4);
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(blobStart + start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readId(int entry) {
+        int start = buffer.getInt(offsetsStart + entry * 4);
+        int end = buffer.getInt(offsetsStart + (entry + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(blobStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
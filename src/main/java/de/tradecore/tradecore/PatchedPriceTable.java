@@ -0,0 +1,227 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.registry.Registries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deltas über einer Basistabelle, gemappt ({@link MappedPriceTable}) oder auf dem Heap ({@link ArrayPriceTable}).
+ * Nur die geänderten Einträge liegen in der Überlagerung, alle anderen werden weiter aus der Basis gelesen; bei einer
+ * gemappten Basis dekodiert das erste Delta nach einem Warmstart also nicht den ganzen Katalog.
+ * <p>
+ * Die Überlagerung ist in Seiten zu {@value #PAGE_SIZE} Raw-IDs geteilt. Ein weiteres Delta kopiert nur die
+ * Seitentabelle und die Seiten, die es berührt; unberührte Seiten teilen sich alle Versionen. Die Kosten pro Delta
+ * skalieren damit mit der Zahl der Änderungen, nicht mit der Größe der Item-Registry.
+ */
+final class PatchedPriceTable implements PriceTable {
+
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final byte FROM_BASE = 0;
+    private static final byte OVERRIDDEN = 1;
+    private static final byte REMOVED = 2;
+
+    // Zustand pro Raw-ID; Preise und ID gelten nur bei OVERRIDDEN. Nach der Veröffentlichung unveränderlich.
+    private static final class Page {
+        final byte[] states = new byte[PAGE_SIZE];
+        final String[] itemIds = new String[PAGE_SIZE];
+        final int[] stueckpreise = new int[PAGE_SIZE];
+        final int[] stackpreise = new int[PAGE_SIZE];
+        final int[] dkpreise = new int[PAGE_SIZE];
+
+        Page copy() {
+            Page copy = new Page();
+            System.arraycopy(states, 0, copy.states, 0, PAGE_SIZE);
+            System.arraycopy(itemIds, 0, copy.itemIds, 0, PAGE_SIZE);
+            System.arraycopy(stueckpreise, 0, copy.stueckpreise, 0, PAGE_SIZE);
+            System.arraycopy(stackpreise, 0, copy.stackpreise, 0, PAGE_SIZE);
+            System.arraycopy(dkpreise, 0, copy.dkpreise, 0, PAGE_SIZE);
+            return copy;
+        }
+    }
+
+    private final PriceTable base;
+    private final int baseCapacity;
+    private final int capacity;
+    // null = die ganze Seite kommt aus der Basis
+    private final Page[] pages;
+    private final int size;
+    private final VariantPrices variants;
+
+    private PatchedPriceTable(PriceTable base, int capacity, Page[] pages, int size, VariantPrices variants) {
+        this.base = base;
+        this.baseCapacity = base.capacity();
+        this.capacity = capacity;
+        this.pages = pages;
+        this.size = size;
+        this.variants = variants;
+    }
+
+    // Die Kapazität reicht bis zur Registry, damit ein Delta auch Items hinzufügen kann, die der Basis fehlen
+    static PriceTable of(PriceTable base, PricePatch patch) {
+        int capacity = Math.max(base.capacity(), Registries.ITEM.size());
+        Page[] pages = new Page[(capacity + PAGE_MASK) >>> PAGE_SHIFT];
+        return new PatchedPriceTable(base, capacity, pages, base.size(), base.getVariants()).withPatch(patch);
+    }
+
+    // Seite mit eigenem Eintrag für rawId, sonst null
+    private Page overridden(int rawId) {
+        if (rawId < 0 || rawId >= capacity) {
+            return null;
+        }
+        Page page = pages[rawId >>> PAGE_SHIFT];
+        return page != null && page.states[rawId & PAGE_MASK] != FROM_BASE ? page : null;
+    }
+
+    private boolean inBase(int rawId) {
+        return rawId >= 0 && rawId < baseCapacity;
+    }
+
+    @Override
+    public boolean contains(int rawId) {
+        return rawId >= 0 && rawId < capacity && contains(pages, rawId);
+    }
+
+    @Override
+    public int getStueckpreis(int rawId) {
+        Page page = overridden(rawId);
+        if (page != null) {
+            return page.stueckpreise[rawId & PAGE_MASK];
+        }
+        return inBase(rawId) ? base.getStueckpreis(rawId) : 0;
+    }
+
+    @Override
+    public int getStackpreis(int rawId) {
+        Page page = overridden(rawId);
+        if (page != null) {
+            return page.stackpreise[rawId & PAGE_MASK];
+        }
+        return inBase(rawId) ? base.getStackpreis(rawId) : 0;
+    }
+
+    @Override
+    public int getDkpreis(int rawId) {
+        Page page = overridden(rawId);
+        if (page != null) {
+            return page.dkpreise[rawId & PAGE_MASK];
+        }
+        return inBase(rawId) ? base.getDkpreis(rawId) : 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public String getItemId(int rawId) {
+        Page page = overridden(rawId);
+        if (page != null) {
+            // Bei REMOVED ist die ID null
+            return page.itemIds[rawId & PAGE_MASK];
+        }
+        return inBase(rawId) ? base.getItemId(rawId) : null;
+    }
+
+    @Override
+    public VariantPrices getVariants() {
+        return variants;
+    }
+
+    @Override
+    public PriceAPIClient.PriceResult get(String itemId) {
+        if (VariantPrices.isVariantId(itemId)) {
+            return variants.get(itemId);
+        }
+        int rawId = ArrayPriceTable.resolveRawId(itemId);
+        if (!contains(rawId)) {
+            return null;
+        }
+        return new PriceAPIClient.PriceResult(getStackpreis(rawId), getDkpreis(rawId), getStueckpreis(rawId));
+    }
+
+    // Die Basis bleibt dieselbe; kopiert werden die Seitentabelle und die berührten Seiten
+    @Override
+    public PriceTable withPatch(PricePatch patch) {
+        Page[] newPages = pages.clone();
+        int newSize = size;
+        int unknownCount = 0;
+        List<String> unknownSamples = new ArrayList<>();
+
+        for (int i = 0; i < patch.upsertCount(); i++) {
+            String itemId = patch.getUpsertId(i);
+            if (VariantPrices.isVariantId(itemId)) {
+                continue;
+            }
+            int rawId = ArrayPriceTable.resolveRawId(itemId);
+            if (rawId < 0 || rawId >= capacity) {
+                unknownCount++;
+                if (unknownSamples.size() < ArrayPriceTable.MAX_REPORTED_UNKNOWN_IDS) {
+                    unknownSamples.add(itemId);
+                }
+                continue;
+            }
+            if (!contains(newPages, rawId)) {
+                newSize++;
+            }
+            Page page = writablePage(newPages, rawId);
+            int slot = rawId & PAGE_MASK;
+            page.states[slot] = OVERRIDDEN;
+            page.itemIds[slot] = itemId;
+            page.stueckpreise[slot] = patch.getStueckpreis(i);
+            page.stackpreise[slot] = patch.getStackpreis(i);
+            page.dkpreise[slot] = patch.getDkpreis(i);
+        }
+        for (int i = 0; i < patch.removedCount(); i++) {
+            if (VariantPrices.isVariantId(patch.getRemovedId(i))) {
+                continue;
+            }
+            int rawId = ArrayPriceTable.resolveRawId(patch.getRemovedId(i));
+            if (rawId >= 0 && rawId < capacity && contains(newPages, rawId)) {
+                Page page = writablePage(newPages, rawId);
+                int slot = rawId & PAGE_MASK;
+                page.states[slot] = REMOVED;
+                page.itemIds[slot] = null;
+                page.stueckpreise[slot] = 0;
+                page.stackpreise[slot] = 0;
+                page.dkpreise[slot] = 0;
+                newSize--;
+            }
+        }
+        if (unknownCount > 0) {
+            TradeCore.LOGGER.warn("{} Delta-Einträge mit unbekannter Item-ID ignoriert (z.B. {}).", unknownCount, unknownSamples);
+        }
+        return new PatchedPriceTable(base, capacity, newPages, newSize, variants.withPatch(patch));
+    }
+
+    // Eine Seite, die noch mit der Vorversion geteilt wird, wird vor dem ersten Schreiben kopiert
+    private Page writablePage(Page[] newPages, int rawId) {
+        int index = rawId >>> PAGE_SHIFT;
+        Page page = newPages[index];
+        if (page == pages[index]) {
+            page = page == null ? new Page() : page.copy();
+            newPages[index] = page;
+        }
+        return page;
+    }
+
+    // Auch gegen den Zwischenstand eines laufenden withPatch; rawId muss im Bereich liegen
+    private boolean contains(Page[] currentPages, int rawId) {
+        Page page = currentPages[rawId >>> PAGE_SHIFT];
+        byte state = page != null ? page.states[rawId & PAGE_MASK] : FROM_BASE;
+        return switch (state) {
+            case OVERRIDDEN -> true;
+            case REMOVED -> false;
+            default -> inBase(rawId) && base.contains(rawId);
+        };
+    }
+}
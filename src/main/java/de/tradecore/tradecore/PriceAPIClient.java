@@ -9,296 +9,928 @@ import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 public class PriceAPIClient {
 
-    private static final String API_ALL_PRICES_URL = "https://mc-tradecore.de/API/get_price.php";
-    private static final String API_SUBMIT_PRICE_URL = "https://mc-tradecore.de/API/submit_price.php";
-    private static final String API_GET_BDT_URL = "https://mc-tradecore.de/API/get_bdt.php";
-    private static final String API_CREATE_BDT_URL = "https://mc-tradecore.de/API/create_bdt.php";
-    private static final String API_SUBMIT_BDT_VOTE_URL = "https://mc-tradecore.de/API/submit_bdt_vote.php";
-    private static final String API_UPDATE_BDT_URL = "https://mc-tradecore.de/API/update_bdt.php";
-    private static final String API_CLAIM_DISCORD_URL = "https://mc-tradecore.de/API/UUIDsubmit.php";
-    private static final String API_GET_USER_LEVEL_URL = "https://mc-tradecore.de/API/get_user_level.php"; // NEU
-
-    private static final Path PRICE_FILE_PATH = FabricLoader.getInstance().getConfigDir().resolve(TradeCore.MOD_ID + "_prices.json");
-    private static final Path PRICE_FILE_TMP_PATH = FabricLoader.getInstance().getConfigDir().resolve(TradeCore.MOD_ID + "_prices.tmp");
+    private static final String DEFAULT_API_BASE_URL = "https://mc-tradecore.de/API/";
+
+    private final String apiAllPricesUrl;
+    private final String apiSubmitPriceUrl;
+    private final String apiGetBdtUrl;
+    private final String apiCreateBdtUrl;
+    private final String apiSubmitBdtVoteUrl;
+    private final String apiUpdateBdtUrl;
+    private final String apiClaimDiscordUrl;
+    private final String apiGetUserLevelUrl;
+
+    private final Path priceFilePath;
+    // Zweiter Slot: eine gemappte Datei kann (v.a. unter Windows) nicht ersetzt werden, solange das Mapping lebt,
+    // und wann es freigegeben wird, entscheidet erst der GC. Gespeichert wird daher nie in einen Slot, der in
+    // diesem Prozess schon gemappt wurde (siehe mappedSlots).
+    private final Path priceFileAltPath;
+    // Altes JSON-Format, wird beim ersten Laden ins Binärformat migriert
+    private final Path legacyPriceFilePath;
+    private final Path priceFileTmpPath;
+    private final Path priceMetaPath;
+    // Deltas werden nur angehängt; ab dieser Größe wird das Journal in eine neue Basisdatei übernommen
+    private final Path priceJournalPath;
+    private static final long JOURNAL_COMPACT_BYTES = 256L * 1024;
+    private final Path priceHistoryPath;
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
     private static final String CUSTOM_HEADER_NAME = "X-TradeCore-Client";
     private static final String CUSTOM_HEADER_VALUE = "alkj789-GhJkL-MnOpQ";
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
 
     private final HttpClient client;
-    private final ConcurrentHashMap<String, PriceResult> priceData;
-    private final AtomicLong lastUpdateTimestamp = new AtomicLong(0);
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
-        Thread thread = new Thread(runnable, "TradeCore-API-Executor");
+    private volatile PriceSnapshot snapshot = PriceSnapshot.EMPTY;
+    private volatile PriceCacheValidators validators = PriceCacheValidators.NONE;
+    private volatile PriceDiff lastDiff = null;
+    // Slot, aus dem der aktuelle Snapshot stammt bzw. in den zuletzt geschrieben wurde
+    private volatile Path activePriceFile;
+    // Slots, die seit dem Start eingeblendet wurden; gilt bis zum Prozessende als belegt
+    private final Set<Path> mappedSlots = ConcurrentHashMap.newKeySet();
+    private final PriceJournal journal;
+    // Verlauf aller abgerufenen Snapshots; wird beim ersten Zugriff geladen
+    private final PriceHistoryStore history;
+    // Basisdatei und Journal werden nur unter diesem Lock geschrieben, damit die Kompaktierung kein Delta verliert
+    private final Object persistLock = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+    // Byte-Zähler über alle Endpunkte: übertragen (ggf. komprimiert) vs. entpackt
+    private final AtomicLong wireBytesReceived = new AtomicLong(0);
+    private final AtomicLong decodedBytesReceived = new AtomicLong(0);
+    // Die Übertragung läuft nicht-blockierend über HttpClient.sendAsync; dieser Pool liest und parst nur die Bodies.
+    // Mehrere Worker, damit ein langsamer Katalog-Download keine Abstimmung oder Level-Abfrage blockiert.
+    private static final int API_WORKER_THREADS = 4;
+    private final AtomicInteger workerCounter = new AtomicInteger(0);
+    private final ExecutorService executor = Executors.newFixedThreadPool(API_WORKER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "TradeCore-API-Worker-" + workerCounter.incrementAndGet());
         thread.setDaemon(true);
         return thread;
     });
 
-    private BlockOfTheDayResult cachedBdtResult = null;
-    private LocalDate bdtCacheDate = null;
+    // Interaktive Anfragen (Screens) haben Vorrang vor dem Katalog-Refresh im Hintergrund
+    private static final int INTERACTIVE_REQUEST_LIMIT = 4;
+    private static final int BACKGROUND_REQUEST_LIMIT = 1;
+    private final RequestScheduler scheduler = new RequestScheduler(INTERACTIVE_REQUEST_LIMIT, BACKGROUND_REQUEST_LIMIT);
+
+    // Pro Endpunkt ein Circuit Breaker: nach 5 Fehlern in Folge 30 s lang sofort ablehnen
+    private static final int BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long BREAKER_OPEN_MILLIS = 30_000L;
+    // Längere Retry-After-Angaben werden nicht abgewartet, sondern öffnen den Breaker für diese Dauer
+    private static final long MAX_RETRY_AFTER_MILLIS = 30_000L;
+    // Schutz vor absurden Angaben (z.B. HTTP-Datum weit in der Zukunft)
+    private static final long MAX_BREAKER_RETRY_AFTER_MILLIS = 10 * 60_000L;
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    // Gleichzeitige identische GETs teilen sich eine Anfrage
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    // Abgeschlossen, sobald die lokale Preisdatei geladen oder als fehlend erkannt wurde
+    private final CompletableFuture<Void> pricesReady = new CompletableFuture<>();
+
+    // Wird von mehreren Worker-Threads geschrieben
+    private volatile BlockOfTheDayResult cachedBdtResult = null;
+    private volatile LocalDate bdtCacheDate = null;
 
     public PriceAPIClient() {
+        this(DEFAULT_API_BASE_URL, FabricLoader.getInstance().getConfigDir());
+    }
+
+    // Für Tests: anderer Server (Basis-URL mit abschließendem '/') und eigenes Datenverzeichnis
+    PriceAPIClient(String apiBaseUrl, Path dataDir) {
+        this.apiAllPricesUrl = apiBaseUrl + "get_price.php";
+        this.apiSubmitPriceUrl = apiBaseUrl + "submit_price.php";
+        this.apiGetBdtUrl = apiBaseUrl + "get_bdt.php";
+        this.apiCreateBdtUrl = apiBaseUrl + "create_bdt.php";
+        this.apiSubmitBdtVoteUrl = apiBaseUrl + "submit_bdt_vote.php";
+        this.apiUpdateBdtUrl = apiBaseUrl + "update_bdt.php";
+        this.apiClaimDiscordUrl = apiBaseUrl + "UUIDsubmit.php";
+        this.apiGetUserLevelUrl = apiBaseUrl + "get_user_level.php";
+        this.priceFilePath = dataDir.resolve(TradeCore.MOD_ID + "_prices.bin");
+        this.priceFileAltPath = dataDir.resolve(TradeCore.MOD_ID + "_prices.alt.bin");
+        this.legacyPriceFilePath = dataDir.resolve(TradeCore.MOD_ID + "_prices.json");
+        this.priceFileTmpPath = dataDir.resolve(TradeCore.MOD_ID + "_prices.tmp");
+        this.priceMetaPath = dataDir.resolve(TradeCore.MOD_ID + "_prices.meta");
+        this.priceJournalPath = dataDir.resolve(TradeCore.MOD_ID + "_prices.journal");
+        this.priceHistoryPath = dataDir.resolve(TradeCore.MOD_ID + "_history.bin");
+        this.activePriceFile = priceFileAltPath;
+        this.journal = new PriceJournal(priceJournalPath);
+        this.history = new PriceHistoryStore(priceHistoryPath);
         this.client = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
-        this.priceData = new ConcurrentHashMap<>();
+    }
+
+    // Lädt die Preisdatei auf einem Worker, damit der Mod-Init-Thread nicht auf die Platte wartet
+    public CompletableFuture<Void> loadPricesFromDiskAsync() {
+        CompletableFuture.runAsync(this::loadPricesFromDisk, executor).whenComplete((v, e) -> {
+            if (e != null) {
+                TradeCore.LOGGER.error("Fehler beim Laden der lokalen Preisdaten: ", unwrap(e));
+            }
+            pricesReady.complete(null);
+        });
+        return pricesReady;
+    }
+
+    public CompletableFuture<Void> getReadyFuture() {
+        return pricesReady;
+    }
+
+    public boolean isReady() {
+        return pricesReady.isDone();
     }
 
     public void loadPricesFromDisk() {
-        if (Files.exists(PRICE_FILE_PATH)) {
-            try (BufferedReader reader = Files.newBufferedReader(PRICE_FILE_PATH)) {
-                Type priceMapType = new TypeToken<Map<String, PriceResult>>() {}.getType();
-                Map<String, PriceResult> loadedPrices = GSON.fromJson(reader, priceMapType); // Gson kümmert sich um die Felder
-                if (loadedPrices != null) {
-                    priceData.clear();
-                    // Wenn 'stueckpreis' in der JSON-Datei fehlt, initialisiert Gson es mit 0 für int.
-                    // Das ist das gewünschte Verhalten.
-                    priceData.putAll(loadedPrices);
-                    try {
-                        FileTime lastModifiedTime = Files.getLastModifiedTime(PRICE_FILE_PATH);
-                        lastUpdateTimestamp.set(lastModifiedTime.toInstant().getEpochSecond());
-                        TradeCore.LOGGER.info("Preisdaten ({}) geladen. Stand: {}", priceData.size(), Instant.ofEpochSecond(lastUpdateTimestamp.get()));
-                    } catch (IOException e) {
-                        lastUpdateTimestamp.set(Instant.now().getEpochSecond());
-                    }
-                } else {
-                    TradeCore.LOGGER.warn("Preisdatei leer/ungültig.");
-                    lastUpdateTimestamp.set(0);
+        Path primary = newestPriceFile();
+        if (primary != null) {
+            Path secondary = primary.equals(priceFilePath) ? priceFileAltPath : priceFilePath;
+            if (loadPriceFile(primary) || (Files.exists(secondary) && loadPriceFile(secondary))) {
+                return;
+            }
+        }
+        if (Files.exists(legacyPriceFilePath)) {
+            migrateLegacyPriceFile();
+        } else if (primary == null) {
+            TradeCore.LOGGER.info("Keine lokale Preisdatei gefunden.");
+        }
+    }
+
+    // Neuester gültiger Slot nach Header-Zeitstempel bzw. Änderungsdatum (nach einem 304)
+    private Path newestPriceFile() {
+        Path newest = null;
+        long newestStamp = -1L;
+        for (Path candidate : new Path[]{priceFilePath, priceFileAltPath}) {
+            if (!Files.exists(candidate)) {
+                continue;
+            }
+            long stamp = PriceSnapshotFile.readFetchedAt(candidate);
+            if (stamp < 0) {
+                continue;
+            }
+            try {
+                stamp = Math.max(stamp, Files.getLastModifiedTime(candidate).toInstant().getEpochSecond());
+            } catch (IOException e) {
+                TradeCore.LOGGER.warn("Konnte Änderungsdatum von {} nicht lesen: {}", candidate.getFileName(), e.getMessage());
+            }
+            if (stamp > newestStamp) {
+                newest = candidate;
+                newestStamp = stamp;
+            }
+        }
+        return newest;
+    }
+
+    // Blendet die Datei nur ein; Preise werden erst beim ersten Tooltip gelesen, die Prüfsumme im Hintergrund
+    private boolean loadPriceFile(Path path) {
+        long start = System.nanoTime();
+        // Schon vor dem Einblenden, denn auch ein fehlgeschlagener Versuch kann ein Mapping hinterlassen
+        mappedSlots.add(path);
+        try {
+            PriceSnapshot loaded = PriceSnapshotFile.map(path);
+            PriceTable table = loaded.getTable();
+            // Nach einem 304 wird nur das Änderungsdatum angepasst, daher gilt der neuere Zeitstempel
+            long fetchedAt = loaded.getFetchedAt();
+            try {
+                fetchedAt = Math.max(fetchedAt, Files.getLastModifiedTime(path).toInstant().getEpochSecond());
+            } catch (IOException e) {
+                TradeCore.LOGGER.warn("Konnte Änderungsdatum der Preisdatei nicht lesen: {}", e.getMessage());
+            }
+            PriceJournal.Replay replay = journal.replay(loaded);
+            if (!replay.patches.isEmpty()) {
+                // Deltas bauen auf der Basis auf, daher vorher prüfen (nur CRC über die Datei, kein Dekodieren)
+                if (table instanceof MappedPriceTable mapped && !mapped.verifyChecksum()) {
+                    throw new IOException("Prüfsumme der Preisdatei stimmt nicht");
+                }
+                for (PricePatch patch : replay.patches) {
+                    table = table.withPatch(patch);
                 }
-            } catch (IOException | JsonSyntaxException e) {
-                TradeCore.LOGGER.error("Fehler beim Laden der Preisdatei: ", e);
-                priceData.clear();
-                lastUpdateTimestamp.set(0);
+                fetchedAt = Math.max(fetchedAt, replay.fetchedAt);
+                TradeCore.LOGGER.info("Preis-Journal: {} Änderungssätze nachgespielt ({} Bytes).", replay.patches.size(), journal.size());
+            }
+            PriceSnapshot published = publishSnapshot(table, fetchedAt);
+            activePriceFile = path;
+            // Ohne passendes Journal gehört der gespeicherte Cursor evtl. zu verlorenen Deltas: nächster Abruf lädt alles
+            validators = replay.discarded ? PriceCacheValidators.NONE : PriceCacheValidators.load(priceMetaPath);
+            TradeCore.LOGGER.info("Preisdaten ({}) in {} ms geladen. Stand: {}", table.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Instant.ofEpochSecond(published.getFetchedAt()));
+            if (table instanceof MappedPriceTable mapped) {
+                verifyPriceFileAsync(path, mapped);
+            }
+            if (journal.size() > JOURNAL_COMPACT_BYTES) {
+                compactJournalAsync();
+            }
+            return true;
+        } catch (IOException e) {
+            TradeCore.LOGGER.error("Fehler beim Laden der Preisdatei {}: ", path.getFileName(), e);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                TradeCore.LOGGER.error("Konnte korrupte Preisdatei nicht löschen: ", ex);
+            }
+            return false;
+        }
+    }
+
+    private void verifyPriceFileAsync(Path path, MappedPriceTable mapped) {
+        CompletableFuture.runAsync(() -> {
+            if (mapped.verifyChecksum()) {
+                return;
+            }
+            TradeCore.LOGGER.error("Prüfsumme der Preisdatei {} stimmt nicht, verwerfe lokale Preisdaten.", path.getFileName());
+            boolean discarded;
+            synchronized (this) {
+                discarded = snapshot.getTable() == mapped;
+                if (discarded) {
+                    publishSnapshot(PriceTable.EMPTY, 0);
+                    validators = PriceCacheValidators.NONE;
+                }
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                TradeCore.LOGGER.warn("Konnte korrupte Preisdatei nicht löschen: {}", e.getMessage());
+            }
+            if (discarded) {
+                fetchAllPricesAsync();
+            }
+        }, executor).exceptionally(e -> {
+            TradeCore.LOGGER.error("Fehler bei der Prüfung der Preisdatei: ", e);
+            return null;
+        });
+    }
+
+    // Einmalige Migration der alten JSON-Preisdatei; danach wird nur noch das Binärformat gelesen
+    private void migrateLegacyPriceFile() {
+        try (BufferedReader reader = Files.newBufferedReader(legacyPriceFilePath)) {
+            Type priceMapType = new TypeToken<Map<String, PriceResult>>() {}.getType();
+            Map<String, PriceResult> loadedPrices = GSON.fromJson(reader, priceMapType); // Gson kümmert sich um die Felder
+            if (loadedPrices != null) {
+                // Wenn 'stueckpreis' in der JSON-Datei fehlt, initialisiert Gson es mit 0 für int.
+                // Das ist das gewünschte Verhalten.
+                PriceTable table = PriceTable.fromMap(loadedPrices);
+                long fetchedAt;
                 try {
-                    Files.deleteIfExists(PRICE_FILE_PATH);
-                } catch (IOException ex) {
-                    TradeCore.LOGGER.error("Konnte korrupte Preisdatei nicht löschen: ", ex);
+                    FileTime lastModifiedTime = Files.getLastModifiedTime(legacyPriceFilePath);
+                    fetchedAt = lastModifiedTime.toInstant().getEpochSecond();
+                } catch (IOException e) {
+                    fetchedAt = Instant.now().getEpochSecond();
                 }
+                PriceSnapshot published = publishSnapshot(table, fetchedAt);
+                PriceCacheValidators loadedValidators = PriceCacheValidators.load(priceMetaPath);
+                validators = loadedValidators;
+                TradeCore.LOGGER.info("Alte Preisdatei ({}) geladen, migriere ins Binärformat.", table.size());
+                savePricesToDisk(published, loadedValidators);
+            } else {
+                TradeCore.LOGGER.warn("Alte Preisdatei leer/ungültig.");
             }
-        } else {
-            TradeCore.LOGGER.info("Keine lokale Preisdatei gefunden.");
-            lastUpdateTimestamp.set(0);
+        } catch (IOException | JsonSyntaxException e) {
+            TradeCore.LOGGER.error("Fehler beim Laden der alten Preisdatei: ", e);
+        }
+        try {
+            Files.deleteIfExists(legacyPriceFilePath);
+        } catch (IOException e) {
+            TradeCore.LOGGER.error("Konnte alte Preisdatei nicht löschen: ", e);
+        }
+    }
+
+    private void savePricesToDisk(PriceSnapshot snapshotToSave, PriceCacheValidators validatorsToSave) {
+        synchronized (persistLock) {
+            writeBaseFile(snapshotToSave, validatorsToSave);
         }
     }
 
-    private void savePricesToDisk() {
-        Map<String, PriceResult> pricesToSave = Map.copyOf(priceData);
-        try (BufferedWriter writer = Files.newBufferedWriter(PRICE_FILE_TMP_PATH)) {
-            GSON.toJson(pricesToSave, writer);
-            Files.move(PRICE_FILE_TMP_PATH, PRICE_FILE_PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-            lastUpdateTimestamp.set(Instant.now().getEpochSecond());
-            TradeCore.LOGGER.info("Preisdaten ({}) gespeichert.", pricesToSave.size());
+    private void writeBaseFile(PriceSnapshot snapshotToSave, PriceCacheValidators validatorsToSave) {
+        long start = System.nanoTime();
+        Path previous = activePriceFile;
+        Path target = nextPriceFileSlot();
+        try {
+            PriceSnapshotFile.write(target, priceFileTmpPath, snapshotToSave);
+            activePriceFile = target;
+            // Neue Basis enthält alle bisherigen Deltas; schlägt das fehl, wird das alte Journal beim Laden verworfen
+            journal.reset(snapshotToSave);
+            // Validatoren gehören zum Dateiinhalt und werden nur zusammen mit ihm geschrieben
+            validatorsToSave.save(priceMetaPath);
+            if (!previous.equals(target)) {
+                try {
+                    // Schlägt fehl, solange der alte Slot noch gemappt ist; beim Laden gewinnt ohnehin der neuere
+                    Files.deleteIfExists(previous);
+                } catch (IOException e) {
+                    TradeCore.LOGGER.debug("Alter Preisdatei-Slot {} noch in Benutzung: {}", previous.getFileName(), e.getMessage());
+                }
+            }
+            TradeCore.LOGGER.info("Preisdaten ({}) in {} ms gespeichert.", snapshotToSave.getTable().size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         } catch (IOException e) {
-            TradeCore.LOGGER.error("Fehler beim Speichern der Preisdatei: ", e);
+            // Die Validatoren werden erst nach Basis und Journal geschrieben und passen damit weiter zu den Dateien
+            // auf der Platte; sie zu löschen würde beim nächsten Start nur einen vollen Abruf erzwingen.
+            TradeCore.LOGGER.error("Fehler beim Speichern der Preisdatei {}: ", target.getFileName(), e);
             try {
-                Files.deleteIfExists(PRICE_FILE_TMP_PATH);
+                Files.deleteIfExists(priceFileTmpPath);
             } catch (IOException ex) {
                 TradeCore.LOGGER.error("Konnte temporäre Preisdatei nicht löschen: ", ex);
             }
         }
     }
 
-    public void fetchAllPricesAsync() {
-        if (executor.isShutdown() || executor.isTerminated()) {
-            TradeCore.LOGGER.warn("fetchAllPricesAsync: Executor heruntergefahren.");
+    // Bevorzugt der Slot, aus dem nicht gelesen wird; ist der in diesem Prozess gemappt, wird der aktive Slot ersetzt
+    // (Schreiben in die temporäre Datei und atomares Umbenennen, also auch ohne zweiten Slot absturzsicher)
+    Path nextPriceFileSlot() {
+        Path active = activePriceFile;
+        Path other = priceFilePath.equals(active) ? priceFileAltPath : priceFilePath;
+        if (!mappedSlots.contains(other)) {
+            return other;
+        }
+        if (!mappedSlots.contains(active)) {
+            return active;
+        }
+        // Beide gemappt (z.B. erster Slot beim Laden verworfen): Versuch wagen, im Fehlerfall bleibt der alte Stand
+        return other;
+    }
+
+    // Delta nur anhängen statt den ganzen Katalog neu zu schreiben; ohne passendes Journal wird eine neue Basis geschrieben
+    private void appendPatchToDisk(PricePatch patch, PriceSnapshot published, PriceCacheValidators validatorsToSave) {
+        synchronized (persistLock) {
+            if (!journal.isAttached()) {
+                writeBaseFile(published, validatorsToSave);
+                return;
+            }
+            long start = System.nanoTime();
+            long journalSize;
+            try {
+                journalSize = journal.append(patch, published.getFetchedAt());
+                // Erst nach dem Journal: bei einem Absturz dazwischen wird das Delta nur erneut angefordert
+                validatorsToSave.save(priceMetaPath);
+            } catch (IOException e) {
+                TradeCore.LOGGER.error("Fehler beim Schreiben des Preis-Journals, speichere vollständige Preisdatei: ", e);
+                writeBaseFile(published, validatorsToSave);
+                return;
+            }
+            TradeCore.LOGGER.info("Preis-Delta ({} Einträge) in {} ms ans Journal angehängt ({} Bytes).", patch.upsertCount() + patch.removedCount(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), journalSize);
+            if (journalSize > JOURNAL_COMPACT_BYTES) {
+                compactJournalAsync();
+            }
+        }
+    }
+
+    // Übernimmt den aktuellen Stand als neue Basis; das Journal beginnt danach leer
+    private void compactJournalAsync() {
+        if (!compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                synchronized (persistLock) {
+                    TradeCore.LOGGER.info("Kompaktiere Preis-Journal ({} Bytes).", journal.size());
+                    writeBaseFile(snapshot, validators);
+                }
+            } finally {
+                compactionScheduled.set(false);
+            }
+        }, executor).exceptionally(e -> {
+            TradeCore.LOGGER.error("Fehler beim Kompaktieren des Preis-Journals: ", e);
+            return null;
+        });
+    }
+
+    // Nur echte Abrufe landen im Verlauf, nicht das Laden des Caches beim Start
+    private void recordHistory(PriceSnapshot published) {
+        CompletableFuture.runAsync(() -> history.record(published), executor).exceptionally(e -> {
+            TradeCore.LOGGER.error("Fehler beim Erfassen des Preisverlaufs: ", e);
+            return null;
+        });
+    }
+
+    // Ohne Vorgänger (erster Abruf ohne Cache) wäre jedes Item "neu"; das ist keine Bewegung
+    private void computeDiffAsync(PriceSnapshot previous, PriceSnapshot published) {
+        if (previous.getTable().isEmpty()) {
             return;
         }
+        CompletableFuture.runAsync(() -> {
+            PriceDiff diff = PriceDiff.compute(previous, published);
+            lastDiff = diff;
+            TradeCore.LOGGER.info("Preisänderungen: {} geändert, {} neu, {} entfernt.", diff.getChangedCount(), diff.getAddedCount(), diff.getRemovedCount());
+            checkWatchlist(diff);
+        }, executor).exceptionally(e -> {
+            TradeCore.LOGGER.error("Fehler beim Vergleichen der Preisdaten: ", e);
+            return null;
+        });
+    }
+
+    // Geprüft werden nur die Einträge des Diffs; unveränderte Items kosten nichts
+    private void checkWatchlist(PriceDiff diff) {
+        PriceWatchlist watchlist = TradeCoreConfig.watchlist;
+        if (watchlist.isEmpty() || diff.size() == 0) {
+            return;
+        }
+        List<Text> alerts = new ArrayList<>();
+        for (int i = 0; i < diff.size(); i++) {
+            int threshold = watchlist.thresholdFor(diff.getRawId(i));
+            if (threshold <= 0) {
+                continue;
+            }
+            String name = Registries.ITEM.get(diff.getRawId(i)).getName().getString();
+            switch (diff.getKind(i)) {
+                case PriceDiff.ADDED -> alerts.add(Text.literal("[TradeCore] " + name + ": neu gelistet, " + diff.getNewPrice(i) + "$").formatted(Formatting.YELLOW));
+                case PriceDiff.REMOVED -> alerts.add(Text.literal("[TradeCore] " + name + ": nicht mehr gelistet").formatted(Formatting.YELLOW));
+                default -> {
+                    int change = diff.getChangeBasisPoints(i);
+                    if (Math.abs((long) change) >= threshold) {
+                        alerts.add(Text.literal("[TradeCore] " + name + ": " + diff.getOldPrice(i) + "$ → " + diff.getNewPrice(i) + "$ ("
+                                + (change > 0 ? "+" : "") + PriceWatchlist.formatPercent(change) + "%)")
+                                .formatted(change > 0 ? Formatting.GREEN : Formatting.RED));
+                    }
+                }
+            }
+        }
+        if (alerts.isEmpty()) {
+            return;
+        }
+        MinecraftClient client = MinecraftClient.getInstance();
+        client.execute(() -> {
+            if (client.player != null) {
+                for (Text alert : alerts) {
+                    client.player.sendMessage(alert, false);
+                }
+            }
+        });
+    }
+
+    // Dekodiert gzip/deflate gestreamt; unkomprimierte Antworten werden unverändert durchgereicht
+    private InputStream openBody(HttpResponse<InputStream> response) throws IOException {
+        InputStream wire = new CountingInputStream(response.body(), wireBytesReceived);
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        InputStream decoded;
+        switch (encoding) {
+            case "gzip", "x-gzip" -> decoded = new GZIPInputStream(wire);
+            case "deflate" -> decoded = new InflaterInputStream(wire);
+            default -> decoded = wire;
+        }
+        return new CountingInputStream(decoded, decodedBytesReceived);
+    }
+
+    private String readBody(HttpResponse<InputStream> response) throws IOException {
+        try (InputStream body = openBody(response)) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public long getWireBytesReceived() {
+        return wireBytesReceived.get();
+    }
+
+    public long getDecodedBytesReceived() {
+        return decodedBytesReceived.get();
+    }
+
+    public RequestScheduler getRequestScheduler() {
+        return scheduler;
+    }
+
+    public List<CircuitBreaker> getCircuitBreakers() {
+        List<CircuitBreaker> breakers = new ArrayList<>(circuitBreakers.values());
+        breakers.sort(Comparator.comparing(CircuitBreaker::getName));
+        return breakers;
+    }
+
+    public long getCoalescedRequestCount() {
+        return singleFlight.getCoalescedCount();
+    }
+
+    // Das Alter des Caches ergibt sich beim nächsten Start aus dem Änderungsdatum der Preisdatei
+    private void touchPriceFile(long nowMillis) {
+        try {
+            Path active = activePriceFile;
+            if (Files.exists(active)) {
+                Files.setLastModifiedTime(active, FileTime.fromMillis(nowMillis));
+            }
+        } catch (IOException e) {
+            TradeCore.LOGGER.warn("Konnte Zeitstempel der Preisdatei nicht aktualisieren: {}", e.getMessage());
+        }
+    }
+
+    private void saveValidatorsToDisk(PriceCacheValidators validatorsToSave) {
         try {
-            executor.submit(() -> {
-                if (Thread.currentThread().isInterrupted()) {
+            validatorsToSave.save(priceMetaPath);
+        } catch (IOException e) {
+            TradeCore.LOGGER.error("Fehler beim Speichern der Cache-Validatoren: ", e);
+        }
+    }
+
+    // Einziger Schreibpfad für Preisdaten: neuer Snapshot wird komplett gebaut und dann per volatile Swap veröffentlicht
+    private synchronized PriceSnapshot publishSnapshot(PriceTable table, long fetchedAt) {
+        PriceSnapshot next = new PriceSnapshot(snapshot.getVersion() + 1, fetchedAt, table);
+        snapshot = next;
+        return next;
+    }
+
+    // Delta wird auf den jeweils aktuellen Snapshot angewendet, nicht auf eine evtl. veraltete Kopie
+    private synchronized PriceSnapshot publishPatch(PricePatch patch, long fetchedAt) {
+        return publishSnapshot(snapshot.getTable().withPatch(patch), fetchedAt);
+    }
+
+    // Nach 304 Not Modified: gleiche Tabelle und Version, nur der Zeitstempel wird aktualisiert
+    private synchronized PriceSnapshot refreshSnapshot(long fetchedAt) {
+        PriceSnapshot current = snapshot;
+        PriceSnapshot next = new PriceSnapshot(current.getVersion(), fetchedAt, current.getTable());
+        snapshot = next;
+        return next;
+    }
+
+    // Stale-while-revalidate: der geladene Cache wird sofort genutzt, veraltete Daten werden im Hintergrund erneuert
+    public CompletableFuture<Void> fetchAllPricesAsync() {
+        // Start, Timer und manueller Refresh teilen sich einen laufenden Katalog-Download
+        return singleFlight.run(apiAllPricesUrl, () -> fetchCatalogAsync(false));
+    }
+
+    private CompletableFuture<Void> fetchCatalogAsync(boolean force) {
+        if (executor.isShutdown() || executor.isTerminated()) {
+            TradeCore.LOGGER.warn("fetchAllPricesAsync: Executor heruntergefahren.");
+            return CompletableFuture.completedFuture(null);
+        }
+        PriceSnapshot current = snapshot;
+        PriceCacheValidators currentValidators = validators;
+        // Solange frisch (max-age bzw. TTL), gar keine Anfrage; ein manueller Refresh prüft trotzdem
+        if (!force && isCacheFresh(System.currentTimeMillis())) {
+            TradeCore.LOGGER.info("Preisdaten noch frisch (Alter {} min), kein Abruf nötig.", TimeUnit.MILLISECONDS.toMinutes(getCacheAgeMillis()));
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!current.isEmpty()) {
+            TradeCore.LOGGER.info("Preisdaten veraltet (Alter {} min), nutze Cache und prüfe im Hintergrund.", TimeUnit.MILLISECONDS.toMinutes(getCacheAgeMillis()));
+        }
+        TradeCore.LOGGER.info("Starte Preisabruf von {}...", apiAllPricesUrl);
+        // Delta-Sync: mit bekanntem Cursor nur Änderungen seit diesem Stand anfordern.
+        // Server ohne Delta-Unterstützung ignorieren den Parameter und liefern den vollen Katalog.
+        boolean requestDelta = !current.isEmpty() && currentValidators.cursor != null;
+        String url = requestDelta
+                ? apiAllPricesUrl + "?since=" + URLEncoder.encode(currentValidators.cursor, StandardCharsets.UTF_8)
+                : apiAllPricesUrl;
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET()
+                .timeout(Duration.ofSeconds(15));
+        // Conditional GET nur, wenn auch Daten vorhanden sind, auf die ein 304 passen würde
+        if (!current.isEmpty()) {
+            if (currentValidators.etag != null) {
+                requestBuilder.header("If-None-Match", currentValidators.etag);
+            }
+            if (currentValidators.lastModified != null) {
+                requestBuilder.header("If-Modified-Since", currentValidators.lastModified);
+            }
+        }
+        HttpRequest request = requestBuilder.build();
+
+        return sendAsync(RequestScheduler.Lane.BACKGROUND, request, response -> {
+            handleCatalogResponse(response, currentValidators, requestDelta);
+            return (Void) null;
+        }).exceptionally(e -> {
+            TradeCore.LOGGER.error("Fehler beim Preisabruf: ", unwrap(e));
+            return null;
+        });
+    }
+
+    private void handleCatalogResponse(HttpResponse<InputStream> response, PriceCacheValidators currentValidators, boolean requestDelta) throws IOException {
+        // 304 und Fehler werden nicht dekodiert, nur der Stream wird geschlossen
+        try (InputStream body = response.statusCode() == 200 ? openBody(response) : response.body()) {
+            if (response.statusCode() == 304) {
+                // Nichts geändert: kein Parsen, nur Zeitstempel und Validatoren werden aktualisiert
+                long now = System.currentTimeMillis();
+                PriceCacheValidators revalidated = currentValidators.revalidated(response.headers(), now);
+                validators = revalidated;
+                refreshSnapshot(now / 1000);
+                touchPriceFile(now);
+                saveValidatorsToDisk(revalidated);
+                TradeCore.LOGGER.info("Preisdaten unverändert (HTTP 304).");
+            } else if (response.statusCode() == 200) {
+                long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+                if (contentLength > PriceCatalogDecoder.MAX_RESPONSE_BYTES) {
+                    TradeCore.LOGGER.error("Preisabruf abgebrochen: Antwort zu groß ({} Bytes).", contentLength);
                     return;
                 }
-                TradeCore.LOGGER.info("Starte Preisabruf von {}...", API_ALL_PRICES_URL);
-                try {
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(API_ALL_PRICES_URL))
-                            .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
-                            .GET()
-                            .timeout(Duration.ofSeconds(15))
-                            .build();
-                    HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                    if (response.statusCode() == 200) {
-                        JsonObject jsonResponse = JsonParser.parseString(response.body()).getAsJsonObject();
-                        if (jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean() && jsonResponse.has("prices")) {
-                            JsonObject pricesJson = jsonResponse.getAsJsonObject("prices");
-                            Map<String, PriceResult> fetchedPrices = new ConcurrentHashMap<>();
-                            Type priceResultType = new TypeToken<PriceResult>() {}.getType(); // Typ bleibt PriceResult
-                            for (Map.Entry<String, JsonElement> entry : pricesJson.entrySet()) {
-                                try {
-                                    JsonObject itemPriceJson = entry.getValue().getAsJsonObject();
-                                    int stackpreis = itemPriceJson.has("stackpreis") ? itemPriceJson.get("stackpreis").getAsInt() : 0;
-                                    int dkpreis = itemPriceJson.has("dkpreis") ? itemPriceJson.get("dkpreis").getAsInt() : 0;
-                                    int stueckpreis = itemPriceJson.has("stueckpreis") ? itemPriceJson.get("stueckpreis").getAsInt() : 0;
-
-                                    fetchedPrices.put(entry.getKey(), new PriceResult(stackpreis, dkpreis, stueckpreis));
-                                } catch (Exception e) {
-                                    TradeCore.LOGGER.warn("Parse Fehler für Item '{}': {}", entry.getKey(), e.getMessage());
-                                }
-                            }
-                            if (!fetchedPrices.isEmpty()) {
-                                priceData.clear();
-                                priceData.putAll(fetchedPrices);
-                                TradeCore.LOGGER.info("{} Preise von API erhalten.", fetchedPrices.size());
-                                savePricesToDisk();
-                            } else {
-                                TradeCore.LOGGER.warn("API lieferte keine Preisdaten.");
-                            }
-                        } else {
-                            String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Unknown error";
-                            TradeCore.LOGGER.error("Preisabruf fehlgeschlagen: {}", message);
-                        }
+                // Body als Stream: Der Decoder liest direkt vom Socket in den Tabellen-Builder
+                PriceTable.Builder fetchedPrices = PriceTable.builder();
+                PricePatch.Builder fetchedPatch = PricePatch.builder();
+                PriceCatalogDecoder.Result result = PriceCatalogDecoder.decode(body, fetchedPrices, fetchedPatch);
+                if (result.success && result.delta && requestDelta) {
+                    long now = System.currentTimeMillis();
+                    String nextCursor = result.cursor != null ? result.cursor : currentValidators.cursor;
+                    PriceCacheValidators fetchedValidators = PriceCacheValidators.fromResponse(response.headers(), now, nextCursor);
+                    PricePatch patch = fetchedPatch.build();
+                    validators = fetchedValidators;
+                    if (patch.isEmpty()) {
+                        refreshSnapshot(now / 1000);
+                        touchPriceFile(now);
+                        saveValidatorsToDisk(fetchedValidators);
+                        TradeCore.LOGGER.info("Preis-Delta leer, Daten aktuell.");
+                    } else {
+                        PriceSnapshot previous = snapshot;
+                        PriceSnapshot published = publishPatch(patch, now / 1000);
+                        TradeCore.LOGGER.info("Preis-Delta angewendet: {} geändert, {} entfernt (Version {}).", result.changedEntries, result.removedEntries, published.getVersion());
+                        appendPatchToDisk(patch, published, fetchedValidators);
+                        recordHistory(published);
+                        computeDiffAsync(previous, published);
+                    }
+                } else if (result.success && result.hasPrices) {
+                    PriceTable fetchedTable = fetchedPrices.build();
+                    if (!fetchedTable.isEmpty()) {
+                        long now = System.currentTimeMillis();
+                        PriceCacheValidators fetchedValidators = PriceCacheValidators.fromResponse(response.headers(), now, result.cursor);
+                        PriceSnapshot previous = snapshot;
+                        PriceSnapshot published = publishSnapshot(fetchedTable, now / 1000);
+                        validators = fetchedValidators;
+                        TradeCore.LOGGER.info("{} Preise von API erhalten (Version {}). Gesamt übertragen: {} Bytes, entpackt: {} Bytes.", fetchedTable.size(), published.getVersion(), wireBytesReceived.get(), decodedBytesReceived.get());
+                        savePricesToDisk(published, fetchedValidators);
+                        recordHistory(published);
+                        computeDiffAsync(previous, published);
                     } else {
-                        if (response.statusCode() == 403) {
-                            TradeCore.LOGGER.error("Preisabruf HTTP 403 (Forbidden). Prüfe Header!");
+                        TradeCore.LOGGER.warn("API lieferte keine Preisdaten.");
+                    }
+                } else {
+                    String message = result.message != null ? result.message : "Unknown error";
+                    TradeCore.LOGGER.error("Preisabruf fehlgeschlagen: {}", message);
+                }
+            } else {
+                if (response.statusCode() == 403) {
+                    TradeCore.LOGGER.error("Preisabruf HTTP 403 (Forbidden). Prüfe Header!");
+                } else {
+                    TradeCore.LOGGER.error("Preisabruf HTTP Fehler: {}", response.statusCode());
+                }
+            }
+        }
+    }
+
+    // Gemeinsamer Request-Pfad: sendAsync belegt während der Übertragung keinen Thread,
+    // nur das Lesen/Parsen des Bodys läuft auf dem API-Executor. Mehrere Anfragen laufen parallel,
+    // der Scheduler entscheidet je nach Lane, wann eine Anfrage starten darf.
+    // Idempotente GETs werden bei Netzwerkfehlern, 5xx und 429 mit Backoff wiederholt, POSTs nie.
+    private <T> CompletableFuture<T> sendAsync(RequestScheduler.Lane lane, HttpRequest request, ResponseHandler<T> handler) {
+        CircuitBreaker breaker = breakerFor(request.uri());
+        boolean idempotent = "GET".equals(request.method());
+        int maxRetries = idempotent ? TradeCoreConfig.apiMaxRetries : 0;
+        return attemptAsync(lane, request, handler, breaker, idempotent, 0, maxRetries);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(RequestScheduler.Lane lane, HttpRequest request, ResponseHandler<T> handler,
+                                                  CircuitBreaker breaker, boolean idempotent, int attempt, int maxRetries) {
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new IOException("Endpunkt " + breaker.getName() + " vorübergehend gesperrt (Circuit Breaker offen)"));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Der Scheduler-Slot gilt nur für Übertragung und Parsen, nicht für die Wartezeit vor einem neuen Versuch
+        scheduler.submit(lane, () -> this.client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .handleAsync((response, error) -> {
+                    long retryDelay = -1L; // < 0 = nicht wiederholen
+                    if (error != null) {
+                        breaker.recordFailure();
+                        if (attempt < maxRetries) {
+                            retryDelay = backoffMillis(attempt);
+                        }
+                    } else if (response.statusCode() == 429 && !idempotent) {
+                        // Bei POSTs ist 429 eine fachliche Antwort (z.B. Cooldown bei update_bdt), kein Ausfall
+                        breaker.recordSuccess();
+                    } else if (isRetryableStatus(response.statusCode())) {
+                        long retryAfter = parseRetryAfterMillis(response.headers());
+                        if (retryAfter > MAX_RETRY_AFTER_MILLIS) {
+                            // Länger als wir warten würden: nicht wiederholen, Endpunkt so lange sperren
+                            breaker.openFor(Math.min(retryAfter, MAX_BREAKER_RETRY_AFTER_MILLIS));
+                        } else if (attempt < maxRetries) {
+                            breaker.recordFailure();
+                            closeQuietly(response.body());
+                            retryDelay = Math.max(retryAfter, backoffMillis(attempt));
                         } else {
-                            TradeCore.LOGGER.error("Preisabruf HTTP Fehler: {}", response.statusCode());
+                            // Letzter Versuch: der Handler bekommt die Fehlerantwort wie bisher
+                            breaker.recordFailure(retryAfter);
                         }
+                    } else {
+                        breaker.recordSuccess();
                     }
-                } catch (Exception e) {
-                    if (!(e instanceof InterruptedException)) {
-                        TradeCore.LOGGER.error("Fehler beim Preisabruf: ", e);
+
+                    if (retryDelay >= 0) {
+                        TradeCore.LOGGER.warn("Anfrage an {} fehlgeschlagen ({}), Versuch {} von {} in {} ms.", breaker.getName(),
+                                error != null ? unwrap(error).toString() : "HTTP " + response.statusCode(), attempt + 2, maxRetries + 1, retryDelay);
+                        Executor delayed = CompletableFuture.delayedExecutor(retryDelay, TimeUnit.MILLISECONDS, executor);
+                        CompletableFuture.supplyAsync(() -> attemptAsync(lane, request, handler, breaker, idempotent, attempt + 1, maxRetries), delayed)
+                                .thenCompose(next -> next)
+                                .whenComplete((value, retryError) -> {
+                                    if (retryError != null) {
+                                        result.completeExceptionally(unwrap(retryError));
+                                    } else {
+                                        result.complete(value);
+                                    }
+                                });
+                    } else if (error != null) {
+                        result.completeExceptionally(unwrap(error));
                     } else {
-                        Thread.currentThread().interrupt();
+                        try {
+                            result.complete(handler.handle(response));
+                        } catch (Exception e) {
+                            result.completeExceptionally(e);
+                        }
                     }
-                }
-            });
-        } catch (RejectedExecutionException e) {
-            TradeCore.LOGGER.error("Executor is shut down, cannot execute fetchAllPricesAsync", e);
+                    return null;
+                }, executor))
+                .whenComplete((ignored, error) -> {
+                    // z.B. Executor abgelehnt: Ergebnis wurde nie ausgewertet. Eine laufende Probe muss trotzdem
+                    // freigegeben werden, sonst bleibt der Breaker dauerhaft halb offen. Aufrufer nicht hängen lassen.
+                    if (error != null) {
+                        breaker.recordFailure();
+                        result.completeExceptionally(unwrap(error));
+                    }
+                });
+        return result;
+    }
+
+    CircuitBreaker breakerFor(URI uri) {
+        String path = uri.getPath();
+        String endpoint = path.substring(path.lastIndexOf('/') + 1);
+        return circuitBreakers.computeIfAbsent(endpoint, name -> new CircuitBreaker(name, BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_MILLIS));
+    }
+
+    private static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    // Exponentieller Backoff mit "Full Jitter", damit nicht alle Clients gleichzeitig wiederkommen
+    private static long backoffMillis(int attempt) {
+        long base = TradeCoreConfig.apiRetryBaseDelayMillis;
+        long cap = TradeCoreConfig.apiRetryMaxDelayMillis;
+        long exponential = base << Math.min(attempt, 20);
+        long bound = Math.max(1L, Math.min(cap, exponential));
+        return ThreadLocalRandom.current().nextLong(bound / 2, bound + 1);
+    }
+
+    // Retry-After als Sekunden oder HTTP-Datum, 0 = nicht gesetzt/ungültig
+    private static long parseRetryAfterMillis(HttpHeaders headers) {
+        String value = headers.firstValue("Retry-After").orElse(null);
+        if (value == null || value.isBlank()) {
+            return 0L;
         }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()) * 1000L);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0L, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ex) {
+                TradeCore.LOGGER.warn("Ungültiger Retry-After Header: {}", value);
+                return 0L;
+            }
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
     }
 
     public CompletableFuture<Boolean> submitPriceSuggestion(String itemName, int stueckPreis, int stackPrice, int dkPrice, String playerName, String playerUuid) {
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
         if (executor.isShutdown() || executor.isTerminated()) {
             TradeCore.LOGGER.warn("submitPriceSuggestion: Executor heruntergefahren.");
-            future.complete(false);
-            return future;
+            return CompletableFuture.completedFuture(false);
         }
-        try {
-            executor.submit(() -> {
-                if (Thread.currentThread().isInterrupted()) {
-                    future.complete(false);
-                    return;
+        TradeCore.LOGGER.info("Sende Preisvorschlag: {} von {} (Stück: {}, Stack: {}, DK: {})", itemName, playerName, stueckPreis, stackPrice, dkPrice);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("itemName", itemName);
+        payload.addProperty("stueckPreis", stueckPreis);
+        payload.addProperty("stackPrice", stackPrice);
+        payload.addProperty("dkPrice", dkPrice);
+        payload.addProperty("playerName", playerName);
+        payload.addProperty("playerUuid", playerUuid);
+        String jsonBody = GSON.toJson(payload);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(apiSubmitPriceUrl))
+                .header("Content-Type", "application/json")
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .POST(BodyPublishers.ofString(jsonBody))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        return sendAsync(RequestScheduler.Lane.INTERACTIVE, request, response -> {
+            String responseBody = readBody(response);
+            if (response.statusCode() == 200) {
+                if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
+                    TradeCore.LOGGER.error("Submit Error: API response empty/null.");
+                    return false;
                 }
                 try {
-                    TradeCore.LOGGER.info("Sende Preisvorschlag: {} von {} (Stück: {}, Stack: {}, DK: {})", itemName, playerName, stueckPreis, stackPrice, dkPrice);
-                    JsonObject payload = new JsonObject();
-                    payload.addProperty("itemName", itemName);
-                    payload.addProperty("stueckPreis", stueckPreis);
-                    payload.addProperty("stackPrice", stackPrice);
-                    payload.addProperty("dkPrice", dkPrice);
-                    payload.addProperty("playerName", playerName);
-                    payload.addProperty("playerUuid", playerUuid);
-                    String jsonBody = GSON.toJson(payload);
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(API_SUBMIT_PRICE_URL))
-                            .header("Content-Type", "application/json")
-                            .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
-                            .POST(BodyPublishers.ofString(jsonBody))
-                            .timeout(Duration.ofSeconds(10))
-                            .build();
-                    HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                    if (response.statusCode() == 200) {
-                        String responseBody = response.body();
-                        if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
-                            TradeCore.LOGGER.error("Submit Error: API response empty/null.");
-                            future.complete(false);
-                            return;
-                        }
-                        try {
-                            JsonElement jsonElement = JsonParser.parseString(responseBody);
-                            if (jsonElement != null && jsonElement.isJsonObject()) {
-                                JsonObject jsonResponse = jsonElement.getAsJsonObject();
-                                boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
-                                if (success) {
-                                    future.complete(true);
-                                } else {
-                                    String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Unknown";
-                                    TradeCore.LOGGER.error("Submit Error: API reports failure: {}", message);
-                                    future.complete(false);
-                                }
-                            } else {
-                                TradeCore.LOGGER.error("Submit Error: Invalid JSON object received: {}", responseBody);
-                                future.complete(false);
-                            }
-                        } catch (JsonSyntaxException jsonEx) {
-                            TradeCore.LOGGER.error("Submit Error: Invalid JSON syntax: {}", responseBody, jsonEx);
-                            future.complete(false);
+                    JsonElement jsonElement = JsonParser.parseString(responseBody);
+                    if (jsonElement != null && jsonElement.isJsonObject()) {
+                        JsonObject jsonResponse = jsonElement.getAsJsonObject();
+                        boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
+                        if (success) {
+                            return true;
                         }
-                    } else {
-                        TradeCore.LOGGER.error("Submit Error: HTTP Status {}", response.statusCode());
-                        future.complete(false);
+                        String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Unknown";
+                        TradeCore.LOGGER.error("Submit Error: API reports failure: {}", message);
+                        return false;
                     }
-                } catch (Exception e) {
-                    if (!(e instanceof InterruptedException)) {
-                        TradeCore.LOGGER.error("Submit Error (Network/Exception): ", e);
-                    } else {
-                        Thread.currentThread().interrupt();
-                    }
-                    future.complete(false);
+                    TradeCore.LOGGER.error("Submit Error: Invalid JSON object received: {}", responseBody);
+                    return false;
+                } catch (JsonSyntaxException jsonEx) {
+                    TradeCore.LOGGER.error("Submit Error: Invalid JSON syntax: {}", responseBody, jsonEx);
+                    return false;
                 }
-            });
-        } catch (RejectedExecutionException e) {
-            TradeCore.LOGGER.error("Executor is shut down, cannot execute submitPriceSuggestion", e);
-            future.complete(false);
-        }
-        return future;
+            }
+            TradeCore.LOGGER.error("Submit Error: HTTP Status {}", response.statusCode());
+            return false;
+        }).exceptionally(e -> {
+            TradeCore.LOGGER.error("Submit Error (Network/Exception): ", unwrap(e));
+            return false;
+        });
     }
 
     public ClaimResult submitClaimRequest(String playerUuid, String minecraftName, String discordId) {
         if (Thread.currentThread().isInterrupted()) {
             return new ClaimResult(false, "Interner Thread wurde unterbrochen.");
         }
-        try {
-            TradeCore.LOGGER.info("Sende Claim-Anfrage für UUID: {}, Name: {}, Discord ID: {}", playerUuid, minecraftName, discordId);
-            JsonObject payload = new JsonObject();
-            payload.addProperty("playerUuid", playerUuid);
-            payload.addProperty("minecraftName", minecraftName);
-            payload.addProperty("discordId", discordId);
-
-            String jsonBody = GSON.toJson(payload);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_CLAIM_DISCORD_URL))
-                    .header("Content-Type", "application/json")
-                    .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
-                    .POST(BodyPublishers.ofString(jsonBody))
-                    .timeout(Duration.ofSeconds(15))
-                    .build();
+        // Synchrone Variante für den ClaimCommand, der bereits in einem eigenen Task läuft
+        return submitClaimRequestAsync(playerUuid, minecraftName, discordId).join();
+    }
 
-            HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+    public CompletableFuture<ClaimResult> submitClaimRequestAsync(String playerUuid, String minecraftName, String discordId) {
+        if (executor.isShutdown() || executor.isTerminated()) {
+            TradeCore.LOGGER.warn("submitClaimRequestAsync: Executor heruntergefahren.");
+            return CompletableFuture.completedFuture(new ClaimResult(false, "Fehler: Client heruntergefahren"));
+        }
+        TradeCore.LOGGER.info("Sende Claim-Anfrage für UUID: {}, Name: {}, Discord ID: {}", playerUuid, minecraftName, discordId);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("playerUuid", playerUuid);
+        payload.addProperty("minecraftName", minecraftName);
+        payload.addProperty("discordId", discordId);
+
+        String jsonBody = GSON.toJson(payload);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(apiClaimDiscordUrl))
+                .header("Content-Type", "application/json")
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .POST(BodyPublishers.ofString(jsonBody))
+                .timeout(Duration.ofSeconds(15))
+                .build();
 
+        return sendAsync(RequestScheduler.Lane.INTERACTIVE, request, response -> {
+            String responseBody = readBody(response);
             if (response.statusCode() == 200) {
-                String responseBody = response.body();
                 if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
                     TradeCore.LOGGER.error("Claim Error: API response empty/null.");
                     return new ClaimResult(false, "Leere oder ungültige Antwort vom Server.");
@@ -319,46 +951,116 @@ public class PriceAPIClient {
                     return new ClaimResult(false, "Ungültige JSON-Syntax vom Server.");
                 }
             } else {
-                TradeCore.LOGGER.error("Claim Error: HTTP Status {}. Body: {}", response.statusCode(), response.body());
+                TradeCore.LOGGER.error("Claim Error: HTTP Status {}. Body: {}", response.statusCode(), responseBody);
                 return new ClaimResult(false, "Serverfehler: HTTP " + response.statusCode());
             }
-        } catch (Exception e) {
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-                return new ClaimResult(false, "Anfrage unterbrochen.");
-            }
-            TradeCore.LOGGER.error("Claim Error (Network/Exception): ", e);
-            return new ClaimResult(false, "Netzwerk- oder interner Fehler: " + e.getMessage());
-        }
+        }).exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            TradeCore.LOGGER.error("Claim Error (Network/Exception): ", cause);
+            return new ClaimResult(false, "Netzwerk- oder interner Fehler: " + cause.getMessage());
+        });
     }
 
 
+    // Kompatibilitätspfad; der Tooltip nutzt getPriceTable() mit Raw-IDs
     public PriceResult getItemPrices(String itemName) {
-        return priceData.get(itemName);
+        return snapshot.getTable().get(itemName);
+    }
+
+    // Preis der Variante des Stacks (Verzauberungen, Trank, ...), sonst der Basispreis des Items; null ohne Preis
+    public PriceResult getItemPrices(ItemStack stack) {
+        PriceTable table = snapshot.getTable();
+        int rawId = Registries.ITEM.getRawId(stack.getItem());
+        long variantHash = table.getVariants().isEmpty() ? 0L : ItemVariantKey.of(stack);
+        int variantIndex = variantHash != 0L ? table.getVariants().find(rawId, variantHash) : -1;
+        if (variantIndex >= 0) {
+            VariantPrices variants = table.getVariants();
+            return new PriceResult(variants.getStackpreis(variantIndex), variants.getDkpreis(variantIndex), variants.getStueckpreis(variantIndex));
+        }
+        if (!table.contains(rawId)) {
+            return null;
+        }
+        return new PriceResult(table.getStackpreis(rawId), table.getDkpreis(rawId), table.getStueckpreis(rawId));
+    }
+
+    // null, solange seit dem Start noch kein Katalog mit Vorgänger angekommen ist
+    public PriceDiff getLastDiff() {
+        return lastDiff;
+    }
+
+    public PriceHistoryStore getPriceHistory() {
+        return history;
+    }
+
+    // Abfragen lesen von der Platte und laufen daher nie auf dem Render-Thread
+    public CompletableFuture<PriceSeries> queryPriceHistoryAsync(String itemId, long fromSeconds, long toSeconds) {
+        return CompletableFuture.supplyAsync(() -> history.query(itemId, fromSeconds, toSeconds), executor);
+    }
+
+    public PriceTable getPriceTable() {
+        return snapshot.getTable();
+    }
+
+    public PriceSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public long getLastUpdateTimestamp() {
-        return lastUpdateTimestamp.get();
+        return snapshot.getFetchedAt();
+    }
+
+    // Frisch = innerhalb von Cache-Control: max-age, ohne Server-Angabe innerhalb der konfigurierten TTL;
+    // no-cache/no-store/max-age=0 sind nie frisch
+    public boolean isCacheFresh(long nowMillis) {
+        PriceSnapshot current = snapshot;
+        if (current.isEmpty()) {
+            return false;
+        }
+        PriceCacheValidators currentValidators = validators;
+        if (currentValidators.hasFreshnessInfo()) {
+            return currentValidators.isFresh(nowMillis);
+        }
+        return nowMillis < current.getFetchedAt() * 1000L + TimeUnit.HOURS.toMillis(TradeCoreConfig.priceCacheTtlHours);
+    }
+
+    public long getCacheAgeMillis() {
+        PriceSnapshot current = snapshot;
+        if (current.isEmpty()) {
+            return 0L;
+        }
+        return Math.max(0L, System.currentTimeMillis() - current.getFetchedAt() * 1000L);
     }
 
     public void triggerPriceUpdate() {
         TradeCore.LOGGER.info("Manuelle Preisaktualisierung ausgelöst.");
         TradeCoreConfig.updateAndSaveLastFetchTimestamp(System.currentTimeMillis());
-        fetchAllPricesAsync();
+        singleFlight.run(apiAllPricesUrl, () -> fetchCatalogAsync(true));
     }
 
-    public void deletePriceFile() {
-        try {
-            boolean deleted = Files.deleteIfExists(PRICE_FILE_PATH);
-            if (deleted)
-                TradeCore.LOGGER.info("Preisdatei {} gelöscht.", PRICE_FILE_PATH.getFileName());
-            Files.deleteIfExists(PRICE_FILE_TMP_PATH);
-        } catch (IOException | SecurityException e) {
-            TradeCore.LOGGER.error("Fehler beim Löschen der Preisdatei {}: ", PRICE_FILE_PATH.getFileName(), e);
-        }
-        priceData.clear();
-        lastUpdateTimestamp.set(0);
-        TradeCore.LOGGER.info("In-Memory Preisdaten geleert.");
+    // Expliziter "Cache leeren"-Button; beim Beenden bleibt die Datei als Warm-Cache erhalten.
+    // Läuft auf dem Worker unter dem Persistenz-Lock, damit kein gleichzeitiges Speichern die Dateien neu anlegt.
+    public CompletableFuture<Void> deletePriceFile() {
+        return CompletableFuture.runAsync(() -> {
+            synchronized (persistLock) {
+                // Jede Datei einzeln, damit ein noch gemappter Slot das Löschen der übrigen nicht verhindert
+                journal.detach();
+                for (Path path : new Path[]{priceFilePath, priceFileAltPath, priceFileTmpPath, priceMetaPath, priceJournalPath, legacyPriceFilePath}) {
+                    try {
+                        if (Files.deleteIfExists(path)) {
+                            TradeCore.LOGGER.info("Preisdatei {} gelöscht.", path.getFileName());
+                        }
+                    } catch (IOException | SecurityException e) {
+                        TradeCore.LOGGER.error("Fehler beim Löschen der Preisdatei {}: ", path.getFileName(), e);
+                    }
+                }
+                // Snapshot und Validatoren gemeinsam, wie beim Verwerfen einer korrupten Datei
+                synchronized (this) {
+                    publishSnapshot(PriceTable.EMPTY, 0);
+                    validators = PriceCacheValidators.NONE;
+                }
+            }
+            TradeCore.LOGGER.info("In-Memory Preisdaten geleert.");
+        }, executor);
     }
 
     public static class PriceResult {
@@ -373,6 +1075,38 @@ public class PriceAPIClient {
         }
     }
 
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        T handle(HttpResponse<InputStream> response) throws Exception;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
     public static class ClaimResult {
         public final boolean success;
         public final String message;
@@ -383,8 +1117,15 @@ public class PriceAPIClient {
         }
     }
 
+    // Für Tests: beendet die Worker; danach werden neue Aufgaben vom Executor abgelehnt
+    void close() {
+        executor.shutdownNow();
+    }
+
     public void shutdown() {
         TradeCore.LOGGER.info("PriceAPIClient shutdown() aufgerufen.");
+        // Offene Verlaufs-Chunks liegen nur im Speicher
+        history.flush();
     }
 
     public static class BlockOfTheDayResult {
@@ -433,11 +1174,9 @@ public class PriceAPIClient {
     }
 
     public CompletableFuture<BlockOfTheDayResult> forceFetchBlockOfTheDayAsync() {
-        CompletableFuture<BlockOfTheDayResult> future = new CompletableFuture<>();
         if (executor.isShutdown() || executor.isTerminated()) {
             TradeCore.LOGGER.warn("forceFetchBlockOfTheDayAsync: Executor heruntergefahren.");
-            future.complete(new BlockOfTheDayResult("Fehler: Client heruntergefahren"));
-            return future;
+            return CompletableFuture.completedFuture(new BlockOfTheDayResult("Fehler: Client heruntergefahren"));
         }
 
         String playerUuid = "";
@@ -447,356 +1186,271 @@ public class PriceAPIClient {
         } else {
             TradeCore.LOGGER.warn("Konnte Player UUID für BdT-Abruf nicht ermitteln (Client nicht verfügbar).");
         }
-        final String finalPlayerUuid = playerUuid;
 
-        try {
-            executor.submit(() -> {
-                if (Thread.currentThread().isInterrupted()) {
-                    future.complete(new BlockOfTheDayResult("Fehler: Thread unterbrochen"));
-                    return;
-                }
-                TradeCore.LOGGER.info("Erzwungenes Neuladen: Rufe Block des Tages von {} ab...", API_GET_BDT_URL);
-                try {
-                    String urlWithParams = API_GET_BDT_URL + (finalPlayerUuid.isEmpty() ? "" : "?playerUuid=" + finalPlayerUuid);
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(urlWithParams))
-                            .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
-                            .GET()
-                            .timeout(Duration.ofSeconds(10))
-                            .build();
-
-                    HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
-                    BlockOfTheDayResult result;
-                    LocalDate todayResponse = LocalDate.now();
-
-                    if (response.statusCode() == 200) {
-                        String responseBody = response.body();
-                        if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
-                            result = new BlockOfTheDayResult("Fehler: Leere Server-Antwort");
-                        } else {
-                            try {
-                                JsonElement jsonElement = JsonParser.parseString(responseBody);
-                                if (jsonElement.isJsonObject()) {
-                                    JsonObject jsonResponse = jsonElement.getAsJsonObject();
-                                    if (jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean()) {
-                                        String bdtId = jsonResponse.has("bdt_id") ? jsonResponse.get("bdt_id").getAsString() : null;
-                                        String itemName = jsonResponse.has("item_name") ? jsonResponse.get("item_name").getAsString() : "Unbekannt";
-                                        String gewinn = jsonResponse.has("gewinn") ? jsonResponse.get("gewinn").getAsString() : "-";
-                                        int schnellVotes = jsonResponse.has("schnell_votes") ? jsonResponse.get("schnell_votes").getAsInt() : 0;
-                                        int langsamVotes = jsonResponse.has("langsam_votes") ? jsonResponse.get("langsam_votes").getAsInt() : 0;
-                                        boolean hasVoted = jsonResponse.has("has_voted") ? jsonResponse.get("has_voted").getAsBoolean() : false;
-                                        long remainingEditCooldown = jsonResponse.has("remaining_edit_cooldown") ? jsonResponse.get("remaining_edit_cooldown").getAsLong() : 0;
-
-                                        if (bdtId == null) {
-                                            TradeCore.LOGGER.error("BdT von API erhalten (force fetch), aber ohne 'bdt_id'!");
-                                            result = new BlockOfTheDayResult("Fehler: Ungültige Serverdaten (fehlende ID)");
-                                        } else {
-                                            result = new BlockOfTheDayResult(bdtId, itemName, gewinn, schnellVotes, langsamVotes, hasVoted, remainingEditCooldown);
-                                            TradeCore.LOGGER.info("Block des Tages ({}) erhalten (force fetch): {}", bdtId, itemName);
-                                        }
-                                    } else {
-                                        String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Kein Block gefunden.";
-                                        result = new BlockOfTheDayResult(message);
-                                        TradeCore.LOGGER.info("Kein Block des Tages (force fetch): {}", message);
-                                    }
+        String urlWithParams = apiGetBdtUrl + (playerUuid.isEmpty() ? "" : "?playerUuid=" + playerUuid);
+        // Mehrfaches Öffnen/Aktualisieren des Screens löst nur einen Abruf aus
+        return singleFlight.run(urlWithParams, () -> requestBlockOfTheDay(urlWithParams));
+    }
+
+    private CompletableFuture<BlockOfTheDayResult> requestBlockOfTheDay(String urlWithParams) {
+        TradeCore.LOGGER.info("Erzwungenes Neuladen: Rufe Block des Tages von {} ab...", apiGetBdtUrl);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(urlWithParams))
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET()
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        return sendAsync(RequestScheduler.Lane.INTERACTIVE, request, response -> {
+            String responseBody = readBody(response);
+            BlockOfTheDayResult result;
+            LocalDate todayResponse = LocalDate.now();
+
+            if (response.statusCode() == 200) {
+                if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
+                    result = new BlockOfTheDayResult("Fehler: Leere Server-Antwort");
+                } else {
+                    try {
+                        JsonElement jsonElement = JsonParser.parseString(responseBody);
+                        if (jsonElement.isJsonObject()) {
+                            JsonObject jsonResponse = jsonElement.getAsJsonObject();
+                            if (jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean()) {
+                                String bdtId = jsonResponse.has("bdt_id") ? jsonResponse.get("bdt_id").getAsString() : null;
+                                String itemName = jsonResponse.has("item_name") ? jsonResponse.get("item_name").getAsString() : "Unbekannt";
+                                String gewinn = jsonResponse.has("gewinn") ? jsonResponse.get("gewinn").getAsString() : "-";
+                                int schnellVotes = jsonResponse.has("schnell_votes") ? jsonResponse.get("schnell_votes").getAsInt() : 0;
+                                int langsamVotes = jsonResponse.has("langsam_votes") ? jsonResponse.get("langsam_votes").getAsInt() : 0;
+                                boolean hasVoted = jsonResponse.has("has_voted") ? jsonResponse.get("has_voted").getAsBoolean() : false;
+                                long remainingEditCooldown = jsonResponse.has("remaining_edit_cooldown") ? jsonResponse.get("remaining_edit_cooldown").getAsLong() : 0;
+
+                                if (bdtId == null) {
+                                    TradeCore.LOGGER.error("BdT von API erhalten (force fetch), aber ohne 'bdt_id'!");
+                                    result = new BlockOfTheDayResult("Fehler: Ungültige Serverdaten (fehlende ID)");
                                 } else {
-                                    TradeCore.LOGGER.error("Fehler beim Parsen der BdT JSON (force fetch): Kein JSON Objekt. Body: {}", responseBody);
-                                    result = new BlockOfTheDayResult("Fehler: Ungültiges JSON-Format");
+                                    result = new BlockOfTheDayResult(bdtId, itemName, gewinn, schnellVotes, langsamVotes, hasVoted, remainingEditCooldown);
+                                    TradeCore.LOGGER.info("Block des Tages ({}) erhalten (force fetch): {}", bdtId, itemName);
                                 }
-                            } catch (JsonSyntaxException | IllegalStateException | ClassCastException jsonEx) {
-                                TradeCore.LOGGER.error("Fehler beim Parsen der BdT JSON (force fetch): {}", responseBody, jsonEx);
-                                result = new BlockOfTheDayResult("Fehler: Ungültige Server-Antwort");
+                            } else {
+                                String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Kein Block gefunden.";
+                                result = new BlockOfTheDayResult(message);
+                                TradeCore.LOGGER.info("Kein Block des Tages (force fetch): {}", message);
                             }
+                        } else {
+                            TradeCore.LOGGER.error("Fehler beim Parsen der BdT JSON (force fetch): Kein JSON Objekt. Body: {}", responseBody);
+                            result = new BlockOfTheDayResult("Fehler: Ungültiges JSON-Format");
                         }
-                    } else {
-                        TradeCore.LOGGER.error("Fehler beim Abrufen des BdT (force fetch): HTTP Status {}", response.statusCode());
-                        result = new BlockOfTheDayResult("Fehler: Server nicht erreichbar (HTTP " + response.statusCode() + ")");
+                    } catch (JsonSyntaxException | IllegalStateException | ClassCastException jsonEx) {
+                        TradeCore.LOGGER.error("Fehler beim Parsen der BdT JSON (force fetch): {}", responseBody, jsonEx);
+                        result = new BlockOfTheDayResult("Fehler: Ungültige Server-Antwort");
                     }
-
-                    if (result.found || (result.message != null && !result.message.startsWith("Fehler:"))) {
-                        this.cachedBdtResult = result;
-                        this.bdtCacheDate = todayResponse;
-                    }
-                    future.complete(result);
-                } catch (Exception e) {
-                    if (!(e instanceof InterruptedException)) {
-                        TradeCore.LOGGER.error("Fehler beim Abrufen des BdT (force fetch): ", e);
-                    } else {
-                        Thread.currentThread().interrupt();
-                    }
-                    future.complete(new BlockOfTheDayResult("Fehler: Netzwerkproblem"));
                 }
-            });
-        } catch (RejectedExecutionException e) {
-            TradeCore.LOGGER.error("Executor is shut down, cannot execute forceFetchBlockOfTheDayAsync", e);
-            future.complete(new BlockOfTheDayResult("Fehler: Client heruntergefahren"));
-        }
-        return future;
+            } else {
+                TradeCore.LOGGER.error("Fehler beim Abrufen des BdT (force fetch): HTTP Status {}", response.statusCode());
+                result = new BlockOfTheDayResult("Fehler: Server nicht erreichbar (HTTP " + response.statusCode() + ")");
+            }
+
+            if (result.found || (result.message != null && !result.message.startsWith("Fehler:"))) {
+                this.cachedBdtResult = result;
+                this.bdtCacheDate = todayResponse;
+            }
+            return result;
+        }).exceptionally(e -> {
+            TradeCore.LOGGER.error("Fehler beim Abrufen des BdT (force fetch): ", unwrap(e));
+            return new BlockOfTheDayResult("Fehler: Netzwerkproblem");
+        });
     }
 
     public CompletableFuture<Boolean> createBlockOfTheDayAsync(String itemDisplayName, String gewinn, String playerUuid) {
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
         if (executor.isShutdown() || executor.isTerminated()) {
             TradeCore.LOGGER.warn("createBlockOfTheDayAsync: Executor heruntergefahren.");
-            future.complete(false);
-            return future;
+            return CompletableFuture.completedFuture(false);
         }
 
-        try {
-            executor.submit(() -> {
-                if (Thread.currentThread().isInterrupted()) {
-                    future.complete(false);
-                    return;
+        TradeCore.LOGGER.info("Sende neuen Block des Tages: {} (Gewinn: {}) von {}", itemDisplayName, gewinn, playerUuid);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("itemDisplayName", itemDisplayName);
+        payload.addProperty("gewinn", gewinn);
+        payload.addProperty("playerUuid", playerUuid);
+        String jsonBody = GSON.toJson(payload);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(apiCreateBdtUrl))
+                .header("Content-Type", "application/json")
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .POST(BodyPublishers.ofString(jsonBody))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        return sendAsync(RequestScheduler.Lane.INTERACTIVE, request, response -> {
+            String responseBody = readBody(response);
+            if (response.statusCode() == 200) {
+                if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
+                    TradeCore.LOGGER.error("Create BdT Error: API response empty/null.");
+                    return false;
                 }
                 try {
-                    TradeCore.LOGGER.info("Sende neuen Block des Tages: {} (Gewinn: {}) von {}", itemDisplayName, gewinn, playerUuid);
-                    JsonObject payload = new JsonObject();
-                    payload.addProperty("itemDisplayName", itemDisplayName);
-                    payload.addProperty("gewinn", gewinn);
-                    payload.addProperty("playerUuid", playerUuid);
-                    String jsonBody = GSON.toJson(payload);
-
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(API_CREATE_BDT_URL))
-                            .header("Content-Type", "application/json")
-                            .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
-                            .POST(BodyPublishers.ofString(jsonBody))
-                            .timeout(Duration.ofSeconds(10))
-                            .build();
-                    HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                    if (response.statusCode() == 200) {
-                        String responseBody = response.body();
-                        if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
-                            TradeCore.LOGGER.error("Create BdT Error: API response empty/null.");
-                            future.complete(false);
-                            return;
-                        }
-                        try {
-                            JsonElement jsonElement = JsonParser.parseString(responseBody);
-                            if (jsonElement != null && jsonElement.isJsonObject()) {
-                                JsonObject jsonResponse = jsonElement.getAsJsonObject();
-                                boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
-                                if (success) {
-                                    TradeCore.LOGGER.info("Block des Tages erfolgreich erstellt.");
-                                    this.cachedBdtResult = null;
-                                    this.bdtCacheDate = null;
-                                    future.complete(true);
-                                } else {
-                                    String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Unbekannter API Fehler.";
-                                    TradeCore.LOGGER.error("Create BdT Error: API reports failure: {}", message);
-                                    future.complete(false);
-                                }
-                            } else {
-                                TradeCore.LOGGER.error("Create BdT Error: Invalid JSON Object");
-                                future.complete(false);
-                            }
-                        } catch (JsonSyntaxException jsonEx) {
-                            TradeCore.LOGGER.error("Create BdT Error: Invalid JSON Syntax", jsonEx);
-                            future.complete(false);
+                    JsonElement jsonElement = JsonParser.parseString(responseBody);
+                    if (jsonElement != null && jsonElement.isJsonObject()) {
+                        JsonObject jsonResponse = jsonElement.getAsJsonObject();
+                        boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
+                        if (success) {
+                            TradeCore.LOGGER.info("Block des Tages erfolgreich erstellt.");
+                            this.cachedBdtResult = null;
+                            this.bdtCacheDate = null;
+                            return true;
                         }
-                    } else {
-                        TradeCore.LOGGER.error("Create BdT Error: HTTP Status {} - Body: {}", response.statusCode(), response.body());
-                        future.complete(false);
-                    }
-                } catch (Exception e) {
-                    if (!(e instanceof InterruptedException)) {
-                        TradeCore.LOGGER.error("Create BdT Error (Network/Exception): ", e);
-                    } else {
-                        Thread.currentThread().interrupt();
+                        String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Unbekannter API Fehler.";
+                        TradeCore.LOGGER.error("Create BdT Error: API reports failure: {}", message);
+                        return false;
                     }
-                    future.complete(false);
+                    TradeCore.LOGGER.error("Create BdT Error: Invalid JSON Object");
+                    return false;
+                } catch (JsonSyntaxException jsonEx) {
+                    TradeCore.LOGGER.error("Create BdT Error: Invalid JSON Syntax", jsonEx);
+                    return false;
                 }
-            });
-        } catch (RejectedExecutionException e) {
-            TradeCore.LOGGER.error("Executor is shut down, cannot execute createBlockOfTheDayAsync", e);
-            future.complete(false);
-        }
-        return future;
+            }
+            TradeCore.LOGGER.error("Create BdT Error: HTTP Status {} - Body: {}", response.statusCode(), responseBody);
+            return false;
+        }).exceptionally(e -> {
+            TradeCore.LOGGER.error("Create BdT Error (Network/Exception): ", unwrap(e));
+            return false;
+        });
     }
 
     public CompletableFuture<Boolean> submitBdtVoteAsync(String bdtId, String playerUuid, String voteType) {
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
         if (executor.isShutdown() || executor.isTerminated()) {
             TradeCore.LOGGER.warn("submitBdtVoteAsync: Executor heruntergefahren.");
-            future.complete(false);
-            return future;
+            return CompletableFuture.completedFuture(false);
         }
         if (!("schnell".equals(voteType) || "langsam".equals(voteType))) {
             TradeCore.LOGGER.error("Ungültiger voteType: {}", voteType);
-            future.complete(false);
-            return future;
+            return CompletableFuture.completedFuture(false);
         }
         if (bdtId == null || bdtId.trim().isEmpty()) {
             TradeCore.LOGGER.error("Ungültige bdtId für Abstimmung.");
-            future.complete(false);
-            return future;
+            return CompletableFuture.completedFuture(false);
         }
 
-        try {
-            executor.submit(() -> {
-                if (Thread.currentThread().isInterrupted()) {
-                    future.complete(false);
-                    return;
+        TradeCore.LOGGER.info("Sende BdT-Abstimmung: BdT ID {}, Spieler {}, Stimme {}", bdtId, playerUuid, voteType);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("bdtId", bdtId);
+        payload.addProperty("playerUuid", playerUuid);
+        payload.addProperty("voteType", voteType);
+        String jsonBody = GSON.toJson(payload);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(apiSubmitBdtVoteUrl))
+                .header("Content-Type", "application/json")
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .POST(BodyPublishers.ofString(jsonBody))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        return sendAsync(RequestScheduler.Lane.INTERACTIVE, request, response -> {
+            String responseBody = readBody(response);
+            if (response.statusCode() == 200) {
+                if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
+                    TradeCore.LOGGER.error("Submit Vote Error: API response empty/null.");
+                    return false;
                 }
                 try {
-                    TradeCore.LOGGER.info("Sende BdT-Abstimmung: BdT ID {}, Spieler {}, Stimme {}", bdtId, playerUuid, voteType);
-                    JsonObject payload = new JsonObject();
-                    payload.addProperty("bdtId", bdtId);
-                    payload.addProperty("playerUuid", playerUuid);
-                    payload.addProperty("voteType", voteType);
-                    String jsonBody = GSON.toJson(payload);
-
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(API_SUBMIT_BDT_VOTE_URL))
-                            .header("Content-Type", "application/json")
-                            .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
-                            .POST(BodyPublishers.ofString(jsonBody))
-                            .timeout(Duration.ofSeconds(10))
-                            .build();
-                    HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                    if (response.statusCode() == 200) {
-                        String responseBody = response.body();
-                        if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
-                            TradeCore.LOGGER.error("Submit Vote Error: API response empty/null.");
-                            future.complete(false);
-                            return;
-                        }
-                        try {
-                            JsonElement jsonElement = JsonParser.parseString(responseBody);
-                            if (jsonElement != null && jsonElement.isJsonObject()) {
-                                JsonObject jsonResponse = jsonElement.getAsJsonObject();
-                                boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
-                                if (success) {
-                                    TradeCore.LOGGER.info("Abstimmung erfolgreich gesendet.");
-                                    future.complete(true);
-                                } else {
-                                    String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Unbekannter API Fehler.";
-                                    TradeCore.LOGGER.error("Submit Vote Error: API reports failure: {}", message);
-                                    future.complete(false);
-                                }
-                            } else {
-                                TradeCore.LOGGER.error("Submit Vote Error: Invalid JSON Object");
-                                future.complete(false);
-                            }
-                        } catch (JsonSyntaxException jsonEx) {
-                            TradeCore.LOGGER.error("Submit Vote Error: Invalid JSON Syntax", jsonEx);
-                            future.complete(false);
+                    JsonElement jsonElement = JsonParser.parseString(responseBody);
+                    if (jsonElement != null && jsonElement.isJsonObject()) {
+                        JsonObject jsonResponse = jsonElement.getAsJsonObject();
+                        boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
+                        if (success) {
+                            TradeCore.LOGGER.info("Abstimmung erfolgreich gesendet.");
+                            return true;
                         }
-                    } else {
-                        TradeCore.LOGGER.error("Submit Vote Error: HTTP Status {} - Body: {}", response.statusCode(), response.body());
-                        future.complete(false);
-                    }
-                } catch (Exception e) {
-                    if (!(e instanceof InterruptedException)) {
-                        TradeCore.LOGGER.error("Submit Vote Error (Network/Exception): ", e);
-                    } else {
-                        Thread.currentThread().interrupt();
+                        String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Unbekannter API Fehler.";
+                        TradeCore.LOGGER.error("Submit Vote Error: API reports failure: {}", message);
+                        return false;
                     }
-                    future.complete(false);
+                    TradeCore.LOGGER.error("Submit Vote Error: Invalid JSON Object");
+                    return false;
+                } catch (JsonSyntaxException jsonEx) {
+                    TradeCore.LOGGER.error("Submit Vote Error: Invalid JSON Syntax", jsonEx);
+                    return false;
                 }
-            });
-        } catch (RejectedExecutionException e) {
-            TradeCore.LOGGER.error("Executor is shut down, cannot execute submitBdtVoteAsync", e);
-            future.complete(false);
-        }
-        return future;
+            }
+            TradeCore.LOGGER.error("Submit Vote Error: HTTP Status {} - Body: {}", response.statusCode(), responseBody);
+            return false;
+        }).exceptionally(e -> {
+            TradeCore.LOGGER.error("Submit Vote Error (Network/Exception): ", unwrap(e));
+            return false;
+        });
     }
 
     public CompletableFuture<UpdateBdtResult> updateBlockOfTheDayAsync(String bdtId, String itemDisplayName, String gewinn) {
-        CompletableFuture<UpdateBdtResult> future = new CompletableFuture<>();
         if (executor.isShutdown() || executor.isTerminated()) {
             TradeCore.LOGGER.warn("updateBlockOfTheDayAsync: Executor heruntergefahren.");
-            future.complete(new UpdateBdtResult(false, "Fehler: Client heruntergefahren"));
-            return future;
+            return CompletableFuture.completedFuture(new UpdateBdtResult(false, "Fehler: Client heruntergefahren"));
         }
 
-        String playerUuid = "";
         MinecraftClient mcClient = MinecraftClient.getInstance();
-        if (mcClient != null && mcClient.player != null) {
-            playerUuid = mcClient.player.getUuidAsString();
-        } else {
+        if (mcClient == null || mcClient.player == null) {
             TradeCore.LOGGER.warn("Konnte Player UUID für BdT-Update nicht ermitteln.");
-            future.complete(new UpdateBdtResult(false, "Fehler: Spieler nicht gefunden"));
-            return future;
+            return CompletableFuture.completedFuture(new UpdateBdtResult(false, "Fehler: Spieler nicht gefunden"));
         }
-        final String finalPlayerUuid = playerUuid;
+        String playerUuid = mcClient.player.getUuidAsString();
+
+        TradeCore.LOGGER.info("Aktualisiere Block des Tages {}: {} / {}", bdtId, itemDisplayName, gewinn);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("bdtId", bdtId);
+        payload.addProperty("itemDisplayName", itemDisplayName);
+        payload.addProperty("gewinn", gewinn);
+        payload.addProperty("playerUuid", playerUuid);
+        String jsonBody = GSON.toJson(payload);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(apiUpdateBdtUrl))
+                .header("Content-Type", "application/json")
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .POST(BodyPublishers.ofString(jsonBody))
+                .timeout(Duration.ofSeconds(10))
+                .build();
 
-        try {
-            executor.submit(() -> {
-                if (Thread.currentThread().isInterrupted()) {
-                    future.complete(new UpdateBdtResult(false, "Fehler: Thread unterbrochen"));
-                    return;
+        return sendAsync(RequestScheduler.Lane.INTERACTIVE, request, response -> {
+            String responseBody = readBody(response);
+            if (response.statusCode() == 200) {
+                if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
+                    TradeCore.LOGGER.error("Update BdT Error: API response empty/null.");
+                    return new UpdateBdtResult(false, "Fehler: Leere Server-Antwort");
                 }
                 try {
-                    TradeCore.LOGGER.info("Aktualisiere Block des Tages {}: {} / {}", bdtId, itemDisplayName, gewinn);
-                    JsonObject payload = new JsonObject();
-                    payload.addProperty("bdtId", bdtId);
-                    payload.addProperty("itemDisplayName", itemDisplayName);
-                    payload.addProperty("gewinn", gewinn);
-                    payload.addProperty("playerUuid", finalPlayerUuid);
-                    String jsonBody = GSON.toJson(payload);
-
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(API_UPDATE_BDT_URL))
-                            .header("Content-Type", "application/json")
-                            .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE)
-                            .POST(BodyPublishers.ofString(jsonBody))
-                            .timeout(Duration.ofSeconds(10))
-                            .build();
-                    HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                    if (response.statusCode() == 200) {
-                        String responseBody = response.body();
-                        if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
-                            TradeCore.LOGGER.error("Update BdT Error: API response empty/null.");
-                            future.complete(new UpdateBdtResult(false, "Fehler: Leere Server-Antwort"));
-                            return;
-                        }
-                        try {
-                            JsonElement jsonElement = JsonParser.parseString(responseBody);
-                            if (jsonElement != null && jsonElement.isJsonObject()) {
-                                JsonObject jsonResponse = jsonElement.getAsJsonObject();
-                                boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
-                                String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : (success ? "Erfolgreich aktualisiert" : "Unbekannter API Fehler");
-                                if (success) {
-                                    TradeCore.LOGGER.info("Block des Tages erfolgreich aktualisiert.");
-                                    this.cachedBdtResult = null;
-                                    this.bdtCacheDate = null;
-                                    future.complete(new UpdateBdtResult(true, message));
-                                } else {
-                                    TradeCore.LOGGER.error("Update BdT Error: API reports failure: {}", message);
-                                    future.complete(new UpdateBdtResult(false, message));
-                                }
-                            } else {
-                                TradeCore.LOGGER.error("Update BdT Error: Invalid JSON Object: {}", responseBody);
-                                future.complete(new UpdateBdtResult(false, "Fehler: Ungültiges JSON-Format"));
-                            }
-                        } catch (JsonSyntaxException jsonEx) {
-                            TradeCore.LOGGER.error("Update BdT Error: Invalid JSON Syntax: {}", responseBody, jsonEx);
-                            future.complete(new UpdateBdtResult(false, "Fehler: Ungültige Server-Antwort"));
+                    JsonElement jsonElement = JsonParser.parseString(responseBody);
+                    if (jsonElement != null && jsonElement.isJsonObject()) {
+                        JsonObject jsonResponse = jsonElement.getAsJsonObject();
+                        boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
+                        String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : (success ? "Erfolgreich aktualisiert" : "Unbekannter API Fehler");
+                        if (success) {
+                            TradeCore.LOGGER.info("Block des Tages erfolgreich aktualisiert.");
+                            this.cachedBdtResult = null;
+                            this.bdtCacheDate = null;
+                            return new UpdateBdtResult(true, message);
                         }
-                    } else {
-                        String message = response.statusCode() == 429 ? "Cooldown aktiv, bitte warte." : "Fehler: Server nicht erreichbar (HTTP " + response.statusCode() + ")";
-                        TradeCore.LOGGER.error("Update BdT Error: HTTP Status {} - Body: {}", response.statusCode(), response.body());
-                        future.complete(new UpdateBdtResult(false, message));
-                    }
-                } catch (Exception e) {
-                    if (!(e instanceof InterruptedException)) {
-                        TradeCore.LOGGER.error("Update BdT Error (Network/Exception): ", e);
-                        future.complete(new UpdateBdtResult(false, "Fehler: Netzwerkproblem"));
-                    } else {
-                        Thread.currentThread().interrupt();
-                        future.complete(new UpdateBdtResult(false, "Fehler: Thread unterbrochen"));
+                        TradeCore.LOGGER.error("Update BdT Error: API reports failure: {}", message);
+                        return new UpdateBdtResult(false, message);
                     }
+                    TradeCore.LOGGER.error("Update BdT Error: Invalid JSON Object: {}", responseBody);
+                    return new UpdateBdtResult(false, "Fehler: Ungültiges JSON-Format");
+                } catch (JsonSyntaxException jsonEx) {
+                    TradeCore.LOGGER.error("Update BdT Error: Invalid JSON Syntax: {}", responseBody, jsonEx);
+                    return new UpdateBdtResult(false, "Fehler: Ungültige Server-Antwort");
                 }
-            });
-        } catch (RejectedExecutionException e) {
-            TradeCore.LOGGER.error("Executor is shut down, cannot execute updateBlockOfTheDayAsync", e);
-            future.complete(new UpdateBdtResult(false, "Fehler: Client heruntergefahren"));
-        }
-        return future;
+            }
+            String message = response.statusCode() == 429 ? "Cooldown aktiv, bitte warte." : "Fehler: Server nicht erreichbar (HTTP " + response.statusCode() + ")";
+            TradeCore.LOGGER.error("Update BdT Error: HTTP Status {} - Body: {}", response.statusCode(), responseBody);
+            return new UpdateBdtResult(false, message);
+        }).exceptionally(e -> {
+            TradeCore.LOGGER.error("Update BdT Error (Network/Exception): ", unwrap(e));
+            return new UpdateBdtResult(false, "Fehler: Netzwerkproblem");
+        });
     }
 
     public static class UpdateBdtResult {
@@ -841,87 +1495,72 @@ public class PriceAPIClient {
 
     // NEU: Methode zum Abrufen der User Level Daten
     public CompletableFuture<UserLevelResult> fetchUserLevelAsync(String playerUuid) {
-        CompletableFuture<UserLevelResult> future = new CompletableFuture<>();
         if (executor.isShutdown() || executor.isTerminated()) {
             TradeCore.LOGGER.warn("fetchUserLevelAsync: Executor heruntergefahren.");
-            future.complete(new UserLevelResult(false, "Fehler: Client heruntergefahren"));
-            return future;
+            return CompletableFuture.completedFuture(new UserLevelResult(false, "Fehler: Client heruntergefahren"));
         }
         if (playerUuid == null || playerUuid.trim().isEmpty()) {
             TradeCore.LOGGER.error("fetchUserLevelAsync: playerUuid ist null oder leer.");
-            future.complete(new UserLevelResult(false, "Fehler: Ungültige Spieler-ID"));
-            return future;
+            return CompletableFuture.completedFuture(new UserLevelResult(false, "Fehler: Ungültige Spieler-ID"));
         }
 
-        try {
-            executor.submit(() -> {
-                if (Thread.currentThread().isInterrupted()) {
-                    future.complete(new UserLevelResult(false, "Fehler: Thread unterbrochen"));
-                    return;
-                }
-                TradeCore.LOGGER.info("Rufe User Level für UUID {} von {} ab...", playerUuid, API_GET_USER_LEVEL_URL);
-                try {
-                    String urlWithParams = API_GET_USER_LEVEL_URL + "?playerUuid=" + playerUuid;
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(urlWithParams))
-                            .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE) // Wichtig für deine API
-                            .GET()
-                            .timeout(Duration.ofSeconds(10))
-                            .build();
-
-                    HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
-                    UserLevelResult result;
-
-                    if (response.statusCode() == 200) {
-                        String responseBody = response.body();
-                        if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
-                            result = new UserLevelResult(false, "Fehler: Leere Server-Antwort für Leveldaten");
-                        } else {
-                            try {
-                                JsonElement jsonElement = JsonParser.parseString(responseBody);
-                                if (jsonElement.isJsonObject()) {
-                                    JsonObject jsonResponse = jsonElement.getAsJsonObject();
-                                    boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
-                                    if (success) {
-                                        String playerName = jsonResponse.has("playerName") ? jsonResponse.get("playerName").getAsString() : "Unbekannt";
-                                        int level = jsonResponse.has("level") ? jsonResponse.get("level").getAsInt() : 0;
-                                        int currentXp = jsonResponse.has("currentXp") ? jsonResponse.get("currentXp").getAsInt() : 0;
-                                        int xpForNextLevel = jsonResponse.has("xpForNextLevel") ? jsonResponse.get("xpForNextLevel").getAsInt() : 100; // Default, falls nicht vorhanden
-
-                                        result = new UserLevelResult(true, playerName, level, currentXp, xpForNextLevel);
-                                        TradeCore.LOGGER.info("User Level Daten erfolgreich für {} (Level {}) erhalten.", playerName, level);
-                                    } else {
-                                        String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Spieler nicht gefunden oder keine Leveldaten vorhanden.";
-                                        result = new UserLevelResult(false, message);
-                                        TradeCore.LOGGER.info("Keine User Level Daten: {}", message);
-                                    }
-                                } else {
-                                    TradeCore.LOGGER.error("Fehler beim Parsen der User Level JSON: Kein JSON Objekt. Body: {}", responseBody);
-                                    result = new UserLevelResult(false, "Fehler: Ungültiges JSON-Format vom Server");
-                                }
-                            } catch (JsonSyntaxException | IllegalStateException | ClassCastException jsonEx) {
-                                TradeCore.LOGGER.error("Fehler beim Parsen der User Level JSON: {}", responseBody, jsonEx);
-                                result = new UserLevelResult(false, "Fehler: Ungültige Server-Antwort (Leveldaten)");
+        String urlWithParams = apiGetUserLevelUrl + "?playerUuid=" + playerUuid;
+        return singleFlight.run(urlWithParams, () -> requestUserLevel(playerUuid, urlWithParams));
+    }
+
+    private CompletableFuture<UserLevelResult> requestUserLevel(String playerUuid, String urlWithParams) {
+        TradeCore.LOGGER.info("Rufe User Level für UUID {} von {} ab...", playerUuid, apiGetUserLevelUrl);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(urlWithParams))
+                .header(CUSTOM_HEADER_NAME, CUSTOM_HEADER_VALUE) // Wichtig für deine API
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET()
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        return sendAsync(RequestScheduler.Lane.INTERACTIVE, request, response -> {
+            String responseBody = readBody(response);
+            UserLevelResult result;
+
+            if (response.statusCode() == 200) {
+                if (responseBody == null || responseBody.trim().isEmpty() || responseBody.trim().equalsIgnoreCase("null")) {
+                    result = new UserLevelResult(false, "Fehler: Leere Server-Antwort für Leveldaten");
+                } else {
+                    try {
+                        JsonElement jsonElement = JsonParser.parseString(responseBody);
+                        if (jsonElement.isJsonObject()) {
+                            JsonObject jsonResponse = jsonElement.getAsJsonObject();
+                            boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
+                            if (success) {
+                                String playerName = jsonResponse.has("playerName") ? jsonResponse.get("playerName").getAsString() : "Unbekannt";
+                                int level = jsonResponse.has("level") ? jsonResponse.get("level").getAsInt() : 0;
+                                int currentXp = jsonResponse.has("currentXp") ? jsonResponse.get("currentXp").getAsInt() : 0;
+                                int xpForNextLevel = jsonResponse.has("xpForNextLevel") ? jsonResponse.get("xpForNextLevel").getAsInt() : 100; // Default, falls nicht vorhanden
+
+                                result = new UserLevelResult(true, playerName, level, currentXp, xpForNextLevel);
+                                TradeCore.LOGGER.info("User Level Daten erfolgreich für {} (Level {}) erhalten.", playerName, level);
+                            } else {
+                                String message = jsonResponse.has("message") ? jsonResponse.get("message").getAsString() : "Spieler nicht gefunden oder keine Leveldaten vorhanden.";
+                                result = new UserLevelResult(false, message);
+                                TradeCore.LOGGER.info("Keine User Level Daten: {}", message);
                             }
+                        } else {
+                            TradeCore.LOGGER.error("Fehler beim Parsen der User Level JSON: Kein JSON Objekt. Body: {}", responseBody);
+                            result = new UserLevelResult(false, "Fehler: Ungültiges JSON-Format vom Server");
                         }
-                    } else {
-                        TradeCore.LOGGER.error("Fehler beim Abrufen der User Level Daten: HTTP Status {}", response.statusCode());
-                        result = new UserLevelResult(false, "Fehler: Server nicht erreichbar (HTTP " + response.statusCode() + ")");
-                    }
-                    future.complete(result);
-                } catch (Exception e) {
-                    if (!(e instanceof InterruptedException)) {
-                        TradeCore.LOGGER.error("Fehler beim Abrufen der User Level Daten: ", e);
-                    } else {
-                        Thread.currentThread().interrupt();
+                    } catch (JsonSyntaxException | IllegalStateException | ClassCastException jsonEx) {
+                        TradeCore.LOGGER.error("Fehler beim Parsen der User Level JSON: {}", responseBody, jsonEx);
+                        result = new UserLevelResult(false, "Fehler: Ungültige Server-Antwort (Leveldaten)");
                     }
-                    future.complete(new UserLevelResult(false, "Fehler: Netzwerkproblem beim Abrufen der Leveldaten"));
                 }
-            });
-        } catch (RejectedExecutionException e) {
-            TradeCore.LOGGER.error("Executor is shut down, cannot execute fetchUserLevelAsync", e);
-            future.complete(new UserLevelResult(false, "Fehler: Client (Leveldaten) heruntergefahren"));
-        }
-        return future;
+            } else {
+                TradeCore.LOGGER.error("Fehler beim Abrufen der User Level Daten: HTTP Status {}", response.statusCode());
+                result = new UserLevelResult(false, "Fehler: Server nicht erreichbar (HTTP " + response.statusCode() + ")");
+            }
+            return result;
+        }).exceptionally(e -> {
+            TradeCore.LOGGER.error("Fehler beim Abrufen der User Level Daten: ", unwrap(e));
+            return new UserLevelResult(false, "Fehler: Netzwerkproblem beim Abrufen der Leveldaten");
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package de.tradecore.tradecore;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * HTTP-Validatoren (ETag / Last-Modified), Frische-Grenze aus Cache-Control: max-age und
+ * Delta-Cursor für den gespeicherten Preiskatalog. Wird als kleine Properties-Datei neben der Preisdatei abgelegt.
+ */
+public final class PriceCacheValidators {
+
+    public static final PriceCacheValidators NONE = new PriceCacheValidators(null, null, 0L, null);
+    // no-cache, no-store oder max-age=0: jeder Abruf muss beim Server nachfragen, auch innerhalb der TTL
+    public static final long ALWAYS_REVALIDATE = -1L;
+
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+    private static final String FRESH_UNTIL_KEY = "freshUntil";
+    private static final String CURSOR_KEY = "deltaCursor";
+
+    public final String etag;
+    public final String lastModified;
+    public final long freshUntilMillis; // 0 = keine Frische-Angabe vom Server, ALWAYS_REVALIDATE = nie frisch
+    public final String cursor; // Delta-Cursor des Servers, null = Server kann keine Deltas
+
+    public PriceCacheValidators(String etag, String lastModified, long freshUntilMillis, String cursor) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.freshUntilMillis = freshUntilMillis;
+        this.cursor = cursor;
+    }
+
+    public static PriceCacheValidators fromResponse(HttpHeaders headers, long nowMillis, String cursor) {
+        String etag = headers.firstValue("ETag").orElse(null);
+        String lastModified = headers.firstValue("Last-Modified").orElse(null);
+        return new PriceCacheValidators(etag, lastModified, parseFreshUntil(headers, nowMillis), cursor);
+    }
+
+    // Nach einem 304 bleiben die Validatoren gleich, nur die Frische wird ggf. neu gesetzt
+    public PriceCacheValidators revalidated(HttpHeaders headers, long nowMillis) {
+        String newEtag = headers.firstValue("ETag").orElse(etag);
+        String newLastModified = headers.firstValue("Last-Modified").orElse(lastModified);
+        return new PriceCacheValidators(newEtag, newLastModified, parseFreshUntil(headers, nowMillis), cursor);
+    }
+
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < freshUntilMillis;
+    }
+
+    // true, wenn der Server selbst etwas zur Frische gesagt hat; sonst gilt die konfigurierte TTL
+    public boolean hasFreshnessInfo() {
+        return freshUntilMillis != 0L;
+    }
+
+    private static long parseFreshUntil(HttpHeaders headers, long nowMillis) {
+        String cacheControl = headers.firstValue("Cache-Control").orElse(null);
+        if (cacheControl == null) {
+            return 0L;
+        }
+        long maxAgeSeconds = -1;
+        for (String directive : cacheControl.split(",")) {
+            String d = directive.trim().toLowerCase(Locale.ROOT);
+            if (d.equals("no-cache") || d.equals("no-store")) {
+                return ALWAYS_REVALIDATE;
+            }
+            if (d.startsWith("max-age=")) {
+                try {
+                    maxAgeSeconds = Long.parseLong(d.substring("max-age=".length()).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    TradeCore.LOGGER.warn("Ungültiges Cache-Control max-age: {}", cacheControl);
+                }
+            }
+        }
+        if (maxAgeSeconds == 0) {
+            return ALWAYS_REVALIDATE;
+        }
+        return maxAgeSeconds > 0 ? nowMillis + maxAgeSeconds * 1000L : 0L;
+    }
+
+    public static PriceCacheValidators load(Path path) {
+        if (!Files.exists(path)) {
+            return NONE;
+        }
+        Properties props = new Properties();
+        try (var inputStream = Files.newInputStream(path)) {
+            props.load(inputStream);
+            long freshUntil = 0L;
+            try {
+                freshUntil = Long.parseLong(props.getProperty(FRESH_UNTIL_KEY, "0"));
+            } catch (NumberFormatException e) {
+                TradeCore.LOGGER.warn("Ungültiger Wert für '{}' in {}. Verwende 0.", FRESH_UNTIL_KEY, path.getFileName());
+            }
+            return new PriceCacheValidators(props.getProperty(ETAG_KEY), props.getProperty(LAST_MODIFIED_KEY), freshUntil, props.getProperty(CURSOR_KEY));
+        } catch (IOException | IllegalArgumentException e) {
+            TradeCore.LOGGER.error("Fehler beim Laden der Cache-Validatoren {}: ", path.getFileName(), e);
+            return NONE;
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        Properties props = new Properties();
+        if (etag != null) props.setProperty(ETAG_KEY, etag);
+        if (lastModified != null) props.setProperty(LAST_MODIFIED_KEY, lastModified);
+        props.setProperty(FRESH_UNTIL_KEY, String.valueOf(freshUntilMillis));
+        if (cursor != null) props.setProperty(CURSOR_KEY, cursor);
+        try (var outputStream = Files.newOutputStream(path)) {
+            props.store(outputStream, "TradeCore Preis-Cache Validatoren");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package de.tradecore.tradecore;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming-Decoder für die Antwort von get_price.php.
+ * Liest die Tokens direkt aus dem Socket-Stream und schreibt jeden Eintrag sofort in den
+ * {@link PriceTable.Builder}, ohne String-Body, JsonObject-Baum oder Zwischen-Map.
+ * Delta-Antworten ({@code "delta": true} mit {@code changed}/{@code removed}) landen im {@link PricePatch.Builder}.
+ */
+public final class PriceCatalogDecoder {
+
+    // Obergrenze für die Antwortgröße, schützt vor kaputten oder bösartigen Antworten
+    public static final long MAX_RESPONSE_BYTES = 32L * 1024 * 1024;
+
+    private PriceCatalogDecoder() {
+    }
+
+    public static Result decode(InputStream body, PriceTable.Builder builder, PricePatch.Builder patchBuilder) throws IOException {
+        InputStream bounded = new BoundedInputStream(body, MAX_RESPONSE_BYTES);
+        try (JsonReader reader = new JsonReader(new InputStreamReader(bounded, StandardCharsets.UTF_8))) {
+            boolean success = false;
+            boolean hasPrices = false;
+            boolean delta = false;
+            String message = null;
+            String cursor = null;
+            int entries = 0;
+            int changedEntries = 0;
+            int removedEntries = 0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "success" -> success = readBoolean(reader);
+                    case "message" -> message = readString(reader);
+                    case "delta" -> delta = readBoolean(reader);
+                    case "cursor" -> cursor = readString(reader);
+                    case "prices" -> {
+                        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            hasPrices = true;
+                            entries = readPrices(reader, builder::put);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    case "changed" -> {
+                        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            changedEntries = readPrices(reader, patchBuilder::put);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    case "removed" -> {
+                        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            removedEntries = readRemoved(reader, patchBuilder);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return new Result(success, hasPrices, delta, message, cursor, entries, changedEntries, removedEntries);
+        }
+    }
+
+    private static int readPrices(JsonReader reader, EntrySink sink) throws IOException {
+        int entries = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String itemId = reader.nextName();
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                TradeCore.LOGGER.warn("Parse Fehler für Item '{}': kein JSON Objekt", itemId);
+                reader.skipValue();
+                continue;
+            }
+            int stackpreis = 0;
+            int dkpreis = 0;
+            int stueckpreis = 0;
+            boolean valid = true;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                try {
+                    switch (field) {
+                        case "stackpreis" -> stackpreis = readInt(reader);
+                        case "dkpreis" -> dkpreis = readInt(reader);
+                        case "stueckpreis" -> stueckpreis = readInt(reader);
+                        default -> reader.skipValue();
+                    }
+                } catch (NumberFormatException | IllegalStateException e) {
+                    TradeCore.LOGGER.warn("Parse Fehler für Item '{}': {}", itemId, e.getMessage());
+                    reader.skipValue();
+                    valid = false;
+                }
+            }
+            reader.endObject();
+            if (valid) {
+                sink.accept(itemId, stackpreis, dkpreis, stueckpreis);
+                entries++;
+            }
+        }
+        reader.endObject();
+        return entries;
+    }
+
+    private static int readRemoved(JsonReader reader, PricePatch.Builder patchBuilder) throws IOException {
+        int entries = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String itemId = readString(reader);
+            if (itemId != null) {
+                patchBuilder.remove(itemId);
+                entries++;
+            }
+        }
+        reader.endArray();
+        return entries;
+    }
+
+    private static int readInt(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+        return reader.nextInt();
+    }
+
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface EntrySink {
+        void accept(String itemId, int stackpreis, int dkpreis, int stueckpreis);
+    }
+
+    public static final class Result {
+        public final boolean success;
+        public final boolean hasPrices;
+        public final boolean delta;
+        public final String message;
+        public final String cursor;
+        public final int entries;
+        public final int changedEntries;
+        public final int removedEntries;
+
+        public Result(boolean success, boolean hasPrices, boolean delta, String message, String cursor, int entries, int changedEntries, int removedEntries) {
+            this.success = success;
+            this.hasPrices = hasPrices;
+            this.delta = delta;
+            this.message = message;
+            this.cursor = cursor;
+            this.entries = entries;
+            this.changedEntries = changedEntries;
+            this.removedEntries = removedEntries;
+        }
+    }
+
+    // Bricht mit IOException ab, sobald mehr als maxBytes gelesen wurden
+    static final class BoundedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long count = 0;
+
+        BoundedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                count(skipped);
+            }
+            return skipped;
+        }
+
+        private void count(long n) throws IOException {
+            count += n;
+            if (count > maxBytes) {
+                throw new IOException("Antwort überschreitet das Limit von " + maxBytes + " Bytes");
+            }
+        }
+    }
+}
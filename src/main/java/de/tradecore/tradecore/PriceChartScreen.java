@@ -0,0 +1,392 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.widget.ButtonWidget;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.joml.Matrix4f;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Preisverlauf eines Items aus dem lokalen {@link PriceHistoryStore}.
+ * Lange Reihen werden per Largest-Triangle-Three-Buckets auf die Pixelbreite reduziert. Die fertigen Linien-Quads
+ * werden pro Item, Zeitraum und Preisart gecacht und nur bei neuer Größe oder neuen Daten neu berechnet;
+ * pro Frame werden nur die gecachten Vertices ausgegeben statt einzelner {@code fill}-Aufrufe.
+ */
+public class PriceChartScreen extends Screen {
+
+    private enum Range {
+        DAY("24 Std.", 86400L),
+        WEEK("7 Tage", 7 * 86400L),
+        MONTH("30 Tage", 30 * 86400L),
+        QUARTER("90 Tage", 90 * 86400L),
+        ALL("Alles", -1L);
+
+        final String label;
+        final long seconds;
+
+        Range(String label, long seconds) {
+            this.label = label;
+            this.seconds = seconds;
+        }
+    }
+
+    private enum PriceKind {
+        STUECK("Stückpreis"),
+        STACK("Stackpreis"),
+        DK("DK-Preis");
+
+        final String label;
+
+        PriceKind(String label) {
+            this.label = label;
+        }
+
+        int valueAt(PriceSeries series, int index) {
+            return switch (this) {
+                case STUECK -> series.getStueckpreis(index);
+                case STACK -> series.getStackpreis(index);
+                case DK -> series.getDkpreis(index);
+            };
+        }
+    }
+
+    // Geladene Reihe und daraus berechnete Vertices für eine Kombination aus Item, Zeitraum und Preisart
+    private static final class ChartData {
+        PriceSeries series;
+        long dataVersion = -1L;
+        long fromSeconds;
+        long toSeconds;
+        boolean loading;
+        // Zu dieser Größe gehören die Vertices; -1 = neu berechnen
+        int chartWidth = -1;
+        int chartHeight = -1;
+        // 8 floats (4 Ecken) pro Liniensegment, relativ zur linken oberen Ecke des Charts
+        float[] quads = new float[0];
+        // Ausgewählte Punkte für die Hover-Anzeige, x aufsteigend
+        float[] pointX = new float[0];
+        float[] pointY = new float[0];
+        int[] pointIndex = new int[0];
+        Text minLabel;
+        Text maxLabel;
+        Text fromLabel;
+        Text toLabel;
+    }
+
+    private static final int MAX_CACHED_CHARTS = 16;
+    // Nur auf dem Render-Thread benutzt; überlebt das Schließen des Screens
+    private static final Map<String, ChartData> CHART_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ChartData> eldest) {
+            return size() > MAX_CACHED_CHARTS;
+        }
+    };
+
+    private static final DateTimeFormatter LABEL_FORMATTER = DateTimeFormatter.ofPattern("dd.MM. HH:mm").withZone(ZoneId.systemDefault());
+    private static final int CHART_MARGIN_X = 50;
+    private static final int CHART_TOP = 60;
+    private static final int CHART_BOTTOM_MARGIN = 60;
+    private static final float LINE_HALF_WIDTH = 0.75f;
+    private static final int LINE_COLOR = 0xFF55FF55;
+    private static final int CHART_BACKGROUND = 0xA0000000;
+    private static final int CHART_BORDER = 0xFF808080;
+    private static final int MARKER_COLOR = 0xFFFFFF55;
+
+    private final Screen parentScreen;
+    private final String itemId;
+    private Range range = Range.WEEK;
+    private PriceKind kind = PriceKind.STUECK;
+
+    public PriceChartScreen(Screen parent, Item item) {
+        super(Text.literal("Preisverlauf: ").append(item.getName()).formatted(Formatting.BOLD));
+        this.parentScreen = parent;
+        this.itemId = Registries.ITEM.getId(item).toString();
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        int buttonWidth = 60;
+        int totalWidth = Range.values().length * (buttonWidth + 5) - 5;
+        int x = this.width / 2 - totalWidth / 2;
+        for (Range option : Range.values()) {
+            ButtonWidget button = ButtonWidget.builder(Text.literal(option.label), b -> {
+                        range = option;
+                        this.clearAndInit();
+                    })
+                    .dimensions(x, 30, buttonWidth, 20)
+                    .build();
+            button.active = option != range;
+            this.addDrawableChild(button);
+            x += buttonWidth + 5;
+        }
+
+        this.addDrawableChild(ButtonWidget.builder(Text.literal(kind.label), button -> {
+                    kind = PriceKind.values()[(kind.ordinal() + 1) % PriceKind.values().length];
+                    button.setMessage(Text.literal(kind.label));
+                })
+                .dimensions(this.width / 2 - 100, this.height - 50, 95, 20)
+                .build());
+        this.addDrawableChild(ButtonWidget.builder(Text.literal("Zurück"), button -> this.close())
+                .dimensions(this.width / 2 + 5, this.height - 50, 95, 20)
+                .build());
+        // Beobachtete Items melden sich im Chat, sobald ein neuer Katalog sie über die Schwelle bewegt
+        this.addDrawableChild(ButtonWidget.builder(getWatchToggleText(), button -> {
+                    boolean watched = TradeCoreConfig.watchlist.contains(itemId);
+                    TradeCoreConfig.setWatchThreshold(itemId, watched ? 0 : PriceWatchlist.DEFAULT_THRESHOLD_BASIS_POINTS);
+                    button.setMessage(getWatchToggleText());
+                })
+                .dimensions(this.width / 2 - 100, this.height - 25, 200, 20)
+                .build());
+    }
+
+    private Text getWatchToggleText() {
+        int threshold = TradeCoreConfig.watchlist.getThreshold(itemId);
+        return threshold > 0
+                ? Text.literal("Nicht mehr beobachten (±" + PriceWatchlist.formatPercent(threshold) + "%)")
+                : Text.literal("Beobachten (±" + PriceWatchlist.formatPercent(PriceWatchlist.DEFAULT_THRESHOLD_BASIS_POINTS) + "%)");
+    }
+
+    @Override
+    public void render(DrawContext context, int mouseX, int mouseY, float delta) {
+        this.renderBackground(context, mouseX, mouseY, delta);
+        context.drawCenteredTextWithShadow(this.textRenderer, this.title, this.width / 2, 12, 0xFFFFFF);
+        super.render(context, mouseX, mouseY, delta);
+
+        int left = CHART_MARGIN_X;
+        int top = CHART_TOP;
+        int right = this.width - CHART_MARGIN_X;
+        int bottom = this.height - CHART_BOTTOM_MARGIN;
+        if (right - left < 20 || bottom - top < 20) {
+            return;
+        }
+        context.fill(left, top, right, bottom, CHART_BACKGROUND);
+        context.drawBorder(left - 1, top - 1, right - left + 2, bottom - top + 2, CHART_BORDER);
+
+        ChartData data = currentData();
+        if (data.series == null) {
+            context.drawCenteredTextWithShadow(this.textRenderer, Text.literal("Lade Verlauf...").formatted(Formatting.YELLOW), this.width / 2, (top + bottom) / 2, 0xFFFFFF);
+            return;
+        }
+        if (data.series.size() < 2) {
+            context.drawCenteredTextWithShadow(this.textRenderer, Text.literal("Noch zu wenige Datenpunkte für diesen Zeitraum.").formatted(Formatting.GRAY), this.width / 2, (top + bottom) / 2, 0xFFFFFF);
+            return;
+        }
+        if (data.chartWidth != right - left || data.chartHeight != bottom - top) {
+            buildVertices(data, right - left, bottom - top);
+        }
+
+        float[] quads = data.quads;
+        context.draw(vertexConsumers -> {
+            VertexConsumer consumer = vertexConsumers.getBuffer(RenderLayer.getGui());
+            Matrix4f matrix = context.getMatrices().peek().getPositionMatrix();
+            for (int i = 0; i < quads.length; i += 8) {
+                consumer.vertex(matrix, left + quads[i], top + quads[i + 1], 0.0f).color(LINE_COLOR);
+                consumer.vertex(matrix, left + quads[i + 2], top + quads[i + 3], 0.0f).color(LINE_COLOR);
+                consumer.vertex(matrix, left + quads[i + 4], top + quads[i + 5], 0.0f).color(LINE_COLOR);
+                consumer.vertex(matrix, left + quads[i + 6], top + quads[i + 7], 0.0f).color(LINE_COLOR);
+            }
+        });
+
+        context.drawTextWithShadow(this.textRenderer, data.maxLabel, 4, top, 0xFFFFFF);
+        context.drawTextWithShadow(this.textRenderer, data.minLabel, 4, bottom - this.textRenderer.fontHeight, 0xFFFFFF);
+        context.drawTextWithShadow(this.textRenderer, data.fromLabel, left, bottom + 4, 0xAAAAAA);
+        context.drawTextWithShadow(this.textRenderer, data.toLabel, right - this.textRenderer.getWidth(data.toLabel), bottom + 4, 0xAAAAAA);
+
+        if (mouseX >= left && mouseX < right && mouseY >= top && mouseY < bottom) {
+            int point = nearestPoint(data.pointX, mouseX - left);
+            if (point >= 0) {
+                int px = left + Math.round(data.pointX[point]);
+                int py = top + Math.round(data.pointY[point]);
+                context.fill(px - 2, py - 2, px + 2, py + 2, MARKER_COLOR);
+                int index = data.pointIndex[point];
+                context.drawTooltip(this.textRenderer, List.of(
+                        Text.literal(LABEL_FORMATTER.format(Instant.ofEpochSecond(data.series.getTime(index)))).formatted(Formatting.GRAY),
+                        Text.literal(kind.label + ": " + kind.valueAt(data.series, index) + "$").formatted(Formatting.GREEN)
+                ), mouseX, mouseY);
+            }
+        }
+    }
+
+    // Liefert den Cache-Eintrag und stößt bei neuen Verlaufsdaten eine Abfrage im Hintergrund an
+    private ChartData currentData() {
+        String key = itemId + '|' + range + '|' + kind;
+        ChartData data = CHART_CACHE.computeIfAbsent(key, k -> new ChartData());
+        long version = TradeCore.apiClient != null ? TradeCore.apiClient.getPriceHistory().getVersion() : 0L;
+        if (!data.loading && data.dataVersion != version && TradeCore.apiClient != null) {
+            data.loading = true;
+            long now = System.currentTimeMillis() / 1000;
+            Range queried = range;
+            long from = queried.seconds > 0 ? now - queried.seconds : 0L;
+            TradeCore.apiClient.queryPriceHistoryAsync(itemId, from, now).whenCompleteAsync((series, throwable) -> {
+                data.loading = false;
+                data.dataVersion = version;
+                if (throwable != null) {
+                    TradeCore.LOGGER.error("Fehler beim Laden des Preisverlaufs für {}:", itemId, throwable);
+                    data.series = PriceSeries.EMPTY;
+                } else {
+                    data.series = series;
+                    data.fromSeconds = queried.seconds > 0 || series.isEmpty() ? from : series.getTime(0);
+                    data.toSeconds = now;
+                }
+                data.chartWidth = -1;
+            }, MinecraftClient.getInstance());
+        }
+        return data;
+    }
+
+    // Einmal pro Größe bzw. Datenstand: LTTB auf die Pixelbreite, dann Quads für jedes Liniensegment
+    private void buildVertices(ChartData data, int chartWidth, int chartHeight) {
+        PriceSeries series = data.series;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < series.size(); i++) {
+            int value = kind.valueAt(series, i);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (min == max) {
+            min -= 1;
+            max += 1;
+        }
+        int[] selected = largestTriangleThreeBuckets(series, kind, Math.max(3, chartWidth));
+        double timeSpan = Math.max(1L, data.toSeconds - data.fromSeconds);
+        double valueSpan = (double) max - min;
+        float[] xs = new float[selected.length];
+        float[] ys = new float[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            int index = selected[i];
+            xs[i] = (float) ((series.getTime(index) - data.fromSeconds) / timeSpan * chartWidth);
+            ys[i] = (float) (chartHeight - (kind.valueAt(series, index) - (double) min) / valueSpan * chartHeight);
+        }
+
+        float[] quads = new float[(selected.length - 1) * 8];
+        for (int i = 0; i < selected.length - 1; i++) {
+            float dx = xs[i + 1] - xs[i];
+            float dy = ys[i + 1] - ys[i];
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            // Normale auf das Segment, damit schräge Linien dieselbe Stärke haben wie waagrechte
+            float nx = length > 0 ? -dy / length * LINE_HALF_WIDTH : 0.0f;
+            float ny = length > 0 ? dx / length * LINE_HALF_WIDTH : LINE_HALF_WIDTH;
+            int offset = i * 8;
+            quads[offset] = xs[i] - nx;
+            quads[offset + 1] = ys[i] - ny;
+            quads[offset + 2] = xs[i] + nx;
+            quads[offset + 3] = ys[i] + ny;
+            quads[offset + 4] = xs[i + 1] + nx;
+            quads[offset + 5] = ys[i + 1] + ny;
+            quads[offset + 6] = xs[i + 1] - nx;
+            quads[offset + 7] = ys[i + 1] - ny;
+        }
+
+        data.quads = quads;
+        data.pointX = xs;
+        data.pointY = ys;
+        data.pointIndex = selected;
+        data.minLabel = Text.literal(min + "$").formatted(Formatting.GRAY);
+        data.maxLabel = Text.literal(max + "$").formatted(Formatting.GRAY);
+        data.fromLabel = Text.literal(LABEL_FORMATTER.format(Instant.ofEpochSecond(data.fromSeconds)));
+        data.toLabel = Text.literal(LABEL_FORMATTER.format(Instant.ofEpochSecond(data.toSeconds)));
+        data.chartWidth = chartWidth;
+        data.chartHeight = chartHeight;
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: erster und letzter Punkt bleiben, dazwischen wird pro Bucket der Punkt gewählt,
+     * der mit dem zuletzt gewählten Punkt und dem Mittel des nächsten Buckets das größte Dreieck bildet.
+     * Spitzen bleiben so auch bei starker Reduktion sichtbar.
+     */
+    private static int[] largestTriangleThreeBuckets(PriceSeries series, PriceKind kind, int threshold) {
+        int size = series.size();
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0.0;
+            double averageY = 0.0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += series.getTime(i);
+                averageY += kind.valueAt(series, i);
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double previousX = series.getTime(previous);
+            double previousY = kind.valueAt(series, previous);
+            double maxArea = -1.0;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previousX - averageX) * (kind.valueAt(series, i) - previousY)
+                        - (previousX - series.getTime(i)) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            selected[count++] = maxIndex;
+            previous = maxIndex;
+        }
+        selected[count] = size - 1;
+        return selected;
+    }
+
+    private static int nearestPoint(float[] xs, float x) {
+        if (xs.length == 0) {
+            return -1;
+        }
+        int low = 0;
+        int high = xs.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low > 0 && x - xs[low - 1] < xs[low] - x) {
+            return low - 1;
+        }
+        return low;
+    }
+
+    @Override
+    public void close() {
+        if (this.client != null) {
+            this.client.setScreen(this.parentScreen);
+        } else {
+            super.close();
+        }
+    }
+
+    @Override
+    public boolean shouldPause() {
+        return false;
+    }
+}
@@ -0,0 +1,169 @@
+package de.tradecore.tradecore;
+
+import java.util.Arrays;
+
+/**
+ * Unterschied zwischen zwei aufeinanderfolgenden Snapshots: neue, entfernte und geänderte Items.
+ * Beide Tabellen sind nach Raw-ID indiziert, daher reicht ein linearer Durchlauf über die Raw-IDs; die Ergebnisse
+ * landen in parallelen Arrays, pro Item wird nichts allokiert.
+ * Die prozentuale Änderung bezieht sich auf den Referenzpreis (Stückpreis, sonst Stack-, sonst DK-Preis)
+ * und wird in Basispunkten (1/100 %) angegeben. Verglichen werden nur die Basispreise; Varianten
+ * ({@link VariantPrices}) gehen nicht in den Diff ein.
+ */
+public final class PriceDiff {
+
+    public static final byte ADDED = 1;
+    public static final byte REMOVED = 2;
+    public static final byte CHANGED = 3;
+
+    private final int[] rawIds;
+    private final byte[] kinds;
+    private final int[] oldPrices;
+    private final int[] newPrices;
+    private final int[] changeBasisPoints;
+    private final int size;
+    private final int addedCount;
+    private final int removedCount;
+    private final int changedCount;
+    private final long fetchedAt;
+
+    private PriceDiff(int[] rawIds, byte[] kinds, int[] oldPrices, int[] newPrices, int[] changeBasisPoints, int size,
+                      int addedCount, int removedCount, int changedCount, long fetchedAt) {
+        this.rawIds = rawIds;
+        this.kinds = kinds;
+        this.oldPrices = oldPrices;
+        this.newPrices = newPrices;
+        this.changeBasisPoints = changeBasisPoints;
+        this.size = size;
+        this.addedCount = addedCount;
+        this.removedCount = removedCount;
+        this.changedCount = changedCount;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public static PriceDiff compute(PriceSnapshot previous, PriceSnapshot next) {
+        PriceTable before = previous.getTable();
+        PriceTable after = next.getTable();
+        int capacity = Math.max(before.capacity(), after.capacity());
+        int[] rawIds = new int[capacity];
+        byte[] kinds = new byte[capacity];
+        int[] oldPrices = new int[capacity];
+        int[] newPrices = new int[capacity];
+        int[] changeBasisPoints = new int[capacity];
+        int size = 0;
+        int added = 0;
+        int removed = 0;
+        int changed = 0;
+
+        for (int rawId = 0; rawId < capacity; rawId++) {
+            boolean had = before.contains(rawId);
+            boolean has = after.contains(rawId);
+            if (!had && !has) {
+                continue;
+            }
+            byte kind;
+            if (!had) {
+                kind = ADDED;
+                added++;
+            } else if (!has) {
+                kind = REMOVED;
+                removed++;
+            } else if (before.getStueckpreis(rawId) != after.getStueckpreis(rawId)
+                    || before.getStackpreis(rawId) != after.getStackpreis(rawId)
+                    || before.getDkpreis(rawId) != after.getDkpreis(rawId)) {
+                kind = CHANGED;
+                changed++;
+            } else {
+                continue;
+            }
+            int oldPrice = had ? referencePrice(before, rawId) : 0;
+            int newPrice = has ? referencePrice(after, rawId) : 0;
+            rawIds[size] = rawId;
+            kinds[size] = kind;
+            oldPrices[size] = oldPrice;
+            newPrices[size] = newPrice;
+            changeBasisPoints[size] = kind == CHANGED ? basisPoints(oldPrice, newPrice) : 0;
+            size++;
+        }
+
+        return new PriceDiff(Arrays.copyOf(rawIds, size), Arrays.copyOf(kinds, size), Arrays.copyOf(oldPrices, size),
+                Arrays.copyOf(newPrices, size), Arrays.copyOf(changeBasisPoints, size), size, added, removed, changed, next.getFetchedAt());
+    }
+
+    public static int referencePrice(PriceTable table, int rawId) {
+        int stueckpreis = table.getStueckpreis(rawId);
+        if (stueckpreis > 0) {
+            return stueckpreis;
+        }
+        int stackpreis = table.getStackpreis(rawId);
+        return stackpreis > 0 ? stackpreis : table.getDkpreis(rawId);
+    }
+
+    // Ohne alten Preis gibt es keine sinnvolle Prozentangabe
+    private static int basisPoints(int oldPrice, int newPrice) {
+        if (oldPrice <= 0) {
+            return 0;
+        }
+        long change = ((long) newPrice - oldPrice) * 10_000L / oldPrice;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, change));
+    }
+
+    /** Indizes der geänderten Einträge, absteigend nach Betrag der Änderung; höchstens {@code limit}. */
+    public int[] topMovers(int limit) {
+        // Betrag und Index in einem long, damit ohne Boxing sortiert werden kann
+        long[] keys = new long[changedCount];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] == CHANGED) {
+                keys[n++] = (Math.min(Integer.MAX_VALUE, Math.abs((long) changeBasisPoints[i])) << 32) | i;
+            }
+        }
+        Arrays.sort(keys, 0, n);
+        int count = Math.min(limit, n);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = (int) keys[n - 1 - i];
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getRawId(int index) {
+        return rawIds[index];
+    }
+
+    public byte getKind(int index) {
+        return kinds[index];
+    }
+
+    public int getOldPrice(int index) {
+        return oldPrices[index];
+    }
+
+    public int getNewPrice(int index) {
+        return newPrices[index];
+    }
+
+    public int getChangeBasisPoints(int index) {
+        return changeBasisPoints[index];
+    }
+
+    public int getAddedCount() {
+        return addedCount;
+    }
+
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,601 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.registry.Registries;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Lokaler Preisverlauf: speichert pro Item Stück-, Stack- und DK-Preis jedes abgerufenen Snapshots.
+ * Samples werden pro Item in Chunks gesammelt; Zeitstempel als Delta-of-Delta, Preise als Delta, jeweils als
+ * ZigZag-Varint. Ein unveränderter Preis bei gleichem Abrufintervall kostet so vier Bytes pro Sample.
+ * Alte Daten werden verdichtet (Rohdaten, nach {@value #RAW_RETENTION_DAYS} Tagen stündlich, nach
+ * {@value #HOURLY_RETENTION_DAYS} Tagen täglich), und die Datei bleibt unter einem festen Budget.
+ * Aufbau der Datei (Big Endian):
+ * <pre>
+ * int   magic ("TCPH"), int Formatversion (1)
+ * pro Chunk: int Länge, int CRC32C der Samples, short Länge + UTF-8 Item-ID, byte Stufe,
+ *            long Start, long Ende (Epoch-Sekunden), int Anzahl, Samples
+ * </pre>
+ * Beim Laden werden nur die Chunk-Köpfe gelesen; eine Bereichsabfrage liest nur die Chunks, die den Bereich schneiden.
+ */
+public final class PriceHistoryStore {
+
+    public static final int TIER_RAW = 0;
+    public static final int TIER_HOURLY = 1;
+    public static final int TIER_DAILY = 2;
+
+    private static final int MAGIC = 0x54435048; // "TCPH"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+    // short ID-Länge, byte Stufe, long Start, long Ende, int Anzahl (ohne die ID selbst)
+    private static final int CHUNK_META_BYTES = 2 + 1 + 8 + 8 + 4;
+    private static final int SAMPLES_PER_CHUNK = 128;
+    private static final long RAW_RETENTION_DAYS = 7;
+    private static final long HOURLY_RETENTION_DAYS = 90;
+    private static final long HOUR_SECONDS = 3600L;
+    private static final long DAY_SECONDS = 86400L;
+    private static final long MAINTENANCE_INTERVAL_SECONDS = DAY_SECONDS;
+    // Ältere offene Chunks werden auch unvollständig geschrieben; ein Absturz verliert so höchstens einen Tag
+    private static final long MAX_HEAD_AGE_SECONDS = DAY_SECONDS;
+    private static final long DISK_BUDGET_BYTES = 8L * 1024 * 1024;
+
+    private static final class ChunkRef {
+        final int tier;
+        final long start;
+        final long end;
+        final int count;
+        final long dataOffset;
+        final int dataLength;
+        final int crc;
+
+        ChunkRef(int tier, long start, long end, int count, long dataOffset, int dataLength, int crc) {
+            this.tier = tier;
+            this.start = start;
+            this.end = end;
+            this.count = count;
+            this.dataOffset = dataOffset;
+            this.dataLength = dataLength;
+            this.crc = crc;
+        }
+    }
+
+    private static final class ItemHistory {
+        // Gespeicherte Chunks in Zeitreihenfolge; verdichtet wird immer nur der älteste Teil, daher ohne Überschneidung
+        final List<ChunkRef> chunks = new ArrayList<>();
+        // Offener Rohdaten-Chunk, wird geschrieben, wenn er voll oder einen Tag alt ist, bei der Verdichtung oder beim Beenden
+        ChunkWriter head;
+    }
+
+    private static final class PendingChunk {
+        final String itemId;
+        final ChunkWriter chunk;
+
+        PendingChunk(String itemId, ChunkWriter chunk) {
+            this.itemId = itemId;
+            this.chunk = chunk;
+        }
+    }
+
+    private final Path path;
+    private final Path tmpPath;
+    private final Map<String, ItemHistory> items = new HashMap<>();
+    private boolean loaded = false;
+    // Datei vorhanden, aber nicht lesbar: in dieser Sitzung nichts schreiben, um sie nicht zu überschreiben
+    private boolean disabled = false;
+    private long fileSize = 0L;
+    private long lastRecordedAt = -1L;
+    private long lastMaintenanceAt = 0L;
+    // Steigt bei jeder Änderung der Daten; Anzeigen vergleichen sie, ohne den Store zu sperren
+    private volatile long version = 0L;
+
+    public PriceHistoryStore(Path path) {
+        this.path = path;
+        this.tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    /** Hängt für jedes Item mit Preis ein Sample zum Zeitpunkt des Snapshots an. */
+    public synchronized void record(PriceSnapshot snapshot) {
+        ensureLoaded();
+        long time = snapshot.getFetchedAt();
+        if (disabled || time <= lastRecordedAt) {
+            return;
+        }
+        long start = System.nanoTime();
+        PriceTable table = snapshot.getTable();
+        List<PendingChunk> full = new ArrayList<>();
+        int recorded = 0;
+        for (int rawId = 0; rawId < table.capacity() && recorded < table.size(); rawId++) {
+            if (!table.contains(rawId)) {
+                continue;
+            }
+            // Kanonische ID, damit API-Schreibweisen und Registry-IDs auf denselben Verlauf zeigen
+            String itemId = Registries.ITEM.getId(Registries.ITEM.get(rawId)).toString();
+            ItemHistory history = items.computeIfAbsent(itemId, id -> new ItemHistory());
+            if (history.head == null) {
+                history.head = new ChunkWriter(TIER_RAW);
+            }
+            history.head.add(time, table.getStueckpreis(rawId), table.getStackpreis(rawId), table.getDkpreis(rawId));
+            if (history.head.count >= SAMPLES_PER_CHUNK || time - history.head.start >= MAX_HEAD_AGE_SECONDS) {
+                full.add(new PendingChunk(itemId, history.head));
+                history.head = null;
+            }
+            recorded++;
+        }
+        lastRecordedAt = time;
+        version++;
+        appendChunks(full);
+        TradeCore.LOGGER.debug("Preisverlauf: {} Samples in {} ms erfasst.", recorded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (time - lastMaintenanceAt >= MAINTENANCE_INTERVAL_SECONDS || fileSize > DISK_BUDGET_BYTES) {
+            maintain(time);
+        }
+    }
+
+    /** Samples eines Items im Bereich [fromSeconds, toSeconds], aufsteigend nach Zeit. */
+    public synchronized PriceSeries query(String itemId, long fromSeconds, long toSeconds) {
+        ensureLoaded();
+        ItemHistory history = items.get(itemId);
+        if (history == null) {
+            return PriceSeries.EMPTY;
+        }
+        PriceSeries.Builder builder = PriceSeries.builder();
+        List<ChunkRef> needed = new ArrayList<>();
+        for (ChunkRef chunk : history.chunks) {
+            if (chunk.end >= fromSeconds && chunk.start <= toSeconds) {
+                needed.add(chunk);
+            }
+        }
+        if (!needed.isEmpty()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                for (ChunkRef chunk : needed) {
+                    ByteBuffer data = readChunk(channel, chunk);
+                    if (data != null) {
+                        decode(data, chunk.count, builder, fromSeconds, toSeconds);
+                    }
+                }
+            } catch (IOException e) {
+                TradeCore.LOGGER.error("Fehler beim Lesen des Preisverlaufs: ", e);
+            }
+        }
+        if (history.head != null && history.head.end >= fromSeconds && history.head.start <= toSeconds) {
+            decode(ByteBuffer.wrap(history.head.data, 0, history.head.length), history.head.count, builder, fromSeconds, toSeconds);
+        }
+        return builder.build();
+    }
+
+    /** Schreibt alle offenen Chunks, z.B. beim Beenden. */
+    public synchronized void flush() {
+        if (!loaded || disabled) {
+            return;
+        }
+        appendChunks(takeOpenHeads());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public synchronized long getFileSize() {
+        return fileSize;
+    }
+
+    // Liest nur die Chunk-Köpfe; die Prüfsumme eines Chunks wird erst beim Lesen seiner Samples geprüft
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            int chunkCount = readChunkIndex();
+            if (chunkCount < 0) {
+                TradeCore.LOGGER.warn("Preisverlauf {} ungültig, beginne neu.", path.getFileName());
+                Files.deleteIfExists(path);
+                return;
+            }
+            TradeCore.LOGGER.info("Preisverlauf geladen: {} Items, {} Chunks, {} Bytes in {} ms.", items.size(), chunkCount, fileSize,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            TradeCore.LOGGER.error("Fehler beim Laden des Preisverlaufs, Aufzeichnung für diese Sitzung deaktiviert: ", e);
+            items.clear();
+            disabled = true;
+        }
+    }
+
+    // Anzahl der gelesenen Chunks oder -1 bei ungültigem Dateikopf; gelöscht wird erst nach dem Schließen des Kanals
+    private int readChunkIndex() throws IOException {
+        int chunkCount = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            if (!readFully(channel, header, 0L) || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                return -1;
+            }
+            long position = FILE_HEADER_BYTES;
+            ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES + 2);
+            while (position < size) {
+                recordHeader.clear();
+                if (!readFully(channel, recordHeader, position)) {
+                    break;
+                }
+                int length = recordHeader.getInt(0);
+                int idLength = recordHeader.getShort(RECORD_HEADER_BYTES) & 0xFFFF;
+                int metaLength = CHUNK_META_BYTES + idLength;
+                if (length < metaLength || length > size - position - RECORD_HEADER_BYTES) {
+                    break;
+                }
+                ByteBuffer meta = ByteBuffer.allocate(metaLength - 2);
+                if (!readFully(channel, meta, position + RECORD_HEADER_BYTES + 2)) {
+                    break;
+                }
+                String itemId = new String(meta.array(), 0, idLength, StandardCharsets.UTF_8);
+                int tier = meta.get(idLength);
+                long chunkStart = meta.getLong(idLength + 1);
+                long chunkEnd = meta.getLong(idLength + 9);
+                int count = meta.getInt(idLength + 17);
+                if (tier < TIER_RAW || tier > TIER_DAILY || count <= 0 || chunkEnd < chunkStart) {
+                    break;
+                }
+                long dataOffset = position + RECORD_HEADER_BYTES + metaLength;
+                items.computeIfAbsent(itemId, id -> new ItemHistory()).chunks
+                        .add(new ChunkRef(tier, chunkStart, chunkEnd, count, dataOffset, length - metaLength, recordHeader.getInt(4)));
+                lastRecordedAt = Math.max(lastRecordedAt, chunkEnd);
+                chunkCount++;
+                position += RECORD_HEADER_BYTES + length;
+            }
+            if (position < size) {
+                TradeCore.LOGGER.warn("Preisverlauf: unvollständiger Chunk am Ende, schneide {} Bytes ab.", size - position);
+                channel.truncate(position);
+                channel.force(true);
+            }
+            fileSize = position;
+            return chunkCount;
+        }
+    }
+
+    private List<PendingChunk> takeOpenHeads() {
+        List<PendingChunk> open = new ArrayList<>();
+        for (Map.Entry<String, ItemHistory> entry : items.entrySet()) {
+            if (entry.getValue().head != null) {
+                open.add(new PendingChunk(entry.getKey(), entry.getValue().head));
+                entry.getValue().head = null;
+            }
+        }
+        return open;
+    }
+
+    private void appendChunks(List<PendingChunk> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long position = fileSize;
+            if (position == 0L) {
+                position = writeFileHeader(channel);
+            }
+            fileSize = writeChunks(channel, position, pending);
+            channel.force(false);
+        } catch (IOException e) {
+            TradeCore.LOGGER.error("Fehler beim Schreiben des Preisverlaufs: ", e);
+            // Teilweise geschriebene Chunks werden beim nächsten Anhängen überschrieben
+            long limit = fileSize;
+            for (ItemHistory history : items.values()) {
+                history.chunks.removeIf(chunk -> chunk.dataOffset >= limit);
+            }
+        }
+    }
+
+    /**
+     * Schreibt die offenen Chunks, verdichtet alte Samples (stündlich bzw. täglich gemittelt), fasst kleine Chunks
+     * zusammen und schreibt die Datei neu. Liegt sie danach über dem Budget, fallen die ältesten Chunks weg.
+     */
+    private void maintain(long now) {
+        lastMaintenanceAt = now;
+        appendChunks(takeOpenHeads());
+        if (fileSize == 0L) {
+            return;
+        }
+        long start = System.nanoTime();
+        long rawCutoff = now - RAW_RETENTION_DAYS * DAY_SECONDS;
+        long hourlyCutoff = now - HOURLY_RETENTION_DAYS * DAY_SECONDS;
+        List<PendingChunk> rewritten = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Sortiert, damit die Chunks eines Items zusammen und in fester Reihenfolge in der Datei liegen
+            for (Map.Entry<String, ItemHistory> entry : new TreeMap<>(items).entrySet()) {
+                PriceSeries.Builder samples = PriceSeries.builder();
+                for (ChunkRef chunk : entry.getValue().chunks) {
+                    ByteBuffer data = readChunk(channel, chunk);
+                    if (data != null) {
+                        decode(data, chunk.count, samples, Long.MIN_VALUE, Long.MAX_VALUE);
+                    }
+                }
+                downsample(entry.getKey(), samples.build(), rawCutoff, hourlyCutoff, rewritten);
+            }
+        } catch (IOException e) {
+            TradeCore.LOGGER.error("Fehler beim Verdichten des Preisverlaufs: ", e);
+            return;
+        }
+
+        long total = FILE_HEADER_BYTES;
+        for (PendingChunk chunk : rewritten) {
+            total += recordLength(chunk);
+        }
+        int dropped = 0;
+        if (total > DISK_BUDGET_BYTES) {
+            // Bis 90 % des Budgets freigeben, damit nicht jeder neue Chunk sofort wieder verdichtet
+            long target = DISK_BUDGET_BYTES * 9 / 10;
+            List<PendingChunk> byAge = new ArrayList<>(rewritten);
+            byAge.sort(Comparator.comparingLong(chunk -> chunk.chunk.end));
+            List<PendingChunk> removed = new ArrayList<>();
+            for (PendingChunk chunk : byAge) {
+                if (total <= target) {
+                    break;
+                }
+                total -= recordLength(chunk);
+                removed.add(chunk);
+            }
+            rewritten.removeAll(removed);
+            dropped = removed.size();
+        }
+
+        for (ItemHistory history : items.values()) {
+            history.chunks.clear();
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = writeFileHeader(channel);
+                fileSize = writeChunks(channel, position, rewritten);
+                channel.force(true);
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Index passt nicht mehr zur Datei: beim nächsten Zugriff neu laden
+            TradeCore.LOGGER.error("Fehler beim Schreiben des verdichteten Preisverlaufs: ", e);
+            for (ItemHistory history : items.values()) {
+                history.chunks.clear();
+            }
+            items.values().removeIf(history -> history.head == null);
+            loaded = false;
+            fileSize = 0L;
+            return;
+        }
+        items.values().removeIf(history -> history.chunks.isEmpty() && history.head == null);
+        version++;
+        TradeCore.LOGGER.info("Preisverlauf verdichtet: {} Chunks, {} Bytes, {} alte Chunks wegen Budget verworfen ({} ms).",
+                rewritten.size(), fileSize, dropped, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Mittelt Samples vor den Grenzen in Stunden- bzw. Tages-Buckets; neuere Samples bleiben unverändert
+    private static void downsample(String itemId, PriceSeries samples, long rawCutoff, long hourlyCutoff, List<PendingChunk> out) {
+        ChunkWriter writer = null;
+        int bucketTier = -1;
+        long bucketStart = 0L;
+        long sumStueck = 0L;
+        long sumStack = 0L;
+        long sumDk = 0L;
+        int bucketCount = 0;
+        for (int i = 0; i <= samples.size(); i++) {
+            int tier = -1;
+            long bucket = 0L;
+            if (i < samples.size()) {
+                long time = samples.getTime(i);
+                tier = time < hourlyCutoff ? TIER_DAILY : time < rawCutoff ? TIER_HOURLY : TIER_RAW;
+                long width = tier == TIER_DAILY ? DAY_SECONDS : tier == TIER_HOURLY ? HOUR_SECONDS : 1L;
+                bucket = Math.floorDiv(time, width) * width;
+            }
+            if (bucketCount > 0 && (tier != bucketTier || bucket != bucketStart)) {
+                if (writer == null || writer.tier != bucketTier || writer.count >= SAMPLES_PER_CHUNK) {
+                    if (writer != null) {
+                        out.add(new PendingChunk(itemId, writer));
+                    }
+                    writer = new ChunkWriter(bucketTier);
+                }
+                writer.add(bucketStart, (int) (sumStueck / bucketCount), (int) (sumStack / bucketCount), (int) (sumDk / bucketCount));
+                sumStueck = 0L;
+                sumStack = 0L;
+                sumDk = 0L;
+                bucketCount = 0;
+            }
+            if (i < samples.size()) {
+                bucketTier = tier;
+                bucketStart = bucket;
+                sumStueck += samples.getStueckpreis(i);
+                sumStack += samples.getStackpreis(i);
+                sumDk += samples.getDkpreis(i);
+                bucketCount++;
+            }
+        }
+        if (writer != null) {
+            out.add(new PendingChunk(itemId, writer));
+        }
+    }
+
+    private static long writeFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.flip();
+        writeFully(channel, header, 0L);
+        return FILE_HEADER_BYTES;
+    }
+
+    // Schreibt die Chunks ab position und trägt sie in den Index ein; liefert das neue Dateiende
+    private long writeChunks(FileChannel channel, long position, List<PendingChunk> pending) throws IOException {
+        for (PendingChunk entry : pending) {
+            ChunkWriter chunk = entry.chunk;
+            byte[] id = entry.itemId.getBytes(StandardCharsets.UTF_8);
+            int metaLength = CHUNK_META_BYTES + id.length;
+            CRC32C crc = new CRC32C();
+            crc.update(chunk.data, 0, chunk.length);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + metaLength + chunk.length);
+            record.putInt(metaLength + chunk.length);
+            record.putInt((int) crc.getValue());
+            record.putShort((short) id.length);
+            record.put(id);
+            record.put((byte) chunk.tier);
+            record.putLong(chunk.start);
+            record.putLong(chunk.end);
+            record.putInt(chunk.count);
+            record.put(chunk.data, 0, chunk.length);
+            record.flip();
+            writeFully(channel, record, position);
+            items.computeIfAbsent(entry.itemId, itemId -> new ItemHistory()).chunks.add(new ChunkRef(chunk.tier, chunk.start, chunk.end,
+                    chunk.count, position + RECORD_HEADER_BYTES + metaLength, chunk.length, (int) crc.getValue()));
+            position += record.limit();
+        }
+        return position;
+    }
+
+    private static long recordLength(PendingChunk entry) {
+        return RECORD_HEADER_BYTES + CHUNK_META_BYTES + entry.itemId.getBytes(StandardCharsets.UTF_8).length + entry.chunk.length;
+    }
+
+    // null bei beschädigtem Chunk; der Rest des Verlaufs bleibt lesbar
+    private ByteBuffer readChunk(FileChannel channel, ChunkRef chunk) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(chunk.dataLength);
+        if (!readFully(channel, data, chunk.dataOffset)) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data.array(), 0, chunk.dataLength);
+        if ((int) crc.getValue() != chunk.crc) {
+            TradeCore.LOGGER.warn("Preisverlauf: Chunk bei Offset {} beschädigt, wird übersprungen.", chunk.dataOffset);
+            return null;
+        }
+        data.flip();
+        return data;
+    }
+
+    private static void decode(ByteBuffer data, int count, PriceSeries.Builder out, long fromSeconds, long toSeconds) {
+        long time = 0L;
+        long delta = 0L;
+        int stueck = 0;
+        int stack = 0;
+        int dk = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                if (i == 0) {
+                    time = unzigzag(readVarLong(data));
+                } else {
+                    delta += unzigzag(readVarLong(data));
+                    time += delta;
+                }
+                stueck += (int) unzigzag(readVarLong(data));
+                stack += (int) unzigzag(readVarLong(data));
+                dk += (int) unzigzag(readVarLong(data));
+                if (time > toSeconds) {
+                    return;
+                }
+                if (time >= fromSeconds) {
+                    out.add(time, stueck, stack, dk);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            TradeCore.LOGGER.warn("Preisverlauf: Chunk endet vorzeitig.");
+        }
+    }
+
+    private static long readVarLong(ByteBuffer data) {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = data.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new BufferUnderflowException();
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /** Kodiert die Samples eines Chunks: Zeit als Delta-of-Delta, Preise als Delta, alles ZigZag-Varint. */
+    private static final class ChunkWriter {
+        final int tier;
+        byte[] data = new byte[64];
+        int length = 0;
+        int count = 0;
+        long start;
+        long end;
+        long lastDelta;
+        int lastStueck;
+        int lastStack;
+        int lastDk;
+
+        ChunkWriter(int tier) {
+            this.tier = tier;
+        }
+
+        void add(long time, int stueck, int stack, int dk) {
+            if (count == 0) {
+                writeVarLong(zigzag(time));
+                start = time;
+                lastDelta = 0L;
+            } else {
+                long delta = time - end;
+                writeVarLong(zigzag(delta - lastDelta));
+                lastDelta = delta;
+            }
+            writeVarLong(zigzag((long) stueck - lastStueck));
+            writeVarLong(zigzag((long) stack - lastStack));
+            writeVarLong(zigzag((long) dk - lastDk));
+            lastStueck = stueck;
+            lastStack = stack;
+            lastDk = dk;
+            end = time;
+            count++;
+        }
+
+        private void writeVarLong(long value) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package de.tradecore.tradecore;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only Journal für Preis-Deltas neben dem Basis-Snapshot ({@link PriceSnapshotFile}).
+ * Statt bei jedem Delta den ganzen Katalog neu zu schreiben, wird nur ein Datensatz mit den Änderungen angehängt.
+ * Aufbau (Big Endian):
+ * <pre>
+ * Header:    int magic ("TCPJ"), int Formatversion (1), long Basis-Version, long Basis-fetchedAt, int Basis-Anzahl
+ * Datensatz: int Länge der Nutzdaten, int CRC32C der Nutzdaten, Nutzdaten:
+ *            long fetchedAt, int n, n x (ID, int Stack, int DK, int Stück), int m, m x ID
+ *            (IDs als UTF-8 mit short-Längenpräfix)
+ * </pre>
+ * Der Header bindet das Journal an genau eine Basisdatei. Ein beim Absturz halb geschriebener letzter Datensatz
+ * fällt über Länge bzw. Prüfsumme auf und wird beim Nachspielen abgeschnitten.
+ */
+public final class PriceJournal {
+
+    private static final int MAGIC = 0x5443504A; // "TCPJ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    private static final int RECORD_HEADER_BYTES = 4 + 4;
+
+    public static final class Replay {
+        public final List<PricePatch> patches;
+        // Zeitstempel des letzten Datensatzes, -1 ohne Datensätze
+        public final long fetchedAt;
+        // true = Journal passte nicht zur Basis und wurde verworfen; gespeicherte Validatoren sind dann unzuverlässig
+        public final boolean discarded;
+
+        private Replay(List<PricePatch> patches, long fetchedAt, boolean discarded) {
+            this.patches = patches;
+            this.fetchedAt = fetchedAt;
+            this.discarded = discarded;
+        }
+    }
+
+    private final Path path;
+    private final Path tmpPath;
+    // Nur wenn das Journal zur aktuellen Basis gehört, darf angehängt werden
+    private boolean attached = false;
+    private long size = 0L;
+
+    public PriceJournal(Path path) {
+        this.path = path;
+        this.tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    public synchronized boolean isAttached() {
+        return attached;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Liest alle gültigen Datensätze zur übergebenen Basis. Ein unvollständiger oder beschädigter Rest am Ende
+     * wird abgeschnitten, damit spätere Datensätze wieder direkt an gültige Daten anschließen.
+     * Ein unlesbares Journal wird verworfen; die Basisdatei bleibt davon unberührt.
+     */
+    public synchronized Replay replay(PriceSnapshot base) {
+        attached = false;
+        size = 0L;
+        if (!Files.exists(path)) {
+            return new Replay(List.of(), -1L, false);
+        }
+        try {
+            Replay replay = readRecords(base);
+            if (replay == null) {
+                Files.deleteIfExists(path);
+                TradeCore.LOGGER.warn("Preis-Journal passt nicht zur Preisdatei und wurde verworfen.");
+                return new Replay(List.of(), -1L, true);
+            }
+            return replay;
+        } catch (IOException e) {
+            TradeCore.LOGGER.error("Fehler beim Lesen des Preis-Journals, verwerfe es: ", e);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                TradeCore.LOGGER.warn("Konnte Preis-Journal nicht löschen: {}", ex.getMessage());
+            }
+            return new Replay(List.of(), -1L, true);
+        }
+    }
+
+    // null, wenn der Kopf nicht zur Basis passt; gelöscht wird erst nach dem Schließen des Kanals
+    private Replay readRecords(PriceSnapshot base) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (!readFully(channel, header, 0L)
+                    || header.getInt(0) != MAGIC
+                    || header.getInt(4) != FORMAT_VERSION
+                    || header.getLong(8) != base.getVersion()
+                    || header.getLong(16) != base.getFetchedAt()
+                    || header.getInt(24) != base.getTable().size()) {
+                return null;
+            }
+
+            List<PricePatch> patches = new ArrayList<>();
+            long fetchedAt = -1L;
+            long position = HEADER_BYTES;
+            ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+            while (position < fileSize) {
+                recordHeader.clear();
+                if (!readFully(channel, recordHeader, position)) {
+                    break;
+                }
+                int length = recordHeader.getInt(0);
+                if (length < 8 || length > fileSize - position - RECORD_HEADER_BYTES) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(channel, payload, position + RECORD_HEADER_BYTES)) {
+                    break;
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(payload.array(), 0, length);
+                if ((int) crc.getValue() != recordHeader.getInt(4)) {
+                    break;
+                }
+                payload.flip();
+                try {
+                    long recordFetchedAt = payload.getLong();
+                    patches.add(decodePatch(payload));
+                    fetchedAt = recordFetchedAt;
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    break;
+                }
+                position += RECORD_HEADER_BYTES + length;
+            }
+            if (position < fileSize) {
+                TradeCore.LOGGER.warn("Preis-Journal: unvollständiger Datensatz am Ende, schneide {} Bytes ab.", fileSize - position);
+                channel.truncate(position);
+                channel.force(true);
+            }
+            attached = true;
+            size = position;
+            return new Replay(patches, fetchedAt, false);
+        }
+    }
+
+    // Beginnt ein leeres Journal zu einer neu geschriebenen Basis
+    public synchronized void reset(PriceSnapshot base) throws IOException {
+        attached = false;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.putLong(base.getVersion());
+        header.putLong(base.getFetchedAt());
+        header.putInt(base.getTable().size());
+        header.flip();
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        attached = true;
+        size = HEADER_BYTES;
+    }
+
+    // Hängt einen Datensatz an und liefert die neue Größe des Journals
+    public synchronized long append(PricePatch patch, long fetchedAt) throws IOException {
+        if (!attached) {
+            throw new IllegalStateException("Preis-Journal gehört zu keiner Basis");
+        }
+        ByteBuffer record = encodeRecord(patch, fetchedAt);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+            size = channel.size();
+            return size;
+        } catch (IOException e) {
+            // Ein halb geschriebener Datensatz darf nicht zur Grundlage weiterer Anhänge werden
+            attached = false;
+            throw e;
+        }
+    }
+
+    public synchronized void detach() {
+        attached = false;
+        size = 0L;
+    }
+
+    private static ByteBuffer encodeRecord(PricePatch patch, long fetchedAt) {
+        byte[][] upsertIds = new byte[patch.upsertCount()][];
+        byte[][] removedIds = new byte[patch.removedCount()][];
+        int length = 8 + 4 + 4;
+        for (int i = 0; i < upsertIds.length; i++) {
+            upsertIds[i] = encodeId(patch.getUpsertId(i));
+            length += 2 + upsertIds[i].length + 3 * 4;
+        }
+        for (int i = 0; i < removedIds.length; i++) {
+            removedIds[i] = encodeId(patch.getRemovedId(i));
+            length += 2 + removedIds[i].length;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        record.putInt(length);
+        record.putInt(0); // Prüfsumme, wird unten eingetragen
+        record.putLong(fetchedAt);
+        record.putInt(upsertIds.length);
+        for (int i = 0; i < upsertIds.length; i++) {
+            record.putShort((short) upsertIds[i].length);
+            record.put(upsertIds[i]);
+            record.putInt(patch.getStackpreis(i));
+            record.putInt(patch.getDkpreis(i));
+            record.putInt(patch.getStueckpreis(i));
+        }
+        record.putInt(removedIds.length);
+        for (byte[] removedId : removedIds) {
+            record.putShort((short) removedId.length);
+            record.put(removedId);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), RECORD_HEADER_BYTES, length);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private static byte[] encodeId(String itemId) {
+        byte[] bytes = itemId.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Item-ID zu lang: " + bytes.length + " Bytes");
+        }
+        return bytes;
+    }
+
+    private static PricePatch decodePatch(ByteBuffer payload) {
+        PricePatch.Builder builder = PricePatch.builder();
+        int upserts = payload.getInt();
+        if (upserts < 0 || upserts > payload.remaining()) {
+            throw new IllegalArgumentException("Ungültige Anzahl im Journal: " + upserts);
+        }
+        for (int i = 0; i < upserts; i++) {
+            String itemId = decodeId(payload);
+            int stackpreis = payload.getInt();
+            int dkpreis = payload.getInt();
+            int stueckpreis = payload.getInt();
+            builder.put(itemId, stackpreis, dkpreis, stueckpreis);
+        }
+        int removals = payload.getInt();
+        if (removals < 0 || removals > payload.remaining()) {
+            throw new IllegalArgumentException("Ungültige Anzahl im Journal: " + removals);
+        }
+        for (int i = 0; i < removals; i++) {
+            builder.remove(decodeId(payload));
+        }
+        return builder.build();
+    }
+
+    private static String decodeId(ByteBuffer payload) {
+        int length = payload.getShort() & 0xFFFF;
+        if (length > payload.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String itemId = new String(payload.array(), payload.position(), length, StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return itemId;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.widget.ButtonWidget;
+import net.minecraft.registry.Registries;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Größte Preisbewegungen zwischen den letzten beiden Katalogen, direkt aus dem {@link PriceDiff}.
+ * Die Zeilen werden einmal in {@code init} gebaut; pro Frame wird nur gezeichnet.
+ */
+public class PriceMoversScreen extends Screen {
+
+    private static final int MAX_MOVERS = 15;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM. HH:mm").withZone(ZoneId.systemDefault());
+
+    private final Screen parentScreen;
+    private final List<Text> lines = new ArrayList<>();
+    private Text summary;
+
+    public PriceMoversScreen(Screen parent) {
+        super(Text.literal("Preisbewegungen").formatted(Formatting.BOLD));
+        this.parentScreen = parent;
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        buildLines();
+        this.addDrawableChild(ButtonWidget.builder(Text.literal("Zurück"), button -> this.close())
+                .dimensions(this.width / 2 - 90, this.height - 30, 180, 20)
+                .build());
+    }
+
+    private void buildLines() {
+        lines.clear();
+        PriceDiff diff = TradeCore.apiClient != null ? TradeCore.apiClient.getLastDiff() : null;
+        if (diff == null) {
+            summary = Text.literal("Noch kein Vergleich vorhanden. Er entsteht beim nächsten Preisabruf.").formatted(Formatting.GRAY);
+            return;
+        }
+        summary = Text.literal(diff.getChangedCount() + " geändert, " + diff.getAddedCount() + " neu, " + diff.getRemovedCount()
+                + " entfernt (Stand " + TIME_FORMATTER.format(Instant.ofEpochSecond(diff.getFetchedAt())) + ")").formatted(Formatting.YELLOW);
+
+        PriceWatchlist watchlist = TradeCoreConfig.watchlist;
+        for (int index : diff.topMovers(MAX_MOVERS)) {
+            int rawId = diff.getRawId(index);
+            int change = diff.getChangeBasisPoints(index);
+            MutableText line = Text.empty();
+            if (watchlist.thresholdFor(rawId) > 0) {
+                line.append(Text.literal("★ ").formatted(Formatting.GOLD));
+            }
+            line.append(Registries.ITEM.get(rawId).getName().copy().formatted(Formatting.WHITE));
+            line.append(Text.literal(": " + diff.getOldPrice(index) + "$ → " + diff.getNewPrice(index) + "$ ").formatted(Formatting.GRAY));
+            line.append(Text.literal((change > 0 ? "+" : "") + PriceWatchlist.formatPercent(change) + "%")
+                    .formatted(change > 0 ? Formatting.GREEN : change < 0 ? Formatting.RED : Formatting.GRAY));
+            lines.add(line);
+        }
+        if (lines.isEmpty()) {
+            lines.add(Text.literal("Keine Preisänderungen.").formatted(Formatting.GRAY));
+        }
+    }
+
+    @Override
+    public void render(DrawContext context, int mouseX, int mouseY, float delta) {
+        this.renderBackground(context, mouseX, mouseY, delta);
+        context.drawCenteredTextWithShadow(this.textRenderer, this.title, this.width / 2, 12, 0xFFFFFF);
+        context.drawCenteredTextWithShadow(this.textRenderer, summary, this.width / 2, 28, 0xFFFFFF);
+        int y = 48;
+        int lineHeight = this.textRenderer.fontHeight + 3;
+        for (Text line : lines) {
+            if (y + lineHeight > this.height - 36) {
+                break;
+            }
+            context.drawCenteredTextWithShadow(this.textRenderer, line, this.width / 2, y, 0xFFFFFF);
+            y += lineHeight;
+        }
+        super.render(context, mouseX, mouseY, delta);
+    }
+
+    @Override
+    public void close() {
+        if (this.client != null) {
+            this.client.setScreen(this.parentScreen);
+        } else {
+            super.close();
+        }
+    }
+
+    @Override
+    public boolean shouldPause() {
+        return false;
+    }
+}
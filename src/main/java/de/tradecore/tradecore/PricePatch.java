@@ -0,0 +1,103 @@
+package de.tradecore.tradecore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inkrementelle Änderung am Preiskatalog (Delta-Sync): hinzugefügte/geänderte und entfernte Items.
+ * Wird per {@link PriceTable#withPatch(PricePatch)} auf die aktuelle Tabelle angewendet.
+ */
+public final class PricePatch {
+
+    private final String[] upsertIds;
+    private final int[] stackpreise;
+    private final int[] dkpreise;
+    private final int[] stueckpreise;
+    private final String[] removedIds;
+
+    private PricePatch(String[] upsertIds, int[] stackpreise, int[] dkpreise, int[] stueckpreise, String[] removedIds) {
+        this.upsertIds = upsertIds;
+        this.stackpreise = stackpreise;
+        this.dkpreise = dkpreise;
+        this.stueckpreise = stueckpreise;
+        this.removedIds = removedIds;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int upsertCount() {
+        return upsertIds.length;
+    }
+
+    public String getUpsertId(int index) {
+        return upsertIds[index];
+    }
+
+    public int getStackpreis(int index) {
+        return stackpreise[index];
+    }
+
+    public int getDkpreis(int index) {
+        return dkpreise[index];
+    }
+
+    public int getStueckpreis(int index) {
+        return stueckpreise[index];
+    }
+
+    public int removedCount() {
+        return removedIds.length;
+    }
+
+    public String getRemovedId(int index) {
+        return removedIds[index];
+    }
+
+    public boolean isEmpty() {
+        return upsertIds.length == 0 && removedIds.length == 0;
+    }
+
+    public static final class Builder {
+        private final List<String> upsertIds = new ArrayList<>();
+        private int[] stackpreise = new int[16];
+        private int[] dkpreise = new int[16];
+        private int[] stueckpreise = new int[16];
+        private final List<String> removedIds = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder put(String itemId, int stackpreis, int dkpreis, int stueckpreis) {
+            int index = upsertIds.size();
+            if (index == stackpreise.length) {
+                int newLength = index * 2;
+                stackpreise = Arrays.copyOf(stackpreise, newLength);
+                dkpreise = Arrays.copyOf(dkpreise, newLength);
+                stueckpreise = Arrays.copyOf(stueckpreise, newLength);
+            }
+            upsertIds.add(itemId);
+            stackpreise[index] = stackpreis;
+            dkpreise[index] = dkpreis;
+            stueckpreise[index] = stueckpreis;
+            return this;
+        }
+
+        public Builder remove(String itemId) {
+            removedIds.add(itemId);
+            return this;
+        }
+
+        public PricePatch build() {
+            int count = upsertIds.size();
+            return new PricePatch(
+                    upsertIds.toArray(new String[0]),
+                    Arrays.copyOf(stackpreise, count),
+                    Arrays.copyOf(dkpreise, count),
+                    Arrays.copyOf(stueckpreise, count),
+                    removedIds.toArray(new String[0]));
+        }
+    }
+}
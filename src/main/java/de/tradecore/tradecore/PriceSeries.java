@@ -0,0 +1,92 @@
+package de.tradecore.tradecore;
+
+import java.util.Arrays;
+
+/**
+ * Ergebnis einer Verlaufsabfrage aus dem {@link PriceHistoryStore}: Samples eines Items, aufsteigend nach Zeit,
+ * als parallele Arrays (Zeit in Epoch-Sekunden).
+ */
+public final class PriceSeries {
+
+    public static final PriceSeries EMPTY = new PriceSeries(new long[0], new int[0], new int[0], new int[0], 0);
+
+    private final long[] times;
+    private final int[] stueckpreise;
+    private final int[] stackpreise;
+    private final int[] dkpreise;
+    private final int size;
+
+    private PriceSeries(long[] times, int[] stueckpreise, int[] stackpreise, int[] dkpreise, int size) {
+        this.times = times;
+        this.stueckpreise = stueckpreise;
+        this.stackpreise = stackpreise;
+        this.dkpreise = dkpreise;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    public int getStueckpreis(int index) {
+        return stueckpreise[index];
+    }
+
+    public int getStackpreis(int index) {
+        return stackpreise[index];
+    }
+
+    public int getDkpreis(int index) {
+        return dkpreise[index];
+    }
+
+    public static final class Builder {
+        private long[] times = new long[64];
+        private int[] stueckpreise = new int[64];
+        private int[] stackpreise = new int[64];
+        private int[] dkpreise = new int[64];
+        private int size = 0;
+
+        private Builder() {
+        }
+
+        public Builder add(long time, int stueckpreis, int stackpreis, int dkpreis) {
+            if (size == times.length) {
+                int newLength = size * 2;
+                times = Arrays.copyOf(times, newLength);
+                stueckpreise = Arrays.copyOf(stueckpreise, newLength);
+                stackpreise = Arrays.copyOf(stackpreise, newLength);
+                dkpreise = Arrays.copyOf(dkpreise, newLength);
+            }
+            times[size] = time;
+            stueckpreise[size] = stueckpreis;
+            stackpreise[size] = stackpreis;
+            dkpreise[size] = dkpreis;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PriceSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new PriceSeries(times, stueckpreise, stackpreise, dkpreise, size);
+        }
+    }
+}
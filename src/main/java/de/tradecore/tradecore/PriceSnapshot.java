@@ -0,0 +1,36 @@
+package de.tradecore.tradecore;
+
+/**
+ * Unveränderlicher Stand der Preisdaten. Wird vom PriceAPIClient per volatile Referenz
+ * als Ganzes ausgetauscht, Leser sehen daher immer eine konsistente Tabelle ohne Lock.
+ */
+public final class PriceSnapshot {
+
+    public static final PriceSnapshot EMPTY = new PriceSnapshot(0, 0, PriceTable.EMPTY);
+
+    private final long version;
+    private final long fetchedAt; // Epoch-Sekunden, 0 = keine Daten
+    private final PriceTable table;
+
+    public PriceSnapshot(long version, long fetchedAt, PriceTable table) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.table = table;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public PriceTable getTable() {
+        return table;
+    }
+
+    public boolean isEmpty() {
+        return table.isEmpty();
+    }
+}
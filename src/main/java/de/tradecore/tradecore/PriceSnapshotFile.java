@@ -0,0 +1,289 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.registry.Registries;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Binäres Format der lokalen Preisdatei (ersetzt die JSON-Datei).
+ * Aufbau Version 3 (Big Endian), wird per {@link #map(Path)} ohne Parsen eingeblendet:
+ * <pre>
+ * int   magic ("TCPS")
+ * int   Formatversion (3)
+ * long  Snapshot-Version
+ * long  fetchedAt (Epoch-Sekunden)
+ * int   Anzahl n
+ * int   Länge des String-Blocks in Bytes
+ * (n+1) x int   Offsets der Item-IDs im String-Block
+ * Bytes         String-Block (UTF-8, kanonische Registry-IDs)
+ * n x   int Stückpreis
+ * n x   int Stackpreis
+ * n x   int DK-Preis
+ * n x   (int Hash, int Eintrag)   Index, sortiert nach String.hashCode der ID
+ * int   Anzahl v der Varianten
+ * v x   (short Länge, UTF-8 ID itemId@hex, int Stückpreis, int Stackpreis, int DK-Preis)
+ * int   CRC32C über alle vorherigen Bytes
+ * </pre>
+ * Die Varianten sind wenige und werden beim Einblenden direkt auf den Heap gelesen.
+ * Version 2 (ohne Variantenblock) wird ebenso eingeblendet, Version 1 (Längen-präfixierte Strings, kein Index) wird weiterhin gelesen und dabei auf den Heap geladen.
+ */
+public final class PriceSnapshotFile {
+
+    private static final int MAGIC = 0x54435053; // "TCPS"
+    private static final int FORMAT_VERSION = 3;
+    private static final int FORMAT_VERSION_V2 = 2;
+    private static final int FORMAT_VERSION_V1 = 1;
+    private static final int HEADER_BYTES_V1 = 4 + 4 + 8 + 8 + 4;
+    private static final int HEADER_BYTES = HEADER_BYTES_V1 + 4;
+    private static final int TRAILER_BYTES = 4;
+
+    private PriceSnapshotFile() {
+    }
+
+    public static void write(Path path, Path tmpPath, PriceSnapshot snapshot) throws IOException {
+        PriceTable table = snapshot.getTable();
+        int count = table.size();
+        byte[][] ids = new byte[count][];
+        int[] rawIds = new int[count];
+        long[] index = new long[count];
+        int blobLength = 0;
+        int n = 0;
+        for (int rawId = 0; rawId < table.capacity() && n < count; rawId++) {
+            if (!table.contains(rawId)) {
+                continue;
+            }
+            // Kanonische ID aus der Registry, damit der Index beim Lesen ohne Normalisierung trifft
+            String itemId = Registries.ITEM.getId(Registries.ITEM.get(rawId)).toString();
+            ids[n] = itemId.getBytes(StandardCharsets.UTF_8);
+            rawIds[n] = rawId;
+            index[n] = ((long) itemId.hashCode() << 32) | n;
+            blobLength += ids[n].length;
+            n++;
+        }
+        if (n != count) {
+            throw new IOException("Preistabelle inkonsistent: " + n + " statt " + count + " Einträge");
+        }
+        Arrays.sort(index);
+
+        VariantPrices variants = table.getVariants();
+        byte[][] variantIds = new byte[variants.size()][];
+        int variantBytes = 4;
+        for (int i = 0; i < variantIds.length; i++) {
+            variantIds[i] = variants.getId(i).getBytes(StandardCharsets.UTF_8);
+            if (variantIds[i].length > 0xFFFF) {
+                throw new IOException("Varianten-ID zu lang: " + variants.getId(i));
+            }
+            variantBytes += 2 + variantIds[i].length + 3 * 4;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + (count + 1) * 4 + blobLength + count * 3 * 4 + count * 8 + variantBytes + TRAILER_BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putLong(snapshot.getVersion());
+        buffer.putLong(snapshot.getFetchedAt());
+        buffer.putInt(count);
+        buffer.putInt(blobLength);
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(offset);
+            offset += ids[i].length;
+        }
+        buffer.putInt(offset);
+        for (int i = 0; i < count; i++) {
+            buffer.put(ids[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(table.getStueckpreis(rawIds[i]));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(table.getStackpreis(rawIds[i]));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(table.getDkpreis(rawIds[i]));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putInt((int) (index[i] >> 32));
+            buffer.putInt((int) index[i]);
+        }
+        buffer.putInt(variantIds.length);
+        for (int i = 0; i < variantIds.length; i++) {
+            buffer.putShort((short) variantIds[i].length);
+            buffer.put(variantIds[i]);
+            buffer.putInt(variants.getStueckpreis(i));
+            buffer.putInt(variants.getStackpreis(i));
+            buffer.putInt(variants.getDkpreis(i));
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Blendet die Datei read-only ein und prüft nur Header und Abschnittsgrenzen. Die Prüfsumme wird nicht gelesen,
+     * dafür gibt es {@link MappedPriceTable#verifyChecksum()}. Dateien im Format v1 werden klassisch gelesen.
+     */
+    public static PriceSnapshot map(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES_V1 + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Ungültige Größe der Preisdatei: " + size + " Bytes");
+            }
+            // Das Mapping bleibt nach dem Schließen des Kanals gültig
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Keine TradeCore-Preisdatei");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion == FORMAT_VERSION_V1) {
+            return read(path);
+        }
+        if ((formatVersion != FORMAT_VERSION && formatVersion != FORMAT_VERSION_V2) || buffer.limit() < HEADER_BYTES + TRAILER_BYTES) {
+            throw new IOException("Nicht unterstützte Formatversion: " + formatVersion);
+        }
+        long version = buffer.getLong(8);
+        long fetchedAt = buffer.getLong(16);
+        int count = buffer.getInt(24);
+        int blobLength = buffer.getInt(28);
+        int payloadLength = buffer.limit() - TRAILER_BYTES;
+        if (count < 0 || blobLength < 0) {
+            throw new IOException("Ungültiger Header der Preisdatei");
+        }
+        long offsetsStart = HEADER_BYTES;
+        long blobStart = offsetsStart + (count + 1L) * 4;
+        long stueckStart = blobStart + blobLength;
+        long indexStart = stueckStart + count * 12L;
+        long variantStart = indexStart + count * 8L;
+        if (formatVersion == FORMAT_VERSION_V2 ? variantStart != payloadLength : variantStart + 4 > payloadLength) {
+            throw new IOException("Preisdatei hat eine ungültige Länge");
+        }
+        if (buffer.getInt((int) blobStart - 4) != blobLength) {
+            throw new IOException("String-Block der Preisdatei ist inkonsistent");
+        }
+        VariantPrices variants = formatVersion == FORMAT_VERSION_V2 ? VariantPrices.EMPTY : readVariants(buffer, (int) variantStart, payloadLength);
+        MappedPriceTable table = new MappedPriceTable(buffer, count, (int) offsetsStart, (int) blobStart, (int) stueckStart, (int) indexStart, payloadLength, variants);
+        return new PriceSnapshot(version, fetchedAt, table);
+    }
+
+    private static VariantPrices readVariants(ByteBuffer buffer, int start, int payloadLength) throws IOException {
+        int variantCount = buffer.getInt(start);
+        if (variantCount < 0 || variantCount > (payloadLength - start - 4) / (2 + 3 * 4)) {
+            throw new IOException("Ungültige Anzahl an Varianten: " + variantCount);
+        }
+        VariantPrices.Builder builder = VariantPrices.builder();
+        int position = start + 4;
+        try {
+            for (int i = 0; i < variantCount; i++) {
+                int length = buffer.getShort(position) & 0xFFFF;
+                byte[] id = new byte[length];
+                buffer.get(position + 2, id);
+                position += 2 + length;
+                builder.put(new String(id, StandardCharsets.UTF_8), buffer.getInt(position + 4), buffer.getInt(position + 8), buffer.getInt(position));
+                position += 3 * 4;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Variantenblock der Preisdatei beschädigt", e);
+        }
+        if (position != payloadLength) {
+            throw new IOException("Preisdatei hat eine ungültige Länge");
+        }
+        return builder.build();
+    }
+
+    // Nur der Zeitstempel aus dem Header, -1 bei unlesbarer Datei; zur Auswahl der neuesten Datei
+    public static long readFetchedAt(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES_V1);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return -1L;
+                }
+            }
+            return header.getInt(0) == MAGIC ? header.getLong(16) : -1L;
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    // Format v1: wird komplett gelesen und geprüft, die Preise landen auf dem Heap
+    private static PriceSnapshot read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES_V1 + TRAILER_BYTES || size > PriceCatalogDecoder.MAX_RESPONSE_BYTES) {
+                throw new IOException("Ungültige Größe der Preisdatei: " + size + " Bytes");
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Preisdatei unerwartet zu Ende");
+                }
+            }
+        }
+        buffer.flip();
+
+        int payloadLength = buffer.limit() - TRAILER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, payloadLength);
+        if ((int) crc.getValue() != buffer.getInt(payloadLength)) {
+            throw new IOException("Prüfsumme der Preisdatei stimmt nicht");
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Keine TradeCore-Preisdatei");
+        }
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION_V1) {
+            throw new IOException("Nicht unterstützte Formatversion: " + formatVersion);
+        }
+        long version = buffer.getLong();
+        long fetchedAt = buffer.getLong();
+        int count = buffer.getInt();
+        if (count < 0 || count > (payloadLength - HEADER_BYTES_V1) / (2 + 3 * 4)) {
+            throw new IOException("Ungültige Eintragsanzahl: " + count);
+        }
+
+        try {
+            String[] ids = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getShort() & 0xFFFF;
+                ids[i] = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+            int stueckOffset = buffer.position();
+            int stackOffset = stueckOffset + count * 4;
+            int dkOffset = stackOffset + count * 4;
+            if (dkOffset + count * 4 != payloadLength) {
+                throw new IOException("Preisdatei hat eine ungültige Länge");
+            }
+            PriceTable.Builder builder = PriceTable.builder();
+            for (int i = 0; i < count; i++) {
+                builder.put(ids[i], buffer.getInt(stackOffset + i * 4), buffer.getInt(dkOffset + i * 4), buffer.getInt(stueckOffset + i * 4));
+            }
+            return new PriceSnapshot(version, fetchedAt, builder.build());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Preisdatei beschädigt", e);
+        }
+    }
+}
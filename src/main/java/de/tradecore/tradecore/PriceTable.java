@@ -0,0 +1,135 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.registry.Registries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unveränderliche Preistabelle für den Tooltip-Hotpath, adressiert über {@code Registries.ITEM.getRawId}.
+ * {@link ArrayPriceTable} hält die Preise auf dem Heap, {@link MappedPriceTable} liest sie lazy aus der
+ * gemappten Preisdatei, {@link PatchedPriceTable} legt Deltas darüber. Leser sehen nur dieses Interface.
+ */
+public interface PriceTable {
+
+    PriceTable EMPTY = new ArrayPriceTable(new String[0], new int[0], new int[0], new int[0], 0);
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static PriceTable fromMap(Map<String, PriceAPIClient.PriceResult> prices) {
+        Builder builder = new Builder();
+        for (Map.Entry<String, PriceAPIClient.PriceResult> entry : prices.entrySet()) {
+            PriceAPIClient.PriceResult price = entry.getValue();
+            if (price != null) {
+                builder.put(entry.getKey(), price.stackpreis, price.dkpreis, price.stueckpreis);
+            }
+        }
+        return builder.build();
+    }
+
+    boolean contains(int rawId);
+
+    int getStueckpreis(int rawId);
+
+    int getStackpreis(int rawId);
+
+    int getDkpreis(int rawId);
+
+    int size();
+
+    // Obergrenze für Raw-IDs dieser Tabelle (zum Iterieren)
+    int capacity();
+
+    String getItemId(int rawId);
+
+    // Kompatibilitätspfad für String-IDs, erzeugt ein neues PriceResult
+    PriceAPIClient.PriceResult get(String itemId);
+
+    // Wendet ein Delta an und liefert eine neue Tabelle; die bisherige bleibt unverändert
+    PriceTable withPatch(PricePatch patch);
+
+    // Preise für Varianten (itemId@hex); nicht in size() und capacity() enthalten
+    VariantPrices getVariants();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default Map<String, PriceAPIClient.PriceResult> toMap() {
+        Map<String, PriceAPIClient.PriceResult> result = new HashMap<>(size() * 2);
+        for (int rawId = 0; rawId < capacity(); rawId++) {
+            if (contains(rawId)) {
+                result.put(getItemId(rawId), new PriceAPIClient.PriceResult(getStackpreis(rawId), getDkpreis(rawId), getStueckpreis(rawId)));
+            }
+        }
+        return result;
+    }
+
+    final class Builder {
+        private final String[] itemIds;
+        private final int[] stueckpreise;
+        private final int[] stackpreise;
+        private final int[] dkpreise;
+        private int size = 0;
+        private int unknownCount = 0;
+        private final List<String> unknownSamples = new ArrayList<>();
+        private final VariantPrices.Builder variants = VariantPrices.builder();
+
+        private Builder() {
+            int capacity = Registries.ITEM.size();
+            this.itemIds = new String[capacity];
+            this.stueckpreise = new int[capacity];
+            this.stackpreise = new int[capacity];
+            this.dkpreise = new int[capacity];
+        }
+
+        public Builder put(String itemId, int stackpreis, int dkpreis, int stueckpreis) {
+            // Varianten (itemId@hex) landen in einer eigenen, sortierten Tabelle
+            if (VariantPrices.isVariantId(itemId)) {
+                if (!variants.put(itemId, stackpreis, dkpreis, stueckpreis)) {
+                    reportUnknown(itemId);
+                }
+                return this;
+            }
+            int rawId = ArrayPriceTable.resolveRawId(itemId);
+            if (rawId < 0 || rawId >= itemIds.length) {
+                reportUnknown(itemId);
+                return this;
+            }
+            if (itemIds[rawId] == null) {
+                size++;
+            }
+            itemIds[rawId] = itemId;
+            stueckpreise[rawId] = stueckpreis;
+            stackpreise[rawId] = stackpreis;
+            dkpreise[rawId] = dkpreis;
+            return this;
+        }
+
+        private void reportUnknown(String itemId) {
+            unknownCount++;
+            if (unknownSamples.size() < ArrayPriceTable.MAX_REPORTED_UNKNOWN_IDS) {
+                unknownSamples.add(itemId);
+            }
+        }
+
+        public PriceTable build() {
+            // Unbekannte IDs werden pro Tabelle genau einmal gemeldet statt bei jedem Tooltip
+            if (unknownCount > 0) {
+                TradeCore.LOGGER.warn("{} Preis-Einträge mit unbekannter Item-ID ignoriert (z.B. {}).", unknownCount, unknownSamples);
+            }
+            return new ArrayPriceTable(
+                    Arrays.copyOf(itemIds, itemIds.length),
+                    Arrays.copyOf(stueckpreise, stueckpreise.length),
+                    Arrays.copyOf(stackpreise, stackpreise.length),
+                    Arrays.copyOf(dkpreise, dkpreise.length),
+                    size,
+                    variants.build());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.registry.Registries;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Beobachtete Items mit Alarmschwelle in Prozent. Unveränderlich; Änderungen erzeugen eine neue Instanz.
+ * In der Konfig als {@code itemId|Prozent} mit Komma getrennt gespeichert, z.B. {@code minecraft:diamond|5}.
+ * Geprüft wird nur gegen einen {@link PriceDiff}, nie gegen den ganzen Katalog.
+ */
+public final class PriceWatchlist {
+
+    public static final PriceWatchlist EMPTY = new PriceWatchlist(Collections.emptyMap());
+    public static final int DEFAULT_THRESHOLD_BASIS_POINTS = 500;
+
+    // itemId -> Schwelle in Basispunkten
+    private final Map<String, Integer> thresholds;
+    // Nach Raw-ID aufgelöst, beim ersten Abgleich gebaut (die Registry ist beim Laden der Konfig evtl. noch nicht fertig)
+    private volatile int[] thresholdsByRawId;
+
+    private PriceWatchlist(Map<String, Integer> thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    public static PriceWatchlist parse(String value) {
+        if (value == null || value.isBlank()) {
+            return EMPTY;
+        }
+        Map<String, Integer> parsed = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf('|');
+            String itemId = separator >= 0 ? trimmed.substring(0, separator).trim() : trimmed;
+            int basisPoints = DEFAULT_THRESHOLD_BASIS_POINTS;
+            if (separator >= 0) {
+                // Ein kaputter Eintrag wird übersprungen, die übrigen bleiben gültig
+                try {
+                    double percent = Double.parseDouble(trimmed.substring(separator + 1).trim());
+                    basisPoints = (int) Math.min(Integer.MAX_VALUE, Math.round(percent * 100));
+                } catch (NumberFormatException e) {
+                    TradeCore.LOGGER.warn("Ungültige Schwelle in der Watchlist ignoriert: {}", trimmed);
+                    continue;
+                }
+            }
+            if (!itemId.isEmpty() && basisPoints > 0) {
+                parsed.put(itemId, basisPoints);
+            }
+        }
+        return parsed.isEmpty() ? EMPTY : new PriceWatchlist(Collections.unmodifiableMap(parsed));
+    }
+
+    public String serialize() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : thresholds.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(entry.getKey()).append('|').append(formatPercent(entry.getValue()));
+        }
+        return builder.toString();
+    }
+
+    // basisPoints <= 0 entfernt das Item
+    public PriceWatchlist withThreshold(String itemId, int basisPoints) {
+        Map<String, Integer> updated = new LinkedHashMap<>(thresholds);
+        if (basisPoints > 0) {
+            updated.put(itemId, basisPoints);
+        } else {
+            updated.remove(itemId);
+        }
+        return updated.isEmpty() ? EMPTY : new PriceWatchlist(Collections.unmodifiableMap(updated));
+    }
+
+    public boolean isEmpty() {
+        return thresholds.isEmpty();
+    }
+
+    public boolean contains(String itemId) {
+        return thresholds.containsKey(itemId);
+    }
+
+    public int getThreshold(String itemId) {
+        return thresholds.getOrDefault(itemId, 0);
+    }
+
+    // 0 = nicht beobachtet
+    public int thresholdFor(int rawId) {
+        int[] byRawId = thresholdsByRawId;
+        if (byRawId == null) {
+            byRawId = new int[Registries.ITEM.size()];
+            for (Map.Entry<String, Integer> entry : thresholds.entrySet()) {
+                int resolved = ArrayPriceTable.resolveRawId(entry.getKey());
+                if (resolved >= 0 && resolved < byRawId.length) {
+                    byRawId[resolved] = entry.getValue();
+                }
+            }
+            thresholdsByRawId = byRawId;
+        }
+        return rawId >= 0 && rawId < byRawId.length ? byRawId[rawId] : 0;
+    }
+
+    public static String formatPercent(int basisPoints) {
+        return basisPoints % 100 == 0
+                ? String.valueOf(basisPoints / 100)
+                : String.format(Locale.ROOT, "%.2f", basisPoints / 100.0);
+    }
+}
@@ -0,0 +1,145 @@
+package de.tradecore.tradecore;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Verteilt API-Anfragen auf zwei Prioritätsklassen mit eigener Parallelitätsgrenze.
+ * Interaktive Anfragen (Buttons in den Screens) starten sofort, solange ein Slot frei ist;
+ * Hintergrundarbeit (Katalog-Refresh) startet nur, wenn keine interaktive Anfrage wartet.
+ * Ein Slot bleibt belegt, bis das Future der Anfrage abgeschlossen ist.
+ */
+public final class RequestScheduler {
+
+    public enum Lane {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private final Object lock = new Object();
+    private final LaneState interactive;
+    private final LaneState background;
+
+    public RequestScheduler(int interactiveLimit, int backgroundLimit) {
+        this.interactive = new LaneState(interactiveLimit);
+        this.background = new LaneState(backgroundLimit);
+    }
+
+    public <T> CompletableFuture<T> submit(Lane lane, Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Pending pending = new Pending(System.nanoTime(), () -> {
+            CompletableFuture<T> started;
+            try {
+                started = task.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            return started.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        synchronized (lock) {
+            state(lane).queue.addLast(pending);
+        }
+        drain();
+        return result;
+    }
+
+    private void drain() {
+        while (true) {
+            Pending next;
+            LaneState owner;
+            synchronized (lock) {
+                if (interactive.active < interactive.limit && !interactive.queue.isEmpty()) {
+                    owner = interactive;
+                } else if (interactive.queue.isEmpty() && background.active < background.limit && !background.queue.isEmpty()) {
+                    // Hintergrundarbeit weicht, solange interaktive Anfragen warten
+                    owner = background;
+                } else {
+                    return;
+                }
+                next = owner.queue.pollFirst();
+                owner.active++;
+                owner.recordWait(System.nanoTime() - next.enqueuedAt);
+            }
+            // Außerhalb des Locks starten, damit synchron fertige Futures nicht im Lock weiterlaufen
+            next.start.get().whenComplete((value, error) -> {
+                synchronized (lock) {
+                    owner.active--;
+                }
+                drain();
+            });
+        }
+    }
+
+    private LaneState state(Lane lane) {
+        return lane == Lane.INTERACTIVE ? interactive : background;
+    }
+
+    public int getQueueDepth(Lane lane) {
+        synchronized (lock) {
+            return state(lane).queue.size();
+        }
+    }
+
+    public int getActiveCount(Lane lane) {
+        synchronized (lock) {
+            return state(lane).active;
+        }
+    }
+
+    public long getStartedCount(Lane lane) {
+        synchronized (lock) {
+            return state(lane).started;
+        }
+    }
+
+    public long getAverageWaitMillis(Lane lane) {
+        synchronized (lock) {
+            LaneState s = state(lane);
+            return s.started == 0 ? 0L : s.totalWaitNanos / s.started / 1_000_000L;
+        }
+    }
+
+    public long getMaxWaitMillis(Lane lane) {
+        synchronized (lock) {
+            return state(lane).maxWaitNanos / 1_000_000L;
+        }
+    }
+
+    private static final class Pending {
+        final long enqueuedAt;
+        final Supplier<CompletableFuture<?>> start;
+
+        Pending(long enqueuedAt, Supplier<CompletableFuture<?>> start) {
+            this.enqueuedAt = enqueuedAt;
+            this.start = start;
+        }
+    }
+
+    private static final class LaneState {
+        final int limit;
+        final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        int active = 0;
+        long started = 0;
+        long totalWaitNanos = 0;
+        long maxWaitNanos = 0;
+
+        LaneState(int limit) {
+            this.limit = Math.max(1, limit);
+        }
+
+        void recordWait(long waitNanos) {
+            started++;
+            totalWaitNanos += waitNanos;
+            if (waitNanos > maxWaitNanos) {
+                maxWaitNanos = waitNanos;
+            }
+        }
+    }
+}
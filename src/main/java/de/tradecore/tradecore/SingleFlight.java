@@ -0,0 +1,54 @@
+package de.tradecore.tradecore;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fasst gleichzeitige, identische Anfragen zusammen: Solange für einen Schlüssel (Endpunkt + Parameter)
+ * eine Anfrage läuft, bekommen weitere Aufrufer deren Ergebnis statt eines eigenen Roundtrips.
+ * Nur für idempotente GETs gedacht.
+ */
+public final class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executedCount = new AtomicLong(0);
+    private final AtomicLong coalescedCount = new AtomicLong(0);
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> run(String key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            // Kopie, damit kein Aufrufer das gemeinsame Future für alle abschließen kann
+            return ((CompletableFuture<T>) existing).copy();
+        }
+        executedCount.incrementAndGet();
+        CompletableFuture<T> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            // Erst austragen, dann abschließen: spätere Aufrufer starten eine neue Anfrage
+            inFlight.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(value);
+            }
+        });
+        return shared.copy();
+    }
+
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+}
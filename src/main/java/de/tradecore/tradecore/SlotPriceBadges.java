@@ -0,0 +1,137 @@
+package de.tradecore.tradecore;
+
+import de.tradecore.tradecore.mixin.HandledScreenAccessor;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.GenericContainerScreen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.client.gui.screen.ingame.MerchantScreen;
+import net.minecraft.client.gui.screen.ingame.ShulkerBoxScreen;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.slot.Slot;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kleine Preis-Badges auf jedem Slot von Truhen, Shulkerkisten und Händlern.
+ * Die Werte kommen aus dem gemeinsamen {@link SlotValueTracker} des Handlers, den auch {@link InventoryValueOverlay}
+ * nutzt. Text und Breite eines Badges werden nur neu berechnet, wenn sich der Wert eines Slots ändert; pro Frame gibt
+ * es weder {@code getWidth} noch Formatierung. Gezeichnet wird nach dem Screen in
+ * einem Durchlauf mit einer gemeinsamen Transformation (halbe Schriftgröße, über den Items und unter dem Tooltip).
+ * Nur für den Render-Thread gedacht.
+ */
+public final class SlotPriceBadges {
+
+    private static final int BADGE_COLOR = 0xFFFFFF55;
+    // Über Items und Stackanzahl (z = 200), unter dem Tooltip (z = 400)
+    private static final float BADGE_Z = 300.0f;
+    private static final float BADGE_SCALE = 0.5f;
+
+    private static ScreenHandler cachedHandler = null;
+    // Wert, zu dem Text und Breite berechnet wurden
+    private static long[] shownValues = new long[0];
+    // null = kein Badge für diesen Slot
+    private static String[] labels = new String[0];
+    private static int[] widths = new int[0];
+
+    private SlotPriceBadges() {
+    }
+
+    public static void register() {
+        ScreenEvents.AFTER_INIT.register((client, screen, scaledWidth, scaledHeight) -> {
+            if (screen instanceof GenericContainerScreen || screen instanceof ShulkerBoxScreen || screen instanceof MerchantScreen) {
+                HandledScreen<?> handledScreen = (HandledScreen<?>) screen;
+                ScreenEvents.afterRender(screen).register((currentScreen, context, mouseX, mouseY, tickDelta) -> render(client, handledScreen, context));
+            }
+        });
+    }
+
+    private static void render(MinecraftClient client, HandledScreen<?> screen, DrawContext context) {
+        if (!TradeCoreConfig.modEnabled || !TradeCoreConfig.showSlotBadges || TradeCore.apiClient == null || !TradeCore.apiClient.isReady()
+                || (TradeCoreConfig.showPricesOnlyOnShift && !Screen.hasShiftDown())) {
+            return;
+        }
+        ScreenHandler handler = screen.getScreenHandler();
+        List<Slot> slots = handler.slots;
+        SlotValueTracker values = SlotValueTracker.forHandler(handler, client.player.getInventory(), TradeCore.apiClient.getSnapshot());
+        if (handler != cachedHandler || shownValues.length != slots.size()) {
+            reset(handler, slots.size());
+        }
+        TextRenderer textRenderer = client.textRenderer;
+        for (int i = 0; i < slots.size(); i++) {
+            long value = values.getValue(i);
+            if (value != shownValues[i]) {
+                updateBadge(i, value, textRenderer);
+            }
+        }
+
+        HandledScreenAccessor accessor = (HandledScreenAccessor) screen;
+        MatrixStack matrices = context.getMatrices();
+        matrices.push();
+        matrices.translate(accessor.tradecore$getX(), accessor.tradecore$getY(), BADGE_Z);
+        matrices.scale(BADGE_SCALE, BADGE_SCALE, 1.0f);
+        for (int i = 0; i < slots.size(); i++) {
+            String label = labels[i];
+            if (label == null) {
+                continue;
+            }
+            Slot slot = slots.get(i);
+            if (!slot.isEnabled()) {
+                continue;
+            }
+            // Oben rechts im Slot; unten rechts steht die Stackanzahl
+            int x = (int) ((slot.x + 16) / BADGE_SCALE) - widths[i];
+            int y = (int) (slot.y / BADGE_SCALE);
+            context.drawText(textRenderer, label, x, y, BADGE_COLOR, true);
+        }
+        matrices.pop();
+    }
+
+    private static void reset(ScreenHandler handler, int size) {
+        cachedHandler = handler;
+        shownValues = new long[size];
+        labels = new String[size];
+        widths = new int[size];
+    }
+
+    private static void updateBadge(int index, long value, TextRenderer textRenderer) {
+        shownValues[index] = value;
+        if (value <= 0) {
+            labels[index] = null;
+            widths[index] = 0;
+            return;
+        }
+        String label = formatCompact(value);
+        labels[index] = label;
+        widths[index] = textRenderer.getWidth(label);
+    }
+
+    // Höchstens vier Zeichen, damit das Badge in einen Slot passt: 950, 1.2k, 35k, 4.5M; ab 1000T bleibt es bei 999T
+    static String formatCompact(long value) {
+        if (value < 1_000L) {
+            return Long.toString(value);
+        }
+        if (value < 1_000_000L) {
+            return scaled(value, 1_000L, "k");
+        }
+        if (value < 1_000_000_000L) {
+            return scaled(value, 1_000_000L, "M");
+        }
+        if (value < 1_000_000_000_000L) {
+            return scaled(value, 1_000_000_000L, "B");
+        }
+        return scaled(Math.min(value, 999_999_999_999_999L), 1_000_000_000_000L, "T");
+    }
+
+    private static String scaled(long value, long unit, String suffix) {
+        double scaledValue = (double) value / unit;
+        return scaledValue < 10
+                ? String.format(Locale.ROOT, "%.1f", Math.floor(scaledValue * 10) / 10) + suffix
+                : (value / unit) + suffix;
+    }
+}
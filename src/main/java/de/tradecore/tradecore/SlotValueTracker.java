@@ -0,0 +1,113 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.slot.Slot;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wert pro Slot mit laufender Summe. Neu bewertet wird ein Slot nur, wenn sich Stack-Instanz, Anzahl oder eine der
+ * bewerteten Komponenten geändert hat; die Summe wird um die Differenz angepasst.
+ * <p>
+ * Für den geöffneten Screen-Handler gibt es genau einen Tracker ({@link #forHandler}), den sich
+ * {@link InventoryValueOverlay} und {@link SlotPriceBadges} teilen; jeder Slot wird also pro Änderung nur einmal
+ * bewertet, egal wie viele Anzeigen ihn lesen. Nur für den Client-Thread gedacht.
+ */
+final class SlotValueTracker {
+
+    private static final SlotValueTracker HANDLER = new SlotValueTracker();
+    private static ScreenHandler trackedHandler = null;
+    private static PriceSnapshot trackedSnapshot = null;
+
+    private ItemStack[] stacks = new ItemStack[0];
+    private int[] counts = new int[0];
+    private int[] maxCounts = new int[0];
+    private long[] variantKeys = new long[0];
+    private Object[] contents = new Object[0];
+    private long[] values = new long[0];
+    // Nur diese Slots gehen in die Summe ein
+    private boolean[] counted = new boolean[0];
+    private long total = 0L;
+
+    /**
+     * Tracker über alle Slots des Handlers (Index = Slot-Index), auf den aktuellen Stand gebracht. Die Summe enthält nur
+     * Slots außerhalb des Spielerinventars, also den Containerinhalt.
+     */
+    static SlotValueTracker forHandler(ScreenHandler handler, PlayerInventory playerInventory, PriceSnapshot snapshot) {
+        List<Slot> slots = handler.slots;
+        if (handler != trackedHandler || snapshot != trackedSnapshot || HANDLER.size() != slots.size()) {
+            HANDLER.resize(slots.size());
+            HANDLER.clear();
+            trackedHandler = handler;
+            trackedSnapshot = snapshot;
+        }
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            HANDLER.update(i, slot.getStack(), snapshot, slot.inventory != playerInventory);
+        }
+        return HANDLER;
+    }
+
+    int size() {
+        return stacks.length;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    long getValue(int index) {
+        return values[index];
+    }
+
+    void resize(int size) {
+        if (stacks.length != size) {
+            stacks = new ItemStack[size];
+            counts = new int[size];
+            maxCounts = new int[size];
+            variantKeys = new long[size];
+            contents = new Object[size];
+            values = new long[size];
+            counted = new boolean[size];
+            total = 0L;
+        }
+    }
+
+    // Nach dem Leeren wird jeder Slot beim nächsten update neu bewertet
+    void clear() {
+        Arrays.fill(stacks, null);
+        Arrays.fill(contents, null);
+        Arrays.fill(values, 0L);
+        Arrays.fill(counted, false);
+        total = 0L;
+    }
+
+    void update(int index, ItemStack stack, PriceSnapshot snapshot) {
+        update(index, stack, snapshot, true);
+    }
+
+    private void update(int index, ItemStack stack, PriceSnapshot snapshot, boolean countInTotal) {
+        // Komponenten lassen sich am selben Stack ändern, die Komponenten-Map behält dabei ihre Identität.
+        // Verglichen werden daher die Komponentenwerte, aus denen sich der Wert ergibt; sie sind unveränderlich.
+        int count = stack.getCount();
+        int maxCount = stack.getMaxCount();
+        long variantKey = ItemVariantKey.of(stack);
+        Object stackContents = ItemValuation.contentsComponent(stack);
+        if (stacks[index] == stack && counts[index] == count && maxCounts[index] == maxCount
+                && variantKeys[index] == variantKey && contents[index] == stackContents && counted[index] == countInTotal) {
+            return;
+        }
+        long value = stack.isEmpty() ? 0L : ItemValuation.stackValue(snapshot, stack);
+        total += (countInTotal ? value : 0L) - (counted[index] ? values[index] : 0L);
+        values[index] = value;
+        counted[index] = countInTotal;
+        stacks[index] = stack;
+        counts[index] = count;
+        maxCounts[index] = maxCount;
+        variantKeys[index] = variantKey;
+        contents[index] = stackContents;
+    }
+}
@@ -0,0 +1,75 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+
+/**
+ * Fertig gebaute Preiszeilen für den Tooltip, je Preiseintrag (Raw-ID bzw. Variante) einmal pro Snapshot erzeugt.
+ * Wechselt der Snapshot (neue Version oder neue Tabelle), wird der gesamte Cache auf einmal verworfen; danach
+ * entstehen Zeilen erst wieder beim ersten Hover. Ein Treffer ist ein Array-Zugriff ohne Allokation.
+ * Nur für den Render-Thread gedacht.
+ */
+public final class TooltipLineCache {
+
+    static final Text UNKNOWN_LINE = Text.literal("Preis: Unbekannt").formatted(Formatting.GRAY);
+    private static final Text[] UNKNOWN_LINES = {UNKNOWN_LINE};
+
+    private long version = -1L;
+    private PriceTable table = null;
+    private Text[][] baseLines = new Text[0][];
+    private Text[][] variantLines = new Text[0][];
+
+    /**
+     * Zeilen für einen Eintrag; {@code variantIndex} ist der Index in {@link PriceTable#getVariants()} oder -1.
+     * Die zurückgegebenen Texte dürfen nicht verändert werden.
+     */
+    public Text[] get(PriceSnapshot snapshot, int rawId, int variantIndex) {
+        PriceTable current = snapshot.getTable();
+        if (snapshot.getVersion() != version || current != table) {
+            invalidate(snapshot);
+        }
+        if (variantIndex >= 0) {
+            Text[] lines = variantLines[variantIndex];
+            if (lines == null) {
+                VariantPrices variants = current.getVariants();
+                lines = buildLines(variants.getStueckpreis(variantIndex), variants.getStackpreis(variantIndex), variants.getDkpreis(variantIndex));
+                variantLines[variantIndex] = lines;
+            }
+            return lines;
+        }
+        if (rawId < 0 || rawId >= baseLines.length) {
+            return UNKNOWN_LINES;
+        }
+        Text[] lines = baseLines[rawId];
+        if (lines == null) {
+            lines = current.contains(rawId)
+                    ? buildLines(current.getStueckpreis(rawId), current.getStackpreis(rawId), current.getDkpreis(rawId))
+                    : UNKNOWN_LINES;
+            baseLines[rawId] = lines;
+        }
+        return lines;
+    }
+
+    private void invalidate(PriceSnapshot snapshot) {
+        version = snapshot.getVersion();
+        table = snapshot.getTable();
+        baseLines = new Text[table.capacity()][];
+        variantLines = new Text[table.getVariants().size()][];
+    }
+
+    private static Text[] buildLines(int stueckpreis, int stackpreis, int dkpreis) {
+        int count = (stueckpreis > 0 ? 1 : 0) + (stackpreis > 0 ? 1 : 0) + (dkpreis > 0 ? 1 : 0);
+        Text[] lines = new Text[count];
+        int n = 0;
+        if (stueckpreis > 0) {
+            lines[n++] = Text.literal("Stückpreis: " + stueckpreis + "$").formatted(Formatting.GREEN);
+        }
+        if (stackpreis > 0) {
+            lines[n++] = Text.literal("Stackpreis: " + stackpreis + "$").formatted(Formatting.GREEN);
+        }
+        if (dkpreis > 0) {
+            lines[n] = Text.literal("DK-Preis: " + dkpreis + "$").formatted(Formatting.GREEN);
+        }
+        return lines;
+    }
+}
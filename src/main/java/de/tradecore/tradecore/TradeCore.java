@@ -6,6 +6,9 @@ import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 public class TradeCore implements ModInitializer {
     public static final String MOD_ID = "tradecore";
     public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
@@ -16,21 +19,40 @@ public class TradeCore implements ModInitializer {
 
     @Override
     public void onInitialize() {
+        long initStart = System.nanoTime();
         LOGGER.info("TradeCore Mod wird initialisiert...");
 
-        // Lade Konfiguration direkt
-        TradeCoreConfig.loadConfig();
+        // Konfiguration und Preisdatei werden parallel im Hintergrund geladen, der Spielstart wartet nicht darauf
+        CompletableFuture<Void> configLoaded = CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            TradeCoreConfig.loadConfig();
+            LOGGER.info("Startphase Konfiguration: {} ms", elapsedMillis(start));
+            TradeCoreConfig.startWatching();
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "TradeCore-Startup");
+            thread.setDaemon(true);
+            thread.start();
+        });
 
         // Initialisiere API-Client direkt
         // WICHTIG: Muss vor der Command-Registrierung erfolgen, falls der Command den apiClient benötigt
+        long clientStart = System.nanoTime();
         apiClient = new PriceAPIClient();
+        LOGGER.info("Startphase API-Client: {} ms", elapsedMillis(clientStart));
 
-        // Lade vorhandene Preise aus lokaler Datei
-        apiClient.loadPricesFromDisk();
+        // Lade vorhandene Preise aus lokaler Datei (Warm-Cache); bis dahin zeigen Tooltips "Preise laden…"
+        long pricesStart = System.nanoTime();
+        CompletableFuture<Void> pricesLoaded = apiClient.loadPricesFromDiskAsync()
+                .thenRun(() -> LOGGER.info("Startphase Preisdatei: {} ms", elapsedMillis(pricesStart)));
 
-        // Starte den initialen Preisabruf direkt
-        LOGGER.info("Starte initialen Preisabruf...");
-        apiClient.fetchAllPricesAsync();
+        // Initialer Preisabruf erst mit geladener Konfiguration (TTL, Retries) und bekanntem Cache-Stand
+        CompletableFuture.allOf(configLoaded, pricesLoaded).whenComplete((v, e) -> {
+            if (e != null) {
+                LOGGER.error("Fehler beim Laden im Hintergrund: ", e);
+            }
+            LOGGER.info("TradeCore bereit nach {} ms. Starte initialen Preisabruf...", elapsedMillis(initStart));
+            apiClient.fetchAllPricesAsync();
+        });
 
         // Registriere Shutdown-Hooks direkt
         registerShutdownHooks();
@@ -41,12 +63,17 @@ public class TradeCore implements ModInitializer {
             LOGGER.info("TradeCore Befehle registriert.");
         });
 
-        LOGGER.info("TradeCore Initialisierung abgeschlossen.");
+        LOGGER.info("TradeCore Initialisierung abgeschlossen ({} ms auf dem Hauptthread).", elapsedMillis(initStart));
         // Kein proceedWithInitialization mehr nötig
         // ClientTooltipHandler registriert sich selbst via Entrypoint
     }
 
 
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+
     // Methode zur Registrierung der Hooks (unverändert zur letzten Version)
     private static void registerShutdownHooks() {
         if (shuttingDown) return;
@@ -59,14 +86,15 @@ public class TradeCore implements ModInitializer {
     // Cleanup-Methode (unverändert zur letzten Version)
     private static synchronized void cleanupResources(String trigger, boolean fullShutdown) {
         LOGGER.info("Starte TradeCore Cleanup (Auslöser: {}, Full Shutdown: {})...", trigger, fullShutdown);
+        // Noch nicht geschriebene Einstellungen nicht verlieren
+        TradeCoreConfig.flushPendingChanges();
         if (apiClient != null) {
             LOGGER.info("Fahre Executor herunter...");
             apiClient.shutdown(); // Prüft intern
             if (fullShutdown) {
                 if (!shuttingDown) {
                     shuttingDown = true;
-                    LOGGER.info("Lösche Preisdatei...");
-                    apiClient.deletePriceFile();
+                    // Preisdatei bleibt als Warm-Cache für den nächsten Start erhalten
                     LOGGER.info("TradeCore vollständiger Shutdown abgeschlossen.");
                 }
             } else { LOGGER.info("Partieller Cleanup abgeschlossen."); }
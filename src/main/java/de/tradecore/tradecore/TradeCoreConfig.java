@@ -2,9 +2,25 @@ package de.tradecore.tradecore;
 
 import net.fabricmc.loader.api.FabricLoader;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class TradeCoreConfig {
 
@@ -13,11 +29,54 @@ public class TradeCoreConfig {
     private static final String LAST_FETCH_TIMESTAMP_KEY = "lastManualFetchTimestamp";
     private static final String MOD_ENABLED_KEY = "modEnabled";
     private static final String TUTORIAL_SHOWN_KEY = "tutorialShown";
+    private static final String API_MAX_RETRIES_KEY = "apiMaxRetries";
+    private static final String API_RETRY_BASE_DELAY_KEY = "apiRetryBaseDelayMillis";
+    private static final String API_RETRY_MAX_DELAY_KEY = "apiRetryMaxDelayMillis";
+    private static final String PRICE_CACHE_TTL_KEY = "priceCacheTtlHours";
+    private static final String WATCHLIST_KEY = "watchlist";
+    private static final String SHOW_INVENTORY_VALUE_KEY = "showInventoryValue";
+    private static final String SHOW_SLOT_BADGES_KEY = "showSlotBadges";
+    private static final Path CONFIG_TMP_PATH = FabricLoader.getInstance().getConfigDir().resolve(TradeCore.MOD_ID + ".properties.tmp");
+    private static final String[] ALL_KEYS = {SHOW_ON_SHIFT_KEY, LAST_FETCH_TIMESTAMP_KEY, MOD_ENABLED_KEY, TUTORIAL_SHOWN_KEY,
+            API_MAX_RETRIES_KEY, API_RETRY_BASE_DELAY_KEY, API_RETRY_MAX_DELAY_KEY, PRICE_CACHE_TTL_KEY, WATCHLIST_KEY,
+            SHOW_INVENTORY_VALUE_KEY, SHOW_SLOT_BADGES_KEY};
 
-    public static boolean showPricesOnlyOnShift = false;
-    public static long lastManualFetchTimestamp = 0L;
-    public static boolean modEnabled = true;
-    public static boolean tutorialShown = false;
+    // Änderungen werden gesammelt und erst nach diesem Fenster im Hintergrund geschrieben, nie auf dem Render-Thread
+    private static final long SAVE_DEBOUNCE_MILLIS = 500L;
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "TradeCore-Config-Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Stand der Datei im Speicher: Speichern muss die Datei nicht erneut lesen, fremde Schlüssel bleiben trotzdem erhalten
+    private static final Properties fileProperties = new Properties();
+    // Geschützt durch TradeCoreConfig.class
+    private static final Set<String> dirtyKeys = new LinkedHashSet<>();
+    private static ScheduledFuture<?> pendingFlush = null;
+    // Hält Schreibvorgänge in Reihenfolge (Writer-Thread vs. Shutdown)
+    private static final Object WRITE_LOCK = new Object();
+
+    // Externe Änderungen (z.B. durch Launcher) werden zur Laufzeit übernommen; Editoren schreiben oft in mehreren Schritten
+    private static final long RELOAD_SETTLE_MILLIS = 200L;
+    private static Thread watcherThread = null;
+
+    // volatile: Änderungen aus dem Datei-Watcher werden ohne Lock sichtbar, Leser zahlen nur einen normalen Feldzugriff
+    public static volatile boolean showPricesOnlyOnShift = false;
+    public static volatile long lastManualFetchTimestamp = 0L;
+    public static volatile boolean modEnabled = true;
+    public static volatile boolean tutorialShown = false;
+    // Wiederholungen nur für idempotente GETs (Preise, BdT, Level)
+    public static volatile int apiMaxRetries = 2;
+    public static volatile long apiRetryBaseDelayMillis = 500L;
+    public static volatile long apiRetryMaxDelayMillis = 8000L;
+    // Gültigkeit des lokalen Preis-Caches, falls der Server kein max-age mitschickt
+    public static volatile long priceCacheTtlHours = 6L;
+    // Beobachtete Items mit Alarmschwelle, siehe PriceWatchlist
+    public static volatile PriceWatchlist watchlist = PriceWatchlist.EMPTY;
+    // Wertanzeige für Inventar und geöffneten Container
+    public static volatile boolean showInventoryValue = false;
+    // Preis-Badges auf den Slots von Truhen, Shulkerkisten und Händlern
+    public static volatile boolean showSlotBadges = false;
 
     public static void loadConfig() {
         Properties props = new Properties();
@@ -25,12 +84,25 @@ public class TradeCoreConfig {
         long lastFetchDefault = 0L;
         boolean modEnabledDefault = true;
         boolean tutorialShownDefault = false;
+        int maxRetriesDefault = 2;
+        long retryBaseDelayDefault = 500L;
+        long retryMaxDelayDefault = 8000L;
+        long cacheTtlDefault = 6L;
+        boolean showInventoryValueDefault = false;
+        boolean showSlotBadgesDefault = false;
 
         // Setze Standardwerte vor dem Laden
         showPricesOnlyOnShift = showOnShiftDefault;
         lastManualFetchTimestamp = lastFetchDefault;
         modEnabled = modEnabledDefault;
         tutorialShown = tutorialShownDefault;
+        apiMaxRetries = maxRetriesDefault;
+        apiRetryBaseDelayMillis = retryBaseDelayDefault;
+        apiRetryMaxDelayMillis = retryMaxDelayDefault;
+        priceCacheTtlHours = cacheTtlDefault;
+        watchlist = PriceWatchlist.EMPTY;
+        showInventoryValue = showInventoryValueDefault;
+        showSlotBadges = showSlotBadgesDefault;
 
         if (Files.exists(CONFIG_PATH)) {
             try (var inputStream = Files.newInputStream(CONFIG_PATH)) {
@@ -44,6 +116,34 @@ public class TradeCoreConfig {
                 }
                 modEnabled = Boolean.parseBoolean(props.getProperty(MOD_ENABLED_KEY, String.valueOf(modEnabledDefault)));
                 tutorialShown = Boolean.parseBoolean(props.getProperty(TUTORIAL_SHOWN_KEY, String.valueOf(tutorialShownDefault)));
+                showInventoryValue = Boolean.parseBoolean(props.getProperty(SHOW_INVENTORY_VALUE_KEY, String.valueOf(showInventoryValueDefault)));
+                showSlotBadges = Boolean.parseBoolean(props.getProperty(SHOW_SLOT_BADGES_KEY, String.valueOf(showSlotBadgesDefault)));
+                try {
+                    apiMaxRetries = Math.max(0, Integer.parseInt(props.getProperty(API_MAX_RETRIES_KEY, String.valueOf(maxRetriesDefault))));
+                    apiRetryBaseDelayMillis = Math.max(0L, Long.parseLong(props.getProperty(API_RETRY_BASE_DELAY_KEY, String.valueOf(retryBaseDelayDefault))));
+                    apiRetryMaxDelayMillis = Math.max(apiRetryBaseDelayMillis, Long.parseLong(props.getProperty(API_RETRY_MAX_DELAY_KEY, String.valueOf(retryMaxDelayDefault))));
+                } catch (NumberFormatException e) {
+                    TradeCore.LOGGER.warn("Ungültige Retry-Einstellungen in {}. Verwende Defaults.", CONFIG_PATH.getFileName());
+                    apiMaxRetries = maxRetriesDefault;
+                    apiRetryBaseDelayMillis = retryBaseDelayDefault;
+                    apiRetryMaxDelayMillis = retryMaxDelayDefault;
+                }
+                try {
+                    priceCacheTtlHours = Math.max(0L, Long.parseLong(props.getProperty(PRICE_CACHE_TTL_KEY, String.valueOf(cacheTtlDefault))));
+                } catch (NumberFormatException e) {
+                    TradeCore.LOGGER.warn("Ungültiger Wert für '{}' in {}. Verwende {}.", PRICE_CACHE_TTL_KEY, CONFIG_PATH.getFileName(), cacheTtlDefault);
+                    priceCacheTtlHours = cacheTtlDefault;
+                }
+                try {
+                    watchlist = PriceWatchlist.parse(props.getProperty(WATCHLIST_KEY, ""));
+                } catch (NumberFormatException e) {
+                    TradeCore.LOGGER.warn("Ungültiger Wert für '{}' in {}. Beobachtungsliste ist leer.", WATCHLIST_KEY, CONFIG_PATH.getFileName());
+                    watchlist = PriceWatchlist.EMPTY;
+                }
+                synchronized (TradeCoreConfig.class) {
+                    fileProperties.clear();
+                    fileProperties.putAll(props);
+                }
                 TradeCore.LOGGER.info("Konfiguration geladen: shift={}, lastFetch={}, modEnabled={}, tutorialShown={}", showPricesOnlyOnShift, lastManualFetchTimestamp, modEnabled, tutorialShown);
             } catch (IOException | IllegalArgumentException e) {
                 TradeCore.LOGGER.error("Fehler beim Laden der Konfig {}, verwende Defaults.", CONFIG_PATH.getFileName(), e);
@@ -52,6 +152,13 @@ public class TradeCoreConfig {
                 lastManualFetchTimestamp = lastFetchDefault;
                 modEnabled = modEnabledDefault;
                 tutorialShown = tutorialShownDefault;
+                apiMaxRetries = maxRetriesDefault;
+                apiRetryBaseDelayMillis = retryBaseDelayDefault;
+                apiRetryMaxDelayMillis = retryMaxDelayDefault;
+                priceCacheTtlHours = cacheTtlDefault;
+                watchlist = PriceWatchlist.EMPTY;
+                showInventoryValue = showInventoryValueDefault;
+                showSlotBadges = showSlotBadgesDefault;
             }
         } else {
             TradeCore.LOGGER.info("Konfig {} nicht gefunden, erstelle Defaults.", CONFIG_PATH.getFileName());
@@ -59,52 +166,267 @@ public class TradeCoreConfig {
             props.setProperty(LAST_FETCH_TIMESTAMP_KEY, String.valueOf(lastFetchDefault));
             props.setProperty(MOD_ENABLED_KEY, String.valueOf(modEnabledDefault));
             props.setProperty(TUTORIAL_SHOWN_KEY, String.valueOf(tutorialShownDefault));
-            saveConfigInternal(props);
+            props.setProperty(API_MAX_RETRIES_KEY, String.valueOf(maxRetriesDefault));
+            props.setProperty(API_RETRY_BASE_DELAY_KEY, String.valueOf(retryBaseDelayDefault));
+            props.setProperty(API_RETRY_MAX_DELAY_KEY, String.valueOf(retryMaxDelayDefault));
+            props.setProperty(PRICE_CACHE_TTL_KEY, String.valueOf(cacheTtlDefault));
+            props.setProperty(WATCHLIST_KEY, "");
+            props.setProperty(SHOW_INVENTORY_VALUE_KEY, String.valueOf(showInventoryValueDefault));
+            props.setProperty(SHOW_SLOT_BADGES_KEY, String.valueOf(showSlotBadgesDefault));
+            synchronized (TradeCoreConfig.class) {
+                fileProperties.putAll(props);
+            }
+            writeConfigFile(props);
         }
     }
 
-    public static synchronized void saveConfig() {
-        Properties props = new Properties();
-        // Lade bestehende Properties, um andere Einstellungen nicht zu überschreiben, falls vorhanden
-        if (Files.exists(CONFIG_PATH)) {
-            try (var inputStream = Files.newInputStream(CONFIG_PATH)) {
-                props.load(inputStream);
-            } catch (IOException e) {
-                TradeCore.LOGGER.error("Konfig lesen vor Speichern fehlgeschlagen: ", e);
+    // Merkt alle Einstellungen zum Speichern vor; kehrt sofort zurück
+    public static void saveConfig() {
+        markDirty(ALL_KEYS);
+    }
+
+    // Schreibt vorgemerkte Änderungen sofort, z.B. beim Beenden
+    public static void flushPendingChanges() {
+        synchronized (TradeCoreConfig.class) {
+            if (pendingFlush != null) {
+                pendingFlush.cancel(false);
             }
         }
-        props.setProperty(SHOW_ON_SHIFT_KEY, String.valueOf(showPricesOnlyOnShift));
-        props.setProperty(LAST_FETCH_TIMESTAMP_KEY, String.valueOf(lastManualFetchTimestamp));
-        props.setProperty(MOD_ENABLED_KEY, String.valueOf(modEnabled));
-        props.setProperty(TUTORIAL_SHOWN_KEY, String.valueOf(tutorialShown));
-        saveConfigInternal(props);
+        flush();
     }
 
-    private static synchronized void saveConfigInternal(Properties props) {
-        try (var outputStream = Files.newOutputStream(CONFIG_PATH)) {
-            props.store(outputStream, "TradeCore Mod Konfiguration");
+    private static synchronized void markDirty(String... keys) {
+        Collections.addAll(dirtyKeys, keys);
+        // Das Fenster beginnt mit der ersten Änderung, damit Dauer-Klicken das Speichern nicht endlos verschiebt
+        if (pendingFlush == null) {
+            pendingFlush = writer.schedule(TradeCoreConfig::flush, SAVE_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void flush() {
+        synchronized (WRITE_LOCK) {
+            Properties props;
+            synchronized (TradeCoreConfig.class) {
+                pendingFlush = null;
+                if (dirtyKeys.isEmpty()) {
+                    return;
+                }
+                for (String key : dirtyKeys) {
+                    fileProperties.setProperty(key, currentValue(key));
+                }
+                dirtyKeys.clear();
+                props = (Properties) fileProperties.clone();
+            }
+            writeConfigFile(props);
+        }
+    }
+
+    private static String currentValue(String key) {
+        return switch (key) {
+            case SHOW_ON_SHIFT_KEY -> String.valueOf(showPricesOnlyOnShift);
+            case LAST_FETCH_TIMESTAMP_KEY -> String.valueOf(lastManualFetchTimestamp);
+            case MOD_ENABLED_KEY -> String.valueOf(modEnabled);
+            case TUTORIAL_SHOWN_KEY -> String.valueOf(tutorialShown);
+            case API_MAX_RETRIES_KEY -> String.valueOf(apiMaxRetries);
+            case API_RETRY_BASE_DELAY_KEY -> String.valueOf(apiRetryBaseDelayMillis);
+            case API_RETRY_MAX_DELAY_KEY -> String.valueOf(apiRetryMaxDelayMillis);
+            case PRICE_CACHE_TTL_KEY -> String.valueOf(priceCacheTtlHours);
+            case WATCHLIST_KEY -> watchlist.serialize();
+            case SHOW_INVENTORY_VALUE_KEY -> String.valueOf(showInventoryValue);
+            case SHOW_SLOT_BADGES_KEY -> String.valueOf(showSlotBadges);
+            default -> throw new IllegalArgumentException("Unbekannter Konfig-Schlüssel: " + key);
+        };
+    }
+
+    // Dieselben Werte wie in loadConfig
+    private static String defaultValue(String key) {
+        return switch (key) {
+            case SHOW_ON_SHIFT_KEY, TUTORIAL_SHOWN_KEY, SHOW_INVENTORY_VALUE_KEY, SHOW_SLOT_BADGES_KEY -> "false";
+            case MOD_ENABLED_KEY -> "true";
+            case LAST_FETCH_TIMESTAMP_KEY -> "0";
+            case API_MAX_RETRIES_KEY -> "2";
+            case API_RETRY_BASE_DELAY_KEY -> "500";
+            case API_RETRY_MAX_DELAY_KEY -> "8000";
+            case PRICE_CACHE_TTL_KEY -> "6";
+            case WATCHLIST_KEY -> "";
+            default -> throw new IllegalArgumentException("Unbekannter Konfig-Schlüssel: " + key);
+        };
+    }
+
+    // Über eine temporäre Datei, damit ein Absturz beim Schreiben keine halbe Konfig hinterlässt
+    private static void writeConfigFile(Properties props) {
+        try {
+            try (var outputStream = Files.newOutputStream(CONFIG_TMP_PATH)) {
+                props.store(outputStream, "TradeCore Mod Konfiguration");
+            }
+            Files.move(CONFIG_TMP_PATH, CONFIG_PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             TradeCore.LOGGER.error("Fehler beim Speichern der Konfig {}: ", CONFIG_PATH.getFileName(), e);
         }
     }
 
+    public static synchronized void startWatching() {
+        if (watcherThread != null) {
+            return;
+        }
+        watcherThread = new Thread(TradeCoreConfig::watchConfigFile, "TradeCore-Config-Watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private static void watchConfigFile() {
+        Path directory = CONFIG_PATH.getParent();
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            // Ersetzen per Move meldet CREATE, direktes Bearbeiten MODIFY
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            TradeCore.LOGGER.info("Überwache {} auf Änderungen.", CONFIG_PATH.getFileName());
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || CONFIG_PATH.getFileName().equals(event.context())) {
+                        relevant = true;
+                    }
+                }
+                if (!key.reset()) {
+                    TradeCore.LOGGER.warn("Konfig-Verzeichnis nicht mehr überwachbar, Hot-Reload beendet.");
+                    return;
+                }
+                if (!relevant) {
+                    continue;
+                }
+                // Folgeereignisse desselben Speichervorgangs zusammenfassen
+                Thread.sleep(RELOAD_SETTLE_MILLIS);
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reloadChangedKeys();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ClosedWatchServiceException e) {
+            TradeCore.LOGGER.error("Konfig-Watcher beendet: ", e);
+        }
+    }
+
+    // Übernimmt nur Schlüssel, deren Wert sich gegenüber dem bekannten Dateistand geändert hat; ein gelöschter
+    // Schlüssel gilt als Änderung zurück auf den Standardwert. Eigene Schreibvorgänge entsprechen genau diesem
+    // Stand und lösen daher nichts aus.
+    static void reloadChangedKeys() {
+        Properties props = new Properties();
+        try (var inputStream = Files.newInputStream(CONFIG_PATH)) {
+            props.load(inputStream);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException | IllegalArgumentException e) {
+            TradeCore.LOGGER.warn("Geänderte Konfig {} konnte nicht gelesen werden: {}", CONFIG_PATH.getFileName(), e.getMessage());
+            return;
+        }
+        List<String> changed = new ArrayList<>();
+        synchronized (TradeCoreConfig.class) {
+            for (String key : props.stringPropertyNames()) {
+                String value = props.getProperty(key);
+                if (value.equals(fileProperties.getProperty(key))) {
+                    continue;
+                }
+                if (!isKnownKey(key) || applyValue(key, value.trim())) {
+                    fileProperties.setProperty(key, value);
+                    // Externe Änderung gewinnt gegenüber einer noch nicht geschriebenen eigenen
+                    dirtyKeys.remove(key);
+                    changed.add(key + "=" + value);
+                }
+            }
+            for (String key : fileProperties.stringPropertyNames()) {
+                if (props.containsKey(key)) {
+                    continue;
+                }
+                if (isKnownKey(key)) {
+                    applyValue(key, defaultValue(key));
+                }
+                fileProperties.remove(key);
+                dirtyKeys.remove(key);
+                changed.add(key + " entfernt");
+            }
+        }
+        if (!changed.isEmpty()) {
+            TradeCore.LOGGER.info("Konfiguration extern geändert, übernommen: {}", changed);
+        }
+    }
+
+    private static boolean isKnownKey(String key) {
+        for (String known : ALL_KEYS) {
+            if (known.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean applyValue(String key, String value) {
+        try {
+            switch (key) {
+                case SHOW_ON_SHIFT_KEY -> showPricesOnlyOnShift = Boolean.parseBoolean(value);
+                case LAST_FETCH_TIMESTAMP_KEY -> lastManualFetchTimestamp = Long.parseLong(value);
+                case MOD_ENABLED_KEY -> modEnabled = Boolean.parseBoolean(value);
+                case TUTORIAL_SHOWN_KEY -> tutorialShown = Boolean.parseBoolean(value);
+                case API_MAX_RETRIES_KEY -> apiMaxRetries = Math.max(0, Integer.parseInt(value));
+                case API_RETRY_BASE_DELAY_KEY -> apiRetryBaseDelayMillis = Math.max(0L, Long.parseLong(value));
+                case API_RETRY_MAX_DELAY_KEY -> apiRetryMaxDelayMillis = Math.max(apiRetryBaseDelayMillis, Long.parseLong(value));
+                case PRICE_CACHE_TTL_KEY -> priceCacheTtlHours = Math.max(0L, Long.parseLong(value));
+                case WATCHLIST_KEY -> watchlist = PriceWatchlist.parse(value);
+                case SHOW_INVENTORY_VALUE_KEY -> showInventoryValue = Boolean.parseBoolean(value);
+                case SHOW_SLOT_BADGES_KEY -> showSlotBadges = Boolean.parseBoolean(value);
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            TradeCore.LOGGER.warn("Ungültiger Wert für '{}' in {}: {}", key, CONFIG_PATH.getFileName(), value);
+            return false;
+        }
+    }
+
     public static synchronized void updateAndSaveLastFetchTimestamp(long timestamp) {
         lastManualFetchTimestamp = timestamp;
-        saveConfig();
-        TradeCore.LOGGER.info("Cooldown-Zeitstempel gespeichert: {}", lastManualFetchTimestamp);
+        markDirty(LAST_FETCH_TIMESTAMP_KEY);
+        TradeCore.LOGGER.info("Cooldown-Zeitstempel gesetzt: {}", lastManualFetchTimestamp);
     }
 
     public static synchronized void toggleModEnabled() {
         modEnabled = !modEnabled;
-        saveConfig();
+        markDirty(MOD_ENABLED_KEY);
         TradeCore.LOGGER.info("Mod-Status geändert auf: {}", modEnabled ? "Aktiviert" : "Deaktiviert");
     }
 
     public static synchronized void markTutorialAsShown() {
         if (!tutorialShown) {
             tutorialShown = true;
-            saveConfig();
-            TradeCore.LOGGER.info("Tutorial als angezeigt markiert und Konfiguration gespeichert.");
+            markDirty(TUTORIAL_SHOWN_KEY);
+            TradeCore.LOGGER.info("Tutorial als angezeigt markiert.");
         }
     }
-}
\ No newline at end of file
+
+    public static synchronized void toggleShowPricesOnlyOnShift() {
+        showPricesOnlyOnShift = !showPricesOnlyOnShift;
+        markDirty(SHOW_ON_SHIFT_KEY);
+    }
+
+    public static synchronized void toggleShowInventoryValue() {
+        showInventoryValue = !showInventoryValue;
+        markDirty(SHOW_INVENTORY_VALUE_KEY);
+    }
+
+    public static synchronized void toggleShowSlotBadges() {
+        showSlotBadges = !showSlotBadges;
+        markDirty(SHOW_SLOT_BADGES_KEY);
+    }
+
+    // basisPoints <= 0 nimmt das Item von der Beobachtungsliste
+    public static synchronized void setWatchThreshold(String itemId, int basisPoints) {
+        watchlist = watchlist.withThreshold(itemId, basisPoints);
+        markDirty(WATCHLIST_KEY);
+    }
+}
@@ -0,0 +1,236 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Preise für Varianten eines Items (verzaubert, Tränke, Spawner, Custom Model Data), im Katalog als
+ * {@code itemId@hex} mit dem {@link ItemVariantKey} in Hex. Unveränderlich; die Einträge liegen sortiert nach
+ * (Raw-ID, Varianten-Hash) in parallelen Arrays, ein Lookup ist eine Binärsuche ohne Allokation.
+ */
+public final class VariantPrices {
+
+    public static final VariantPrices EMPTY = new VariantPrices(new int[0], new long[0], new String[0], new int[0], new int[0], new int[0]);
+
+    private static final char SEPARATOR = '@';
+
+    private final int[] rawIds;
+    private final long[] variantHashes;
+    private final String[] ids;
+    private final int[] stueckpreise;
+    private final int[] stackpreise;
+    private final int[] dkpreise;
+
+    private VariantPrices(int[] rawIds, long[] variantHashes, String[] ids, int[] stueckpreise, int[] stackpreise, int[] dkpreise) {
+        this.rawIds = rawIds;
+        this.variantHashes = variantHashes;
+        this.ids = ids;
+        this.stueckpreise = stueckpreise;
+        this.stackpreise = stackpreise;
+        this.dkpreise = dkpreise;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static boolean isVariantId(String itemId) {
+        return itemId != null && itemId.indexOf(SEPARATOR) >= 0;
+    }
+
+    public static String toVariantId(String itemId, long variantHash) {
+        return itemId + SEPARATOR + Long.toHexString(variantHash);
+    }
+
+    // Index des Eintrags oder -1
+    public int find(int rawId, long variantHash) {
+        int low = 0;
+        int high = rawIds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(rawIds[mid], variantHashes[mid], rawId, variantHash);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Kompatibilitätspfad für String-IDs
+    public PriceAPIClient.PriceResult get(String variantId) {
+        int separator = variantId.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            return null;
+        }
+        int rawId = ArrayPriceTable.resolveRawId(variantId.substring(0, separator));
+        long variantHash;
+        try {
+            variantHash = Long.parseUnsignedLong(variantId.substring(separator + 1), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        int index = rawId >= 0 ? find(rawId, variantHash) : -1;
+        return index >= 0 ? new PriceAPIClient.PriceResult(stackpreise[index], dkpreise[index], stueckpreise[index]) : null;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public String getId(int index) {
+        return ids[index];
+    }
+
+    public int getStueckpreis(int index) {
+        return stueckpreise[index];
+    }
+
+    public int getStackpreis(int index) {
+        return stackpreise[index];
+    }
+
+    public int getDkpreis(int index) {
+        return dkpreise[index];
+    }
+
+    // Nur Einträge mit '@' betreffen die Varianten; ohne solche bleibt die Instanz dieselbe
+    public VariantPrices withPatch(PricePatch patch) {
+        boolean touched = false;
+        for (int i = 0; i < patch.upsertCount() && !touched; i++) {
+            touched = isVariantId(patch.getUpsertId(i));
+        }
+        for (int i = 0; i < patch.removedCount() && !touched; i++) {
+            touched = isVariantId(patch.getRemovedId(i));
+        }
+        if (!touched) {
+            return this;
+        }
+        Builder builder = new Builder();
+        for (int i = 0; i < ids.length; i++) {
+            builder.put(ids[i], stackpreise[i], dkpreise[i], stueckpreise[i]);
+        }
+        for (int i = 0; i < patch.upsertCount(); i++) {
+            if (isVariantId(patch.getUpsertId(i))) {
+                builder.put(patch.getUpsertId(i), patch.getStackpreis(i), patch.getDkpreis(i), patch.getStueckpreis(i));
+            }
+        }
+        for (int i = 0; i < patch.removedCount(); i++) {
+            if (isVariantId(patch.getRemovedId(i))) {
+                builder.remove(patch.getRemovedId(i));
+            }
+        }
+        if (builder.getUnknownCount() > 0) {
+            TradeCore.LOGGER.warn("{} Varianten-Einträge im Delta mit unbekannter Item-ID ignoriert.", builder.getUnknownCount());
+        }
+        return builder.build();
+    }
+
+    private static int compare(int rawIdA, long hashA, int rawIdB, long hashB) {
+        int cmp = Integer.compare(rawIdA, rawIdB);
+        return cmp != 0 ? cmp : Long.compareUnsigned(hashA, hashB);
+    }
+
+    public static final class Builder {
+        // Kanonische Varianten-ID -> {Stückpreis, Stackpreis, DK-Preis}
+        private final Map<String, int[]> entries = new LinkedHashMap<>();
+        private int unknownCount = 0;
+
+        private Builder() {
+        }
+
+        // false, wenn die ID kein gültiger Varianten-Schlüssel eines bekannten Items ist
+        public boolean put(String variantId, int stackpreis, int dkpreis, int stueckpreis) {
+            String canonical = canonicalize(variantId);
+            if (canonical == null) {
+                unknownCount++;
+                return false;
+            }
+            entries.put(canonical, new int[]{stueckpreis, stackpreis, dkpreis});
+            return true;
+        }
+
+        public void remove(String variantId) {
+            String canonical = canonicalize(variantId);
+            if (canonical != null) {
+                entries.remove(canonical);
+            }
+        }
+
+        public int getUnknownCount() {
+            return unknownCount;
+        }
+
+        public VariantPrices build() {
+            if (entries.isEmpty()) {
+                return EMPTY;
+            }
+            int size = entries.size();
+            int[] rawIds = new int[size];
+            long[] hashes = new long[size];
+            String[] ids = new String[size];
+            int[][] prices = new int[size][];
+            Integer[] order = new Integer[size];
+            int n = 0;
+            for (Map.Entry<String, int[]> entry : entries.entrySet()) {
+                String id = entry.getKey();
+                int separator = id.lastIndexOf(SEPARATOR);
+                rawIds[n] = ArrayPriceTable.resolveRawId(id.substring(0, separator));
+                hashes[n] = Long.parseUnsignedLong(id.substring(separator + 1), 16);
+                ids[n] = id;
+                prices[n] = entry.getValue();
+                order[n] = n;
+                n++;
+            }
+            Arrays.sort(order, (a, b) -> compare(rawIds[a], hashes[a], rawIds[b], hashes[b]));
+
+            int[] sortedRawIds = new int[size];
+            long[] sortedHashes = new long[size];
+            String[] sortedIds = new String[size];
+            int[] stueck = new int[size];
+            int[] stack = new int[size];
+            int[] dk = new int[size];
+            for (int i = 0; i < size; i++) {
+                int source = order[i];
+                sortedRawIds[i] = rawIds[source];
+                sortedHashes[i] = hashes[source];
+                sortedIds[i] = ids[source];
+                stueck[i] = prices[source][0];
+                stack[i] = prices[source][1];
+                dk[i] = prices[source][2];
+            }
+            return new VariantPrices(sortedRawIds, sortedHashes, sortedIds, stueck, stack, dk);
+        }
+
+        // Registry-ID des Basis-Items und Hash ohne führende Nullen, damit gleiche Varianten gleich heißen
+        private static String canonicalize(String variantId) {
+            int separator = variantId.lastIndexOf(SEPARATOR);
+            if (separator <= 0 || separator == variantId.length() - 1) {
+                return null;
+            }
+            int rawId = ArrayPriceTable.resolveRawId(variantId.substring(0, separator));
+            if (rawId < 0) {
+                return null;
+            }
+            long variantHash;
+            try {
+                variantHash = Long.parseUnsignedLong(variantId.substring(separator + 1), 16);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            Item item = Registries.ITEM.get(rawId);
+            return toVariantId(Registries.ITEM.getId(item).toString(), variantHash);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package de.tradecore.tradecore.mixin;
+
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+// Position des Container-Hintergrunds; die Slot-Koordinaten sind relativ dazu
+@Mixin(HandledScreen.class)
+public interface HandledScreenAccessor {
+
+    @Accessor("x")
+    int tradecore$getX();
+
+    @Accessor("y")
+    int tradecore$getY();
+}
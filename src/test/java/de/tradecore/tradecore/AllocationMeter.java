@@ -0,0 +1,49 @@
+package de.tradecore.tradecore;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Misst die auf dem aktuellen Thread allokierten Bytes über {@code com.sun.management.ThreadMXBean}.
+ * Für Vergleiche und Obergrenzen in Benchmark-Tests; Werte sind JVM-abhängig und nur grob vergleichbar.
+ */
+final class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @FunctionalInterface
+    interface Task {
+        void run() throws Exception;
+    }
+
+    private AllocationMeter() {
+    }
+
+    static boolean isSupported() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    static long allocatedBytes(Task task) throws Exception {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        task.run();
+        return THREADS.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    // Bester von mehreren Läufen, damit einmalige Effekte (Klassenladen, JIT) nicht mitzählen
+    static long minAllocatedBytes(int runs, Task task) throws Exception {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            min = Math.min(min, allocatedBytes(task));
+        }
+        return min;
+    }
+
+    static long minNanos(int runs, Task task) throws Exception {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            min = Math.min(min, System.nanoTime() - start);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,130 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.Registries;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ArrayPriceTableTest {
+
+    private static int stone;
+    private static int dirt;
+    private static int diamond;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        stone = ArrayPriceTable.resolveRawId("minecraft:stone");
+        dirt = ArrayPriceTable.resolveRawId("minecraft:dirt");
+        diamond = ArrayPriceTable.resolveRawId("minecraft:diamond");
+    }
+
+    private static PriceTable base() {
+        return PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 1)
+                .put("minecraft:dirt", 32, 1728, 0)
+                .put("minecraft:oak_log", 320, 0, 5)
+                .build();
+    }
+
+    @Test
+    void deltaUpsertsAndRemoves() {
+        PriceTable base = base();
+        PriceTable patched = base.withPatch(PricePatch.builder()
+                .put("minecraft:stone", 80, 4000, 2)
+                .put("minecraft:diamond", 0, 0, 100)
+                .remove("minecraft:dirt")
+                // Nicht im Katalog: ändert nichts
+                .remove("minecraft:emerald")
+                .build());
+
+        assertInstanceOf(PatchedPriceTable.class, patched);
+        assertEquals(3, patched.size());
+        assertEquals(2, patched.getStueckpreis(stone));
+        assertEquals(80, patched.getStackpreis(stone));
+        assertEquals(4000, patched.getDkpreis(stone));
+        assertEquals("minecraft:diamond", patched.getItemId(diamond));
+        assertEquals(100, patched.get("minecraft:diamond").stueckpreis);
+        assertFalse(patched.contains(dirt));
+        assertNull(patched.getItemId(dirt));
+        assertNull(patched.get("minecraft:dirt"));
+        assertEquals(0, patched.getStackpreis(dirt));
+
+        // Gleiches Ergebnis wie eine neu gebaute Tabelle
+        PriceTable rebuilt = PriceTable.builder()
+                .put("minecraft:stone", 80, 4000, 2)
+                .put("minecraft:oak_log", 320, 0, 5)
+                .put("minecraft:diamond", 0, 0, 100)
+                .build();
+        assertEquals(toPriceStrings(rebuilt), toPriceStrings(patched));
+
+        // Die Basis bleibt unverändert
+        assertEquals(3, base.size());
+        assertEquals(64, base.getStackpreis(stone));
+        assertTrue(base.contains(dirt));
+        assertFalse(base.contains(diamond));
+    }
+
+    @Test
+    void unknownIdsAreIgnored() {
+        PriceTable patched = base().withPatch(PricePatch.builder()
+                .put("minecraft:not_an_item", 1, 1, 1)
+                .put("kein gültiger Bezeichner", 1, 1, 1)
+                .put("minecraft:diamond", 0, 0, 100)
+                .remove("minecraft:also_not_an_item")
+                .build());
+
+        assertEquals(4, patched.size());
+        assertNull(patched.get("minecraft:not_an_item"));
+        assertFalse(patched.contains(-1));
+        assertFalse(patched.contains(patched.capacity()));
+        assertEquals(0, patched.getStueckpreis(patched.capacity()));
+        assertNull(patched.getItemId(-1));
+    }
+
+    @Test
+    void laterDeltasSeeEarlierOnes() {
+        PriceTable patched = base()
+                .withPatch(PricePatch.builder().put("minecraft:diamond", 0, 0, 100).remove("minecraft:dirt").build())
+                .withPatch(PricePatch.builder().put("minecraft:dirt", 16, 800, 0).remove("minecraft:diamond").build());
+
+        assertEquals(3, patched.size());
+        assertFalse(patched.contains(diamond));
+        assertEquals(16, patched.getStackpreis(dirt));
+        assertEquals(toPriceStrings(PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 1)
+                .put("minecraft:dirt", 16, 800, 0)
+                .put("minecraft:oak_log", 320, 0, 5)
+                .build()), toPriceStrings(patched));
+    }
+
+    // Ein Delta kopiert nicht die registergroßen Arrays der Basis
+    @Test
+    void smallDeltaDoesNotCopyTheTable() throws Exception {
+        assumeTrue(AllocationMeter.isSupported());
+        PriceTable base = TestCatalogs.table(Registries.ITEM.size(), 0);
+        PricePatch patch = PricePatch.builder().put("minecraft:diamond", 0, 0, 100).build();
+
+        long bytes = AllocationMeter.minAllocatedBytes(5, () -> base.withPatch(patch).withPatch(patch));
+        // Schon eines der vier Arrays wäre mindestens so groß
+        assertTrue(bytes < Registries.ITEM.size() * 4L, "allokiert: " + bytes);
+    }
+
+    private static Map<String, String> toPriceStrings(PriceTable table) {
+        Map<String, String> result = new TreeMap<>();
+        table.toMap().forEach((id, price) -> result.put(id, price.stueckpreis + "/" + price.stackpreis + "/" + price.dkpreis));
+        return result;
+    }
+}
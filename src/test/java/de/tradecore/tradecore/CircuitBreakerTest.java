@@ -0,0 +1,71 @@
+package de.tradecore.tradecore;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 30_000L;
+
+    @Test
+    void singleFailureWithRetryAfterStaysClosed() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 5, OPEN_MILLIS);
+        breaker.recordFailure(20_000L);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void thresholdOpensForAtLeastRetryAfter() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 5, OPEN_MILLIS);
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure(120_000L);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.getRemainingOpenMillis() > OPEN_MILLIS);
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void openForOpensImmediately() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 5, OPEN_MILLIS);
+        breaker.openFor(60_000L);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.getRemainingOpenMillis() > OPEN_MILLIS);
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 5, OPEN_MILLIS);
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure();
+        }
+        breaker.recordSuccess();
+        breaker.recordFailure();
+
+        assertEquals(1, breaker.getConsecutiveFailures());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0L);
+        breaker.recordFailure();
+        assertTrue(breaker.tryAcquire(), "Probe nach Ablauf der Sperre");
+        assertFalse(breaker.tryAcquire(), "nur eine Probe gleichzeitig");
+
+        breaker.recordFailure();
+
+        assertEquals(2, breaker.getConsecutiveFailures());
+        assertTrue(breaker.tryAcquire(), "Sperrdauer 0: nächste Probe sofort");
+    }
+}
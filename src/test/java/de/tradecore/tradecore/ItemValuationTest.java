@@ -0,0 +1,117 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.BundleContentsComponent;
+import net.minecraft.component.type.ContainerComponent;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemValuationTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    // Diamant mit Stückpreis, Eisen nur mit Stackpreis, Gold nur mit DK-Preis; Smaragd ohne Preis
+    private static PriceSnapshot snapshot(long version, int diamondPrice) {
+        PriceTable table = PriceTable.builder()
+                .put("minecraft:diamond", diamondPrice * 64, diamondPrice * 64 * 54, diamondPrice)
+                .put("minecraft:iron_ingot", 100, 0, 0)
+                .put("minecraft:gold_ingot", 0, 5400, 0)
+                .build();
+        return new PriceSnapshot(version, version, table);
+    }
+
+    private static ItemStack stack(Item item, int count) {
+        return new ItemStack(item, count);
+    }
+
+    private static ItemStack shulker(ItemStack... contents) {
+        ItemStack box = new ItemStack(Items.SHULKER_BOX);
+        box.set(DataComponentTypes.CONTAINER, ContainerComponent.fromStacks(List.of(contents)));
+        return box;
+    }
+
+    private static ItemStack bundle(ItemStack... contents) {
+        ItemStack bundle = new ItemStack(Items.BUNDLE);
+        bundle.set(DataComponentTypes.BUNDLE_CONTENTS, new BundleContentsComponent(List.of(contents)));
+        return bundle;
+    }
+
+    @Test
+    void plainStacksUseUnitPrice() {
+        PriceSnapshot snapshot = snapshot(1L, 100);
+        assertEquals(6400L, ItemValuation.stackValue(snapshot, stack(Items.DIAMOND, 64)));
+        assertEquals(0L, ItemValuation.stackValue(snapshot, stack(Items.EMERALD, 64)));
+        assertEquals(0L, ItemValuation.contentsValue(snapshot, stack(Items.DIAMOND, 64)));
+    }
+
+    // Anteil am Stack- bzw. DK-Preis wird kaufmännisch gerundet
+    @Test
+    void stackAndDoubleChestPricesAreRoundedPerCount() {
+        PriceSnapshot snapshot = snapshot(1L, 100);
+        // 100 / 64 = 1,5625
+        assertEquals(2L, ItemValuation.itemsValue(snapshot, stack(Items.IRON_INGOT, 1)));
+        // 300 / 64 = 4,6875
+        assertEquals(5L, ItemValuation.itemsValue(snapshot, stack(Items.IRON_INGOT, 3)));
+        assertEquals(100L, ItemValuation.itemsValue(snapshot, stack(Items.IRON_INGOT, 64)));
+        // 5400 / (54 * 64) = 1,5625
+        assertEquals(2L, ItemValuation.itemsValue(snapshot, stack(Items.GOLD_INGOT, 1)));
+        // 5400 * 10 / 3456 = 15,625
+        assertEquals(16L, ItemValuation.itemsValue(snapshot, stack(Items.GOLD_INGOT, 10)));
+        assertEquals(100L, ItemValuation.itemsValue(snapshot, stack(Items.GOLD_INGOT, 64)));
+    }
+
+    @Test
+    void nestedContainersAreSummed() {
+        PriceSnapshot snapshot = snapshot(1L, 100);
+        ItemStack box = shulker(
+                stack(Items.DIAMOND, 64),
+                bundle(stack(Items.DIAMOND, 10), stack(Items.IRON_INGOT, 64)),
+                shulker(stack(Items.GOLD_INGOT, 64), stack(Items.EMERALD, 64)));
+
+        // 6400 + (1000 + 100) + (100 + 0); die Kisten selbst haben keinen Preis
+        assertEquals(7600L, ItemValuation.contentsValue(snapshot, box));
+        assertEquals(7600L, ItemValuation.stackValue(snapshot, box));
+        assertEquals(0L, ItemValuation.itemsValue(snapshot, box));
+    }
+
+    @Test
+    void equalContentsShareValueAndNewSnapshotsRecompute() {
+        ItemStack first = shulker(stack(Items.DIAMOND, 64));
+        // Gleicher Inhalt in einer neuen Komponente, wie nach einem erneuten Senden durch den Server
+        ItemStack resent = shulker(stack(Items.DIAMOND, 64));
+
+        assertEquals(6400L, ItemValuation.stackValue(snapshot(1L, 100), first));
+        assertEquals(6400L, ItemValuation.stackValue(snapshot(1L, 100), resent));
+        assertEquals(12800L, ItemValuation.stackValue(snapshot(2L, 200), resent));
+        assertEquals(12800L, ItemValuation.stackValue(snapshot(2L, 200), first));
+    }
+
+    @Test
+    void contentsBelowMaxDepthAreIgnored() {
+        PriceSnapshot snapshot = snapshot(1L, 100);
+        ItemStack counted = stack(Items.DIAMOND, 1);
+        ItemStack ignored = stack(Items.DIAMOND, 1);
+        // Die äußerste Kiste liegt auf Tiefe 0; ihr Inhalt zählt, solange die Tiefe unter MAX_DEPTH liegt
+        for (int i = 0; i < ItemValuation.MAX_DEPTH; i++) {
+            counted = shulker(counted);
+            ignored = shulker(ignored);
+        }
+        ignored = shulker(ignored);
+
+        assertEquals(100L, ItemValuation.stackValue(snapshot, counted));
+        assertEquals(0L, ItemValuation.stackValue(snapshot, ignored));
+    }
+}
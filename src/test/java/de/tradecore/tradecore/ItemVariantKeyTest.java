@@ -0,0 +1,188 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.ItemEnchantmentsComponent;
+import net.minecraft.component.type.PotionContentsComponent;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.potion.Potion;
+import net.minecraft.potion.Potions;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.entry.RegistryEntryOwner;
+import net.minecraft.util.Identifier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ItemVariantKeyTest {
+
+    private static final int HASH_RUNS = 10_000;
+
+    // Verzauberungen sind eine dynamische Registry; für den Hash zählt nur der Schlüssel des Eintrags
+    private static RegistryEntry<Enchantment> sharpness;
+    private static RegistryEntry<Enchantment> unbreaking;
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        RegistryEntryOwner<Enchantment> owner = new RegistryEntryOwner<>() {
+        };
+        sharpness = RegistryEntry.Reference.standAlone(owner, RegistryKey.of(RegistryKeys.ENCHANTMENT, Identifier.ofVanilla("sharpness")));
+        unbreaking = RegistryEntry.Reference.standAlone(owner, RegistryKey.of(RegistryKeys.ENCHANTMENT, Identifier.ofVanilla("unbreaking")));
+    }
+
+    private static ItemEnchantmentsComponent enchantments(RegistryEntry<Enchantment> first, int firstLevel,
+                                                          RegistryEntry<Enchantment> second, int secondLevel) {
+        ItemEnchantmentsComponent.Builder builder = new ItemEnchantmentsComponent.Builder(ItemEnchantmentsComponent.DEFAULT);
+        builder.add(first, firstLevel);
+        if (second != null) {
+            builder.add(second, secondLevel);
+        }
+        return builder.build();
+    }
+
+    private static ItemStack enchanted(Item item, RegistryEntry<Enchantment> enchantment, int level) {
+        ItemStack stack = new ItemStack(item);
+        stack.set(DataComponentTypes.ENCHANTMENTS, enchantments(enchantment, level, null, 0));
+        return stack;
+    }
+
+    private static ItemStack potion(RegistryEntry<Potion> potion) {
+        ItemStack stack = new ItemStack(Items.POTION);
+        stack.set(DataComponentTypes.POTION_CONTENTS, new PotionContentsComponent(potion));
+        return stack;
+    }
+
+    @Test
+    void plainStacksHaveNoVariant() {
+        assertEquals(0L, ItemVariantKey.of(new ItemStack(Items.STONE)));
+        assertEquals(0L, ItemVariantKey.of(new ItemStack(Items.DIAMOND_SWORD)));
+        assertEquals(0L, ItemVariantKey.compute(new ItemStack(Items.DIAMOND_SWORD)));
+    }
+
+    // Fester Wert: Server und andere Clients berechnen denselben Schlüssel, eine Änderung am Verfahren fällt hier auf
+    @Test
+    void hashIsPinned() {
+        assertEquals(0xEAC3F88C349D39F5L, ItemVariantKey.compute(potion(Potions.SWIFTNESS)));
+    }
+
+    @Test
+    void hashIsStableAcrossStacksAndEnchantmentOrder() {
+        ItemStack first = new ItemStack(Items.DIAMOND_SWORD);
+        first.set(DataComponentTypes.ENCHANTMENTS, enchantments(sharpness, 5, unbreaking, 3));
+        ItemStack second = new ItemStack(Items.DIAMOND_SWORD);
+        second.set(DataComponentTypes.ENCHANTMENTS, enchantments(unbreaking, 3, sharpness, 5));
+
+        long hash = ItemVariantKey.compute(first);
+        assertNotEquals(0L, hash);
+        assertEquals(hash, ItemVariantKey.compute(second));
+        assertEquals(hash, ItemVariantKey.of(first));
+        assertEquals(hash, ItemVariantKey.of(second));
+        assertEquals(hash, ItemVariantKey.of(first.copy()));
+    }
+
+    @Test
+    void plainEnchantedAndVariantsAreDistinct() {
+        long plain = ItemVariantKey.compute(new ItemStack(Items.DIAMOND_SWORD));
+        long sharpnessFive = ItemVariantKey.compute(enchanted(Items.DIAMOND_SWORD, sharpness, 5));
+        long sharpnessFour = ItemVariantKey.compute(enchanted(Items.DIAMOND_SWORD, sharpness, 4));
+        long unbreakingFive = ItemVariantKey.compute(enchanted(Items.DIAMOND_SWORD, unbreaking, 5));
+        assertNotEquals(plain, sharpnessFive);
+        assertNotEquals(sharpnessFive, sharpnessFour);
+        assertNotEquals(sharpnessFive, unbreakingFive);
+
+        // Gespeicherte Verzauberungen (Buch) tragen einen eigenen Tag
+        ItemStack book = new ItemStack(Items.ENCHANTED_BOOK);
+        book.set(DataComponentTypes.STORED_ENCHANTMENTS, enchantments(sharpness, 5, null, 0));
+        assertNotEquals(sharpnessFive, ItemVariantKey.compute(book));
+
+        assertNotEquals(ItemVariantKey.compute(potion(Potions.SWIFTNESS)), ItemVariantKey.compute(potion(Potions.STRONG_SWIFTNESS)));
+    }
+
+    // Der Cache darf nach einer Änderung am selben Stack-Objekt keinen alten Hash liefern
+    @Test
+    void memoFollowsInPlaceComponentChanges() {
+        ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+        assertEquals(0L, ItemVariantKey.of(stack));
+
+        stack.set(DataComponentTypes.ENCHANTMENTS, enchantments(sharpness, 5, null, 0));
+        long sharpnessFive = ItemVariantKey.of(stack);
+        assertEquals(ItemVariantKey.compute(stack), sharpnessFive);
+        assertNotEquals(0L, sharpnessFive);
+
+        stack.set(DataComponentTypes.ENCHANTMENTS, enchantments(sharpness, 4, null, 0));
+        assertEquals(ItemVariantKey.compute(stack), ItemVariantKey.of(stack));
+        assertNotEquals(sharpnessFive, ItemVariantKey.of(stack));
+
+        stack.set(DataComponentTypes.ENCHANTMENTS, ItemEnchantmentsComponent.DEFAULT);
+        assertEquals(0L, ItemVariantKey.of(stack));
+    }
+
+    @Test
+    void hashingDoesNotAllocatePerEnchantment() throws Exception {
+        assumeTrue(AllocationMeter.isSupported(), "Allokationsmessung pro Thread nicht verfügbar");
+        ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+        stack.set(DataComponentTypes.ENCHANTMENTS, enchantments(sharpness, 5, unbreaking, 3));
+        ItemVariantKey.of(stack);
+
+        long warmBytes = AllocationMeter.minAllocatedBytes(3, () -> {
+            for (int i = 0; i < HASH_RUNS; i++) {
+                ItemVariantKey.of(stack);
+            }
+        });
+        long computeBytes = AllocationMeter.minAllocatedBytes(3, () -> {
+            for (int i = 0; i < HASH_RUNS; i++) {
+                ItemVariantKey.compute(stack);
+            }
+        });
+
+        TradeCore.LOGGER.info("Varianten-Hash: {} Bytes für {} Cache-Treffer, {} Bytes für {} Berechnungen", warmBytes, HASH_RUNS, computeBytes, HASH_RUNS);
+        assertTrue(warmBytes < 1024, warmBytes + " Bytes für " + HASH_RUNS + " Cache-Treffer");
+        // Höchstens die unveränderliche Hülle um die Schlüsselmenge, kein Iterator und kein Entry pro Verzauberung
+        assertTrue(computeBytes < HASH_RUNS * 32L, computeBytes + " Bytes für " + HASH_RUNS + " Berechnungen");
+    }
+
+    @Test
+    void variantPriceFallsBackToBasePrice() throws Exception {
+        ItemStack sharpnessFive = enchanted(Items.DIAMOND_SWORD, sharpness, 5);
+        String variantId = VariantPrices.toVariantId("minecraft:diamond_sword", ItemVariantKey.compute(sharpnessFive));
+        String catalog = "{\"success\":true,\"prices\":{"
+                + "\"minecraft:diamond_sword\":{\"stueckpreis\":100,\"stackpreis\":100,\"dkpreis\":5400},"
+                + "\"" + variantId + "\":{\"stueckpreis\":900,\"stackpreis\":900,\"dkpreis\":48600}}}";
+
+        try (StandInApiServer server = new StandInApiServer()) {
+            server.handle("get_price.php", exchange -> StandInApiServer.respond(exchange, 200, catalog));
+            PriceAPIClient client = new PriceAPIClient(server.baseUrl(), dataDir);
+            try {
+                client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+
+                assertEquals(900, client.getItemPrices(sharpnessFive).stueckpreis);
+                assertEquals(100, client.getItemPrices(new ItemStack(Items.DIAMOND_SWORD)).stueckpreis);
+                // Variante ohne eigenen Preis: Basispreis des Items
+                assertEquals(100, client.getItemPrices(enchanted(Items.DIAMOND_SWORD, sharpness, 4)).stueckpreis);
+                assertNull(client.getItemPrices(enchanted(Items.NETHERITE_PICKAXE, sharpness, 5)));
+            } finally {
+                client.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.Items;
+import net.minecraft.registry.Registries;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedPriceTableTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    private PriceTable mapTable(PriceTable table) throws Exception {
+        Path file = dir.resolve("prices.bin");
+        PriceSnapshotFile.write(file, dir.resolve("prices.tmp"), new PriceSnapshot(1, 1_700_000_000L, table));
+        PriceTable mapped = PriceSnapshotFile.map(file).getTable();
+        assertInstanceOf(MappedPriceTable.class, mapped);
+        return mapped;
+    }
+
+    @Test
+    void pricedItemsAreReadFromTheMapping() throws Exception {
+        PriceTable mapped = mapTable(PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 1)
+                .put("minecraft:dirt", 32, 1728, 0)
+                .build());
+
+        int stone = Registries.ITEM.getRawId(Items.STONE);
+        assertTrue(mapped.contains(stone));
+        assertEquals(1, mapped.getStueckpreis(stone));
+        assertEquals(64, mapped.getStackpreis(stone));
+        assertEquals(3456, mapped.getDkpreis(stone));
+    }
+
+    // Eintrag -1 darf nicht das Feld vor dem Preisblock lesen (z.B. den letzten Stückpreis)
+    @Test
+    void unpricedItemsReturnZero() throws Exception {
+        PriceTable mapped = mapTable(PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 7)
+                .put("minecraft:dirt", 32, 1728, 9)
+                .build());
+
+        int diamond = Registries.ITEM.getRawId(Items.DIAMOND);
+        assertFalse(mapped.contains(diamond));
+        assertEquals(0, mapped.getStueckpreis(diamond));
+        assertEquals(0, mapped.getStackpreis(diamond));
+        assertEquals(0, mapped.getDkpreis(diamond));
+        assertEquals(0, mapped.getStackpreis(-1));
+        assertEquals(0, mapped.getDkpreis(mapped.capacity()));
+    }
+
+    // Deltas über der gemappten Basis müssen dasselbe ergeben wie auf der Heap-Tabelle
+    @Test
+    void patchesOverlayTheMappedBase() throws Exception {
+        PriceTable heap = PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 1)
+                .put("minecraft:dirt", 32, 1728, 0)
+                .put("minecraft:oak_log", 128, 6912, 2)
+                .build();
+        PriceTable mapped = mapTable(heap);
+        PricePatch first = PricePatch.builder()
+                .put("minecraft:stone", 80, 4000, 2)
+                .put("minecraft:diamond", 0, 0, 100)
+                .remove("minecraft:dirt")
+                .build();
+        PricePatch second = PricePatch.builder()
+                .put("minecraft:dirt", 16, 800, 0)
+                .remove("minecraft:oak_log")
+                .remove("minecraft:emerald")
+                .build();
+
+        PriceTable patchedHeap = heap.withPatch(first).withPatch(second);
+        PriceTable patchedMapped = mapped.withPatch(first).withPatch(second);
+
+        assertInstanceOf(PatchedPriceTable.class, patchedMapped);
+        assertEquals(patchedHeap.size(), patchedMapped.size());
+        assertEquals(3, patchedMapped.size());
+        assertEquals(toPriceStrings(patchedHeap), toPriceStrings(patchedMapped));
+        assertFalse(patchedMapped.contains(Registries.ITEM.getRawId(Items.OAK_LOG)));
+        assertEquals(0, patchedMapped.getStackpreis(Registries.ITEM.getRawId(Items.OAK_LOG)));
+        // Die Basis bleibt unverändert
+        assertEquals(64, mapped.getStackpreis(Registries.ITEM.getRawId(Items.STONE)));
+    }
+
+    // Kompaktierung schreibt eine überlagerte Tabelle als neue Basis
+    @Test
+    void patchedTableRoundTripsThroughSnapshotFile() throws Exception {
+        PriceTable mapped = mapTable(PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 1)
+                .put("minecraft:dirt", 32, 1728, 0)
+                .build());
+        PriceTable patched = mapped.withPatch(PricePatch.builder().put("minecraft:diamond", 0, 0, 100).remove("minecraft:dirt").build());
+
+        Path file = dir.resolve("compacted.bin");
+        PriceSnapshotFile.write(file, dir.resolve("compacted.tmp"), new PriceSnapshot(2, 1_700_000_100L, patched));
+        PriceTable reloaded = PriceSnapshotFile.map(file).getTable();
+
+        assertEquals(toPriceStrings(patched), toPriceStrings(reloaded));
+    }
+
+    private static Map<String, String> toPriceStrings(PriceTable table) {
+        Map<String, String> result = new TreeMap<>();
+        table.toMap().forEach((id, price) -> result.put(id, price.stueckpreis + "/" + price.stackpreis + "/" + price.dkpreis));
+        return result;
+    }
+}
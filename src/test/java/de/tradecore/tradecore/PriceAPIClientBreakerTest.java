@@ -0,0 +1,120 @@
+package de.tradecore.tradecore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceAPIClientBreakerTest {
+
+    private static final String PLAYER = "00000000-0000-0000-0000-000000000001";
+
+    @TempDir
+    Path dataDir;
+
+    private StandInApiServer server;
+    private PriceAPIClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInApiServer();
+        client = new PriceAPIClient(server.baseUrl(), dataDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    // 429 auf einen POST ist eine fachliche Antwort (Cooldown) und darf den Endpunkt nicht sperren
+    @Test
+    void repeatedPost429DoesNotOpenBreaker() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        server.handle("submit_bdt_vote.php", exchange -> {
+            if (calls.incrementAndGet() <= 6) {
+                exchange.getResponseHeaders().set("Retry-After", "60");
+                StandInApiServer.respond(exchange, 429, "{\"success\":false,\"message\":\"Cooldown aktiv\"}");
+            } else {
+                StandInApiServer.respond(exchange, 200, "{\"success\":true}");
+            }
+        });
+
+        for (int i = 0; i < 6; i++) {
+            assertFalse(client.submitBdtVoteAsync("42", PLAYER, "schnell").get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(client.submitBdtVoteAsync("42", PLAYER, "schnell").get(5, TimeUnit.SECONDS));
+        assertEquals(7, server.requestCount("submit_bdt_vote.php"));
+    }
+
+    // Ein einzelner 503 mit kurzem Retry-After zählt nur als ein Fehler
+    @Test
+    void singlePost503WithShortRetryAfterKeepsEndpointOpen() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        server.handle("submit_bdt_vote.php", exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().set("Retry-After", "5");
+                StandInApiServer.respond(exchange, 503, "");
+            } else {
+                StandInApiServer.respond(exchange, 200, "{\"success\":true}");
+            }
+        });
+
+        assertFalse(client.submitBdtVoteAsync("42", PLAYER, "schnell").get(5, TimeUnit.SECONDS));
+        assertTrue(client.submitBdtVoteAsync("42", PLAYER, "schnell").get(5, TimeUnit.SECONDS));
+        assertEquals(2, server.requestCount("submit_bdt_vote.php"));
+    }
+
+    // Retry-After über der Wartegrenze sperrt den Endpunkt sofort, ohne weitere Anfragen
+    @Test
+    void retryAfterAboveCapOpensBreaker() throws Exception {
+        server.handle("submit_bdt_vote.php", exchange -> {
+            exchange.getResponseHeaders().set("Retry-After", "120");
+            StandInApiServer.respond(exchange, 503, "");
+        });
+
+        assertFalse(client.submitBdtVoteAsync("42", PLAYER, "schnell").get(5, TimeUnit.SECONDS));
+        assertFalse(client.submitBdtVoteAsync("42", PLAYER, "schnell").get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.requestCount("submit_bdt_vote.php"));
+    }
+
+    // Wird die Antwort der Probe nie ausgewertet (Executor lehnt ab), darf der Breaker nicht halb offen hängen bleiben
+    @Test
+    void rejectedProbeIsReleased() throws Exception {
+        CountDownLatch requestArrived = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+        server.handle("submit_bdt_vote.php", exchange -> {
+            requestArrived.countDown();
+            try {
+                releaseResponse.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StandInApiServer.respond(exchange, 200, "{\"success\":true}");
+        });
+        CircuitBreaker breaker = client.breakerFor(URI.create(server.baseUrl() + "submit_bdt_vote.php"));
+        // Sperre sofort abgelaufen: die nächste Anfrage ist die Probe
+        breaker.openFor(0L);
+
+        CompletableFuture<Boolean> probe = client.submitBdtVoteAsync("42", PLAYER, "schnell");
+        assertTrue(requestArrived.await(5, TimeUnit.SECONDS));
+        assertFalse(breaker.tryAcquire(), "Probe läuft noch");
+
+        client.close();
+        releaseResponse.countDown();
+
+        assertFalse(probe.get(5, TimeUnit.SECONDS));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
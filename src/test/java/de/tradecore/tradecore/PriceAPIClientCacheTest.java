@@ -0,0 +1,125 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceAPIClientCacheTest {
+
+    private static final String CATALOG = "{\"success\":true,\"prices\":{\"minecraft:stone\":{\"stueckpreis\":1,\"stackpreis\":64}}}";
+
+    @TempDir
+    Path dataDir;
+
+    private StandInApiServer server;
+    private PriceAPIClient client;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInApiServer();
+        server.handle("get_price.php", exchange -> {
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            // Jeder Abruf lädt und speichert den vollen Katalog
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            StandInApiServer.respond(exchange, 200, CATALOG);
+        });
+        client = new PriceAPIClient(server.baseUrl(), dataDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private long priceFileCount() throws Exception {
+        try (Stream<Path> files = Files.list(dataDir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(TradeCore.MOD_ID + "_prices")).count();
+        }
+    }
+
+    @Test
+    void clearingTheCacheRemovesFilesAndPublishesEmptySnapshot() throws Exception {
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(1, client.getPriceTable().size());
+        assertTrue(priceFileCount() > 0);
+
+        client.deletePriceFile().get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, priceFileCount());
+        assertTrue(client.getSnapshot().isEmpty());
+        assertFalse(client.isCacheFresh(System.currentTimeMillis()));
+    }
+
+    // Nach dem Leeren lädt der nächste Abruf trotz gültiger TTL den vollen Katalog, ohne alte Validatoren
+    @Test
+    void clearingTheCacheResetsValidators() throws Exception {
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+        client.deletePriceFile().get(5, TimeUnit.SECONDS);
+
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, server.requestCount("get_price.php"));
+        assertNull(server.requests().get(1).getRequestHeaders().getFirst("If-None-Match"));
+        assertEquals(1, client.getPriceTable().size());
+    }
+
+    // Ein beim Start gemappter Slot darf in diesem Prozess nie Ziel eines Speichervorgangs werden
+    @Test
+    void savesNeverTargetTheSlotMappedAtStartup() throws Exception {
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+        PriceAPIClient restarted = new PriceAPIClient(server.baseUrl(), dataDir);
+        try {
+            restarted.loadPricesFromDisk();
+            assertInstanceOf(MappedPriceTable.class, restarted.getPriceTable());
+            Path mapped = dataDir.resolve(TradeCore.MOD_ID + "_prices.bin");
+
+            for (int i = 0; i < 3; i++) {
+                assertNotEquals(mapped, restarted.nextPriceFileSlot());
+                restarted.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(64, restarted.getItemPrices("minecraft:stone").stackpreis);
+        } finally {
+            restarted.close();
+        }
+    }
+
+    // Ein fehlgeschlagenes Speichern darf die Validatoren nicht löschen, sonst folgt beim nächsten Start ein voller Abruf
+    @Test
+    void failedSaveKeepsValidators() throws Exception {
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+        Path meta = dataDir.resolve(TradeCore.MOD_ID + "_prices.meta");
+        assertTrue(Files.exists(meta));
+        // Ein nicht leeres Verzeichnis am Zielort lässt das atomare Umbenennen scheitern
+        Path blocked = client.nextPriceFileSlot();
+        Files.createDirectories(blocked);
+        Files.writeString(blocked.resolve("blocker"), "x");
+
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+
+        assertTrue(Files.exists(meta));
+        assertEquals(1, client.getPriceTable().size());
+    }
+}
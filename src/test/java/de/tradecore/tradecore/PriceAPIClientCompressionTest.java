@@ -0,0 +1,143 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceAPIClientCompressionTest {
+
+    private static final int ENTRIES = 2_000;
+
+    @TempDir
+    Path dataDir;
+
+    private StandInApiServer server;
+    private PriceAPIClient client;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInApiServer();
+        client = new PriceAPIClient(server.baseUrl(), dataDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    // Liefert den Katalog roh, mit Content-Encoding, falls gesetzt
+    private void serveCatalog(String contentEncoding, byte[] body) {
+        server.handle("get_price.php", exchange -> {
+            if (contentEncoding != null) {
+                exchange.getResponseHeaders().set("Content-Encoding", contentEncoding);
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+    }
+
+    private void fetch() throws Exception {
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+    }
+
+    private void assertCatalogLoaded() {
+        assertEquals(ENTRIES, client.getSnapshot().getTable().size());
+        for (int i = 0; i < ENTRIES; i += 97) {
+            PriceAPIClient.PriceResult price = client.getItemPrices(TestCatalogs.itemId(i));
+            assertEquals(TestCatalogs.stueckpreis(i, 0), price.stueckpreis);
+            assertEquals(TestCatalogs.stackpreis(i, 0), price.stackpreis);
+            assertEquals(TestCatalogs.dkpreis(i, 0), price.dkpreis);
+        }
+    }
+
+    @Test
+    void requestAdvertisesCompression() throws Exception {
+        serveCatalog(null, TestCatalogs.catalogJson(ENTRIES, 0));
+        fetch();
+
+        assertEquals("gzip, deflate", server.requests().get(0).getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
+    @Test
+    void gzipResponseIsDecoded() throws Exception {
+        byte[] json = TestCatalogs.catalogJson(ENTRIES, 0);
+        byte[] compressed = gzip(json);
+        serveCatalog("gzip", compressed);
+        fetch();
+
+        assertCatalogLoaded();
+        assertCompressedCounters(compressed.length, json.length);
+    }
+
+    @Test
+    void deflateResponseIsDecoded() throws Exception {
+        byte[] json = TestCatalogs.catalogJson(ENTRIES, 0);
+        byte[] compressed = deflate(json);
+        serveCatalog("deflate", compressed);
+        fetch();
+
+        assertCatalogLoaded();
+        assertCompressedCounters(compressed.length, json.length);
+    }
+
+    @Test
+    void uncompressedResponseIsPassedThrough() throws Exception {
+        byte[] json = TestCatalogs.catalogJson(ENTRIES, 0);
+        serveCatalog(null, json);
+        fetch();
+
+        assertCatalogLoaded();
+        // Ohne Kodierung zählen beide Zähler dieselben Bytes
+        assertTrue(client.getWireBytesReceived() > 0);
+        assertEquals(client.getWireBytesReceived(), client.getDecodedBytesReceived());
+        assertTrue(client.getDecodedBytesReceived() <= json.length);
+    }
+
+    // Der Decoder hört nach dem letzten Token auf; ein ungelesener Rest am Ende wird nicht mitgezählt
+    private void assertCompressedCounters(int compressedLength, int jsonLength) {
+        long wire = client.getWireBytesReceived();
+        long decoded = client.getDecodedBytesReceived();
+        assertTrue(wire > 0 && wire <= compressedLength, "wire=" + wire);
+        assertTrue(decoded > compressedLength && decoded <= jsonLength, "decoded=" + decoded);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,79 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceAPIClientConcurrencyTest {
+
+    @TempDir
+    Path dataDir;
+
+    private StandInApiServer server;
+    private PriceAPIClient client;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInApiServer();
+        client = new PriceAPIClient(server.baseUrl(), dataDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    // Der Katalog hängt mitten im Body; die Abstimmung darf darauf weder beim Senden noch beim Parsen warten
+    @Test
+    void voteCompletesWhileCatalogDownloadIsStalled() throws Exception {
+        CountDownLatch catalogStarted = new CountDownLatch(1);
+        CountDownLatch releaseCatalog = new CountDownLatch(1);
+        server.handle("get_price.php", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("{\"success\":true,\"prices\":{\"minecraft:stone\":{\"stueckpreis\":1,".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                catalogStarted.countDown();
+                releaseCatalog.await(10, TimeUnit.SECONDS);
+                out.write("\"stackpreis\":64}}}".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.handle("submit_bdt_vote.php", exchange -> StandInApiServer.respond(exchange, 200, "{\"success\":true}"));
+
+        CompletableFuture<Void> catalog = client.fetchAllPricesAsync();
+        assertTrue(catalogStarted.await(5, TimeUnit.SECONDS), "Katalog-Anfrage kam nicht an");
+
+        CompletableFuture<Boolean> vote = client.submitBdtVoteAsync("42", "00000000-0000-0000-0000-000000000001", "schnell");
+        assertTrue(vote.get(2, TimeUnit.SECONDS));
+        assertFalse(catalog.isDone(), "Katalog darf erst nach der Freigabe fertig sein");
+
+        releaseCatalog.countDown();
+        catalog.get(5, TimeUnit.SECONDS);
+        assertEquals(1, client.getPriceTable().size());
+        assertEquals(64, client.getItemPrices("minecraft:stone").stackpreis);
+    }
+}
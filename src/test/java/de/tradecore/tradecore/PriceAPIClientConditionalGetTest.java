@@ -0,0 +1,136 @@
+package de.tradecore.tradecore;
+
+import com.sun.net.httpserver.Headers;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PriceAPIClientConditionalGetTest {
+
+    private static final String ETAG = "\"katalog-v1\"";
+    private static final String LAST_MODIFIED = "Wed, 01 Oct 2025 12:00:00 GMT";
+    private static final String CATALOG = "{\"success\":true,\"prices\":{\"minecraft:stone\":{\"stueckpreis\":1,\"stackpreis\":64}}}";
+
+    @TempDir
+    Path dataDir;
+
+    private StandInApiServer server;
+    private PriceAPIClient client;
+    // Request-Header jeder Katalog-Anfrage in Eingangsreihenfolge
+    private final List<Headers> catalogRequests = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInApiServer();
+        client = new PriceAPIClient(server.baseUrl(), dataDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    // Erste Anfrage liefert den Katalog mit Validatoren, jede weitere nur 304
+    private void serveCatalogThenNotModified(String cacheControl) {
+        server.handle("get_price.php", exchange -> {
+            catalogRequests.add(exchange.getRequestHeaders());
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+            if (catalogRequests.size() == 1) {
+                StandInApiServer.respond(exchange, 200, CATALOG);
+            } else {
+                StandInApiServer.respond(exchange, 304, "");
+            }
+        });
+    }
+
+    private void fetch() throws Exception {
+        client.fetchAllPricesAsync().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void firstRequestSendsNoValidators() throws Exception {
+        serveCatalogThenNotModified("no-cache");
+        fetch();
+
+        assertEquals(1, catalogRequests.size());
+        assertNull(catalogRequests.get(0).getFirst("If-None-Match"));
+        assertNull(catalogRequests.get(0).getFirst("If-Modified-Since"));
+    }
+
+    @Test
+    void revalidationSendsValidatorsAndSkipsParsingOn304() throws Exception {
+        serveCatalogThenNotModified("no-cache");
+        fetch();
+        PriceSnapshot afterFullFetch = client.getSnapshot();
+
+        fetch();
+
+        assertEquals(2, catalogRequests.size());
+        Headers revalidation = catalogRequests.get(1);
+        assertEquals(ETAG, revalidation.getFirst("If-None-Match"));
+        assertEquals(LAST_MODIFIED, revalidation.getFirst("If-Modified-Since"));
+        // Kein Parsen: dieselbe Tabelleninstanz und dieselbe Version, nur der Zeitstempel darf sich ändern
+        PriceSnapshot afterNotModified = client.getSnapshot();
+        assertSame(afterFullFetch.getTable(), afterNotModified.getTable());
+        assertEquals(afterFullFetch.getVersion(), afterNotModified.getVersion());
+        assertEquals(64, client.getItemPrices("minecraft:stone").stackpreis);
+    }
+
+    @Test
+    void freshMaxAgeSendsNoRequest() throws Exception {
+        serveCatalogThenNotModified("max-age=3600");
+        fetch();
+        fetch();
+        fetch();
+
+        assertEquals(1, catalogRequests.size());
+    }
+
+    @Test
+    void noCacheDisablesFreshnessShortcut() throws Exception {
+        assertRevalidatesEveryFetch("no-cache");
+    }
+
+    @Test
+    void noStoreDisablesFreshnessShortcut() throws Exception {
+        assertRevalidatesEveryFetch("no-store");
+    }
+
+    @Test
+    void maxAgeZeroDisablesFreshnessShortcut() throws Exception {
+        assertRevalidatesEveryFetch("max-age=0");
+    }
+
+    // Die konfigurierte TTL (Standard 6 h) darf die Vorgabe des Servers nicht überstimmen
+    private void assertRevalidatesEveryFetch(String cacheControl) throws Exception {
+        serveCatalogThenNotModified(cacheControl);
+        fetch();
+        fetch();
+        fetch();
+
+        assertEquals(3, catalogRequests.size());
+        assertEquals(ETAG, catalogRequests.get(2).getFirst("If-None-Match"));
+    }
+}
@@ -0,0 +1,87 @@
+package de.tradecore.tradecore;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.Registries;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Streaming-Decoder gegen den früheren Weg (String-Body, Gson-Baum, Zwischen-Map) bei 50k Einträgen.
+ * Verglichen werden allokierte Bytes auf dem dekodierenden Thread als Maß für den Heap-Bedarf, die Zeit wird
+ * nur protokolliert und grob nach oben begrenzt.
+ */
+class PriceCatalogDecoderBenchmarkTest {
+
+    private static final int ENTRIES = 50_000;
+    private static final int RUNS = 5;
+
+    private static byte[] catalog;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        catalog = TestCatalogs.catalogJson(ENTRIES, 0);
+    }
+
+    private static PriceTable decodeStreaming() throws Exception {
+        PriceTable.Builder builder = PriceTable.builder();
+        PriceCatalogDecoder.Result result = PriceCatalogDecoder.decode(new ByteArrayInputStream(catalog), builder, PricePatch.builder());
+        assertTrue(result.success);
+        return builder.build();
+    }
+
+    // Nachbau des Pfads vor dem Streaming-Decoder: ofString, parseString, entrySet in eine ConcurrentHashMap
+    private static PriceTable decodeTree() {
+        String body = new String(catalog, StandardCharsets.UTF_8);
+        JsonObject root = JsonParser.parseString(body).getAsJsonObject();
+        Map<String, PriceAPIClient.PriceResult> prices = new ConcurrentHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("prices").entrySet()) {
+            JsonObject price = entry.getValue().getAsJsonObject();
+            prices.put(entry.getKey(), new PriceAPIClient.PriceResult(price.get("stackpreis").getAsInt(), price.get("dkpreis").getAsInt(),
+                    price.get("stueckpreis").getAsInt()));
+        }
+        return PriceTable.fromMap(prices);
+    }
+
+    @Test
+    void streamingDecodeProducesTheSameTable() throws Exception {
+        PriceTable streamed = decodeStreaming();
+        PriceTable tree = decodeTree();
+
+        assertEquals(Registries.ITEM.size(), streamed.size());
+        assertEquals(ENTRIES - Registries.ITEM.size(), streamed.getVariants().size());
+        assertEquals(tree.toMap().size(), streamed.toMap().size());
+    }
+
+    @Test
+    void streamingDecodeAllocatesLessThanTreeParse() throws Exception {
+        assumeTrue(AllocationMeter.isSupported(), "Allokationsmessung pro Thread nicht verfügbar");
+        long streamingBytes = AllocationMeter.minAllocatedBytes(RUNS, PriceCatalogDecoderBenchmarkTest::decodeStreaming);
+        long treeBytes = AllocationMeter.minAllocatedBytes(RUNS, PriceCatalogDecoderBenchmarkTest::decodeTree);
+        long streamingNanos = AllocationMeter.minNanos(RUNS, PriceCatalogDecoderBenchmarkTest::decodeStreaming);
+        long treeNanos = AllocationMeter.minNanos(RUNS, PriceCatalogDecoderBenchmarkTest::decodeTree);
+
+        TradeCore.LOGGER.info("Katalog {} Einträge ({} Bytes): Streaming {} KB / {} ms, Baum {} KB / {} ms", ENTRIES, catalog.length,
+                streamingBytes / 1024, TimeUnit.NANOSECONDS.toMillis(streamingNanos), treeBytes / 1024, TimeUnit.NANOSECONDS.toMillis(treeNanos));
+        // Der Baum hält Body-String, JsonObject je Eintrag und die Zwischen-Map gleichzeitig
+        assertTrue(streamingBytes < treeBytes, "Streaming " + streamingBytes + " B, Baum " + treeBytes + " B");
+        // Obergrenze pro Eintrag: ID-String, Feldnamen und Builder-Eintrag (Varianten mit Registry-Auflösung), kein Body
+        assertTrue(streamingBytes / ENTRIES < 4096, "Streaming " + streamingBytes / ENTRIES + " B pro Eintrag");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(streamingNanos) < 2_000, "Streaming " + TimeUnit.NANOSECONDS.toMillis(streamingNanos) + " ms");
+    }
+}
@@ -0,0 +1,127 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceDiffTest {
+
+    private static int stone;
+    private static int dirt;
+    private static int diamond;
+    private static int goldIngot;
+    private static int oakLog;
+    private static int emerald;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        stone = ArrayPriceTable.resolveRawId("minecraft:stone");
+        dirt = ArrayPriceTable.resolveRawId("minecraft:dirt");
+        diamond = ArrayPriceTable.resolveRawId("minecraft:diamond");
+        goldIngot = ArrayPriceTable.resolveRawId("minecraft:gold_ingot");
+        oakLog = ArrayPriceTable.resolveRawId("minecraft:oak_log");
+        emerald = ArrayPriceTable.resolveRawId("minecraft:emerald");
+    }
+
+    private static PriceDiff diff() {
+        PriceTable before = PriceTable.builder()
+                .put("minecraft:stone", 640, 0, 10)
+                .put("minecraft:dirt", 6400, 0, 100)
+                .put("minecraft:diamond", 6400, 345600, 0)
+                .put("minecraft:gold_ingot", 64, 0, 1)
+                .put("minecraft:oak_log", 320, 0, 5)
+                .put("minecraft:iron_ingot", 640, 0, 10)
+                .build();
+        PriceTable after = PriceTable.builder()
+                // +50 %
+                .put("minecraft:stone", 960, 0, 15)
+                // -60 %
+                .put("minecraft:dirt", 2560, 0, 40)
+                // Nur der DK-Preis ändert sich, der Referenzpreis (Stack) bleibt
+                .put("minecraft:diamond", 6400, 300000, 0)
+                .put("minecraft:gold_ingot", 0, 0, Integer.MAX_VALUE)
+                .put("minecraft:emerald", 448, 0, 7)
+                .put("minecraft:iron_ingot", 640, 0, 10)
+                .build();
+        return PriceDiff.compute(new PriceSnapshot(1L, 100L, before), new PriceSnapshot(2L, 200L, after));
+    }
+
+    private static int indexOf(PriceDiff diff, int rawId) {
+        for (int i = 0; i < diff.size(); i++) {
+            if (diff.getRawId(i) == rawId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void countsAddedRemovedAndChanged() {
+        PriceDiff diff = diff();
+
+        assertEquals(1, diff.getAddedCount());
+        assertEquals(1, diff.getRemovedCount());
+        assertEquals(4, diff.getChangedCount());
+        // Unveränderte Items (Eisen) tauchen nicht auf
+        assertEquals(6, diff.size());
+        assertEquals(200L, diff.getFetchedAt());
+
+        int added = indexOf(diff, emerald);
+        assertEquals(PriceDiff.ADDED, diff.getKind(added));
+        assertEquals(0, diff.getOldPrice(added));
+        assertEquals(7, diff.getNewPrice(added));
+        assertEquals(0, diff.getChangeBasisPoints(added));
+
+        int removed = indexOf(diff, oakLog);
+        assertEquals(PriceDiff.REMOVED, diff.getKind(removed));
+        assertEquals(5, diff.getOldPrice(removed));
+        assertEquals(0, diff.getNewPrice(removed));
+        assertEquals(0, diff.getChangeBasisPoints(removed));
+    }
+
+    @Test
+    void basisPointsKeepSignAndClamp() {
+        PriceDiff diff = diff();
+
+        assertEquals(5_000, diff.getChangeBasisPoints(indexOf(diff, stone)));
+        assertEquals(-6_000, diff.getChangeBasisPoints(indexOf(diff, dirt)));
+        assertEquals(0, diff.getChangeBasisPoints(indexOf(diff, diamond)));
+        assertEquals(PriceDiff.CHANGED, diff.getKind(indexOf(diff, diamond)));
+        // (MAX - 1) * 10 000 passt nicht in ein int
+        assertEquals(Integer.MAX_VALUE, diff.getChangeBasisPoints(indexOf(diff, goldIngot)));
+    }
+
+    @Test
+    void topMoversAreOrderedByMagnitudeAndLimited() {
+        PriceDiff diff = diff();
+
+        int[] all = diff.topMovers(10);
+        assertEquals(4, all.length);
+        assertArrayEquals(new int[]{goldIngot, dirt, stone, diamond},
+                new int[]{diff.getRawId(all[0]), diff.getRawId(all[1]), diff.getRawId(all[2]), diff.getRawId(all[3])});
+
+        int[] top = diff.topMovers(2);
+        assertEquals(2, top.length);
+        assertEquals(goldIngot, diff.getRawId(top[0]));
+        assertEquals(dirt, diff.getRawId(top[1]));
+
+        assertEquals(0, diff.topMovers(0).length);
+    }
+
+    @Test
+    void identicalSnapshotsHaveNoChanges() {
+        PriceTable table = TestCatalogs.table(500, 0);
+        PriceDiff diff = PriceDiff.compute(new PriceSnapshot(1L, 1L, table), new PriceSnapshot(2L, 2L, TestCatalogs.table(500, 0)));
+
+        assertEquals(0, diff.size());
+        assertEquals(0, diff.topMovers(5).length);
+        assertTrue(diff.getAddedCount() == 0 && diff.getRemovedCount() == 0 && diff.getChangedCount() == 0);
+    }
+}
@@ -0,0 +1,85 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.Registries;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Erfassen von Snapshots mit 50k Einträgen über 90 Tage (alle sechs Stunden) und eine 90-Tage-Abfrage danach.
+ * Aufgezeichnet werden nur Registry-Items, Varianten nicht. Die Zeiten werden protokolliert und grob nach oben
+ * begrenzt; die Verdichtungsläufe stecken in der maximalen Erfassungszeit.
+ */
+class PriceHistoryBenchmarkTest {
+
+    private static final int ENTRIES = 50_000;
+    private static final int GENERATIONS = 4;
+    private static final long DAY = 86400L;
+    private static final long INTERVAL = 6 * 3600L;
+    private static final long T0 = 19_676L * DAY;
+    private static final int RUNS = 5;
+
+    private static PriceTable[] tables;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        tables = new PriceTable[GENERATIONS];
+        for (int generation = 0; generation < GENERATIONS; generation++) {
+            tables[generation] = TestCatalogs.table(ENTRIES, generation);
+        }
+    }
+
+    @Test
+    void ingestAndQueryNinetyDays() throws Exception {
+        PriceHistoryStore store = new PriceHistoryStore(dir.resolve("history.bin"));
+        int snapshots = (int) (90 * DAY / INTERVAL);
+        long totalNanos = 0L;
+        long maxNanos = 0L;
+        for (int i = 0; i < snapshots; i++) {
+            long time = T0 + i * INTERVAL;
+            PriceSnapshot snapshot = new PriceSnapshot(i, time, tables[i % GENERATIONS]);
+            long start = System.nanoTime();
+            store.record(snapshot);
+            long nanos = System.nanoTime() - start;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+        store.flush();
+
+        String itemId = TestCatalogs.itemId(1);
+        long from = T0;
+        long to = T0 + 90 * DAY;
+        PriceSeries series = store.query(itemId, from, to);
+        long queryNanos = AllocationMeter.minNanos(RUNS, () -> store.query(itemId, from, to));
+        PriceHistoryStore reopened = new PriceHistoryStore(dir.resolve("history.bin"));
+        long coldStart = System.nanoTime();
+        PriceSeries coldSeries = reopened.query(itemId, from, to);
+        long coldQueryNanos = System.nanoTime() - coldStart;
+
+        TradeCore.LOGGER.info("Preisverlauf {} Snapshots à {} Items: erfassen Ø {} µs / max {} ms, Datei {} Bytes, Abfrage 90 Tage {} Samples in {} µs (kalt {} ms)",
+                snapshots, Registries.ITEM.size(), TimeUnit.NANOSECONDS.toMicros(totalNanos / snapshots), TimeUnit.NANOSECONDS.toMillis(maxNanos),
+                Files.size(dir.resolve("history.bin")), series.size(), TimeUnit.NANOSECONDS.toMicros(queryNanos),
+                TimeUnit.NANOSECONDS.toMillis(coldQueryNanos));
+        assertEquals(series.size(), coldSeries.size());
+        assertTrue(series.size() > 0);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(totalNanos / snapshots) < 100, "Erfassen Ø " + TimeUnit.NANOSECONDS.toMillis(totalNanos / snapshots) + " ms");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(maxNanos) < 2_000, "Erfassen max " + TimeUnit.NANOSECONDS.toMillis(maxNanos) + " ms");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(queryNanos) < 50, "Abfrage " + TimeUnit.NANOSECONDS.toMillis(queryNanos) + " ms");
+        // Kaltstart liest nur die Chunk-Köpfe der ganzen Datei plus die Chunks des Items
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(coldQueryNanos) < 1_000, "Abfrage kalt " + TimeUnit.NANOSECONDS.toMillis(coldQueryNanos) + " ms");
+    }
+}
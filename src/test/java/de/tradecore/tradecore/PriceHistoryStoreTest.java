@@ -0,0 +1,152 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceHistoryStoreTest {
+
+    private static final long HOUR = 3600L;
+    private static final long DAY = 86400L;
+    // Auf eine Tagesgrenze ausgerichtet, damit Stunden- und Tages-Buckets glatt aufgehen
+    private static final long T0 = 19_676L * DAY;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    private static PriceSnapshot snapshot(long time, int stueckpreis) {
+        PriceTable table = PriceTable.builder()
+                .put("minecraft:stone", stueckpreis * 64, stueckpreis * 3456, stueckpreis)
+                .put("minecraft:dirt", 64, 3456, 1)
+                .build();
+        return new PriceSnapshot(time, time, table);
+    }
+
+    @Test
+    void samplesSurviveFlushAndReopen() {
+        Path path = dir.resolve("history.bin");
+        PriceHistoryStore store = new PriceHistoryStore(path);
+        for (int i = 0; i < 300; i++) {
+            store.record(snapshot(T0 + i * 600L, 100 + i));
+        }
+        store.flush();
+
+        PriceSeries series = new PriceHistoryStore(path).query("minecraft:stone", T0, T0 + 300 * 600L);
+
+        assertEquals(300, series.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(T0 + i * 600L, series.getTime(i));
+            assertEquals(100 + i, series.getStueckpreis(i));
+            assertEquals((100 + i) * 64, series.getStackpreis(i));
+            assertEquals((100 + i) * 3456, series.getDkpreis(i));
+        }
+    }
+
+    // Ohne flush (Absturz) darf höchstens der letzte Tag verloren gehen
+    @Test
+    void openChunksAreWrittenWithinADay() {
+        Path path = dir.resolve("history.bin");
+        PriceHistoryStore store = new PriceHistoryStore(path);
+        for (int i = 0; i < 48; i++) {
+            store.record(snapshot(T0 + i * HOUR, 100 + i));
+        }
+
+        PriceSeries series = new PriceHistoryStore(path).query("minecraft:stone", T0, T0 + 2 * DAY);
+
+        assertTrue(series.size() >= 25, "nur " + series.size() + " Samples nach Absturz");
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(T0 + i * HOUR, series.getTime(i));
+            assertEquals(100 + i, series.getStueckpreis(i));
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedAndRecordingContinues() throws Exception {
+        Path path = dir.resolve("history.bin");
+        PriceHistoryStore store = new PriceHistoryStore(path);
+        for (int i = 0; i < 20; i++) {
+            store.record(snapshot(T0 + i * 600L, 100));
+            if (i == 9 || i == 19) {
+                store.flush();
+            }
+        }
+        long size = Files.size(path);
+        // Absturz mitten im letzten Chunk
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(size - 3);
+        }
+
+        PriceHistoryStore reopened = new PriceHistoryStore(path);
+        int stone = reopened.query("minecraft:stone", T0, T0 + DAY).size();
+        int dirt = reopened.query("minecraft:dirt", T0, T0 + DAY).size();
+
+        // Genau einer der beiden letzten Chunks fehlt
+        assertEquals(30, stone + dirt);
+        assertTrue(stone >= 10 && dirt >= 10);
+        assertEquals(reopened.getFileSize(), Files.size(path));
+        assertTrue(Files.size(path) < size - 3);
+
+        for (int i = 20; i < 30; i++) {
+            reopened.record(snapshot(T0 + i * 600L, 100));
+        }
+        reopened.flush();
+        PriceHistoryStore again = new PriceHistoryStore(path);
+        assertEquals(50, again.query("minecraft:stone", T0, T0 + DAY).size() + again.query("minecraft:dirt", T0, T0 + DAY).size());
+    }
+
+    @Test
+    void oldSamplesAreDownsampledHourlyThenDaily() {
+        Path path = dir.resolve("history.bin");
+        PriceHistoryStore store = new PriceHistoryStore(path);
+        long step = 20 * 60L;
+        long end = T0 + 100 * DAY;
+        // Drei Samples pro Stunde mit 100, 103, 106: jedes Stunden- und Tagesmittel ist 103
+        int i = 0;
+        for (long time = T0; time <= end; time += step, i++) {
+            store.record(snapshot(time, 100 + (i % 3) * 3));
+        }
+
+        // Die letzte Verdichtung lief bei end
+        PriceSeries series = store.query("minecraft:stone", T0, end);
+        long rawCutoff = end - 7 * DAY;
+        long hourlyCutoff = end - 90 * DAY;
+        int daily = 0;
+        int hourly = 0;
+        int raw = 0;
+        for (int j = 0; j < series.size(); j++) {
+            long time = series.getTime(j);
+            if (j > 0) {
+                assertTrue(time > series.getTime(j - 1), "Zeiten nicht aufsteigend bei " + j);
+            }
+            if (time < hourlyCutoff) {
+                assertEquals(0L, time % DAY, "Tages-Bucket bei " + time);
+                assertEquals(103, series.getStueckpreis(j));
+                daily++;
+            } else if (time < rawCutoff) {
+                assertEquals(0L, time % HOUR, "Stunden-Bucket bei " + time);
+                assertEquals(103, series.getStueckpreis(j));
+                hourly++;
+            } else {
+                raw++;
+            }
+        }
+        assertEquals(10, daily);
+        assertEquals(83 * 24, hourly);
+        assertEquals(7 * 24 * 3 + 1, raw);
+    }
+}
@@ -0,0 +1,138 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+    private PriceSnapshot base;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @BeforeEach
+    void setUp() {
+        path = dir.resolve("prices.journal");
+        base = new PriceSnapshot(7L, 1_000L, PriceTable.builder().put("minecraft:stone", 64, 3456, 1).build());
+    }
+
+    private static PricePatch patch(String itemId, int stueckpreis) {
+        return PricePatch.builder().put(itemId, stueckpreis * 64, stueckpreis * 3456, stueckpreis).remove("minecraft:dirt").build();
+    }
+
+    @Test
+    void replayReturnsAppendedPatchesInOrder() throws Exception {
+        PriceJournal journal = new PriceJournal(path);
+        journal.reset(base);
+        journal.append(patch("minecraft:stone", 2), 1_010L);
+        long size = journal.append(patch("minecraft:diamond", 100), 1_020L);
+
+        PriceJournal reopened = new PriceJournal(path);
+        PriceJournal.Replay replay = reopened.replay(base);
+
+        assertFalse(replay.discarded);
+        assertEquals(1_020L, replay.fetchedAt);
+        assertEquals(2, replay.patches.size());
+        PricePatch first = replay.patches.get(0);
+        assertEquals("minecraft:stone", first.getUpsertId(0));
+        assertEquals(128, first.getStackpreis(0));
+        assertEquals(6912, first.getDkpreis(0));
+        assertEquals(2, first.getStueckpreis(0));
+        assertEquals("minecraft:dirt", first.getRemovedId(0));
+        assertEquals("minecraft:diamond", replay.patches.get(1).getUpsertId(0));
+        assertTrue(reopened.isAttached());
+        assertEquals(size, reopened.size());
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    void tornTailIsTruncatedAndAppendingContinuesAfterIt() throws Exception {
+        PriceJournal journal = new PriceJournal(path);
+        journal.reset(base);
+        long intact = journal.append(patch("minecraft:stone", 2), 1_010L);
+        long full = journal.append(patch("minecraft:diamond", 100), 1_020L);
+        // Absturz mitten im zweiten Datensatz
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(full - 3);
+        }
+
+        PriceJournal reopened = new PriceJournal(path);
+        PriceJournal.Replay replay = reopened.replay(base);
+
+        assertFalse(replay.discarded);
+        assertEquals(1, replay.patches.size());
+        assertEquals(1_010L, replay.fetchedAt);
+        assertEquals(intact, Files.size(path));
+
+        reopened.append(patch("minecraft:oak_log", 3), 1_030L);
+        PriceJournal.Replay afterAppend = new PriceJournal(path).replay(base);
+        assertEquals(2, afterAppend.patches.size());
+        assertEquals("minecraft:oak_log", afterAppend.patches.get(1).getUpsertId(0));
+        assertEquals(1_030L, afterAppend.fetchedAt);
+    }
+
+    @Test
+    void recordWithBadChecksumIsTruncated() throws Exception {
+        PriceJournal journal = new PriceJournal(path);
+        journal.reset(base);
+        long intact = journal.append(patch("minecraft:stone", 2), 1_010L);
+        long full = journal.append(patch("minecraft:diamond", 100), 1_020L);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) full - 1] ^= 0x01;
+        Files.write(path, bytes);
+
+        PriceJournal.Replay replay = new PriceJournal(path).replay(base);
+
+        assertEquals(1, replay.patches.size());
+        assertEquals(intact, Files.size(path));
+    }
+
+    @Test
+    void journalOfAnotherBaseIsDiscarded() throws Exception {
+        PriceJournal journal = new PriceJournal(path);
+        journal.reset(base);
+        journal.append(patch("minecraft:stone", 2), 1_010L);
+        PriceSnapshot newerBase = new PriceSnapshot(8L, 2_000L, base.getTable());
+
+        PriceJournal reopened = new PriceJournal(path);
+        PriceJournal.Replay replay = reopened.replay(newerBase);
+
+        assertTrue(replay.discarded);
+        assertTrue(replay.patches.isEmpty());
+        assertFalse(reopened.isAttached());
+        assertFalse(Files.exists(path));
+        assertThrows(IllegalStateException.class, () -> reopened.append(patch("minecraft:stone", 3), 2_010L));
+    }
+
+    @Test
+    void missingJournalIsNotADiscard() {
+        PriceJournal journal = new PriceJournal(path);
+
+        PriceJournal.Replay replay = journal.replay(base);
+
+        assertFalse(replay.discarded);
+        assertTrue(replay.patches.isEmpty());
+        assertEquals(-1L, replay.fetchedAt);
+        assertFalse(journal.isAttached());
+    }
+}
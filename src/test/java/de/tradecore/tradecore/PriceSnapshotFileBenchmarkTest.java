@@ -0,0 +1,117 @@
+package de.tradecore.tradecore;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.Registries;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Binäre Preisdatei gegen die frühere {@code prices.json} (Gson mit Pretty-Printing, Laden über TypeToken) bei
+ * 50k Einträgen. Beim Laden werden allokierte Bytes verglichen, die Zeiten werden protokolliert und grob nach oben
+ * begrenzt. Das Speichern der Binärdatei enthält ein fsync und ist daher nicht mit dem JSON-Weg vergleichbar.
+ */
+class PriceSnapshotFileBenchmarkTest {
+
+    private static final int ENTRIES = 50_000;
+    private static final int RUNS = 5;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Type PRICE_MAP_TYPE = new TypeToken<Map<String, PriceAPIClient.PriceResult>>() {}.getType();
+
+    private static PriceSnapshot snapshot;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        snapshot = new PriceSnapshot(1L, 1_700_000_000L, TestCatalogs.table(ENTRIES, 0));
+    }
+
+    private void saveBinary() throws Exception {
+        PriceSnapshotFile.write(dir.resolve("prices.bin"), dir.resolve("prices.tmp"), snapshot);
+    }
+
+    private PriceTable loadBinary() throws Exception {
+        return PriceSnapshotFile.map(dir.resolve("prices.bin")).getTable();
+    }
+
+    // Nachbau des Pfads vor der Binärdatei: toMap, Pretty-Print in einen Writer, TypeToken-Map, fromMap
+    private void saveJson() throws Exception {
+        try (Writer writer = Files.newBufferedWriter(dir.resolve("prices.json"))) {
+            GSON.toJson(snapshot.getTable().toMap(), PRICE_MAP_TYPE, writer);
+        }
+    }
+
+    private PriceTable loadJson() throws Exception {
+        try (Reader reader = Files.newBufferedReader(dir.resolve("prices.json"))) {
+            Map<String, PriceAPIClient.PriceResult> prices = GSON.fromJson(reader, PRICE_MAP_TYPE);
+            return PriceTable.fromMap(prices);
+        }
+    }
+
+    @Test
+    void binaryFileLoadsTheSamePricesAsJson() throws Exception {
+        saveBinary();
+        saveJson();
+
+        assertEquals(prices(loadJson()), prices(loadBinary()));
+    }
+
+    @Test
+    void binaryLoadAllocatesLessThanJson() throws Exception {
+        assumeTrue(AllocationMeter.isSupported(), "Allokationsmessung pro Thread nicht verfügbar");
+        long binarySaveNanos = AllocationMeter.minNanos(RUNS, this::saveBinary);
+        long jsonSaveNanos = AllocationMeter.minNanos(RUNS, this::saveJson);
+        long binaryBytes = AllocationMeter.minAllocatedBytes(RUNS, this::loadBinary);
+        long jsonBytes = AllocationMeter.minAllocatedBytes(RUNS, this::loadJson);
+        long binaryLoadNanos = AllocationMeter.minNanos(RUNS, this::loadBinary);
+        long jsonLoadNanos = AllocationMeter.minNanos(RUNS, this::loadJson);
+
+        TradeCore.LOGGER.info("Preisdatei {} Einträge: binär {} Bytes, speichern {} ms, laden {} ms / {} KB; JSON {} Bytes, speichern {} ms, laden {} ms / {} KB",
+                ENTRIES, Files.size(dir.resolve("prices.bin")), TimeUnit.NANOSECONDS.toMillis(binarySaveNanos),
+                TimeUnit.NANOSECONDS.toMillis(binaryLoadNanos), binaryBytes / 1024, Files.size(dir.resolve("prices.json")),
+                TimeUnit.NANOSECONDS.toMillis(jsonSaveNanos), TimeUnit.NANOSECONDS.toMillis(jsonLoadNanos), jsonBytes / 1024);
+        // Gemappt werden nur die Varianten auf den Heap gelesen, JSON baut jeden Eintrag zweimal auf (Map und Tabelle)
+        assertTrue(binaryBytes < jsonBytes, "binär " + binaryBytes + " B, JSON " + jsonBytes + " B");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(binaryLoadNanos) < 2_000, "Laden " + TimeUnit.NANOSECONDS.toMillis(binaryLoadNanos) + " ms");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(binarySaveNanos) < 2_000, "Speichern " + TimeUnit.NANOSECONDS.toMillis(binarySaveNanos) + " ms");
+    }
+
+    // Ohne Varianten liest das Mappen keinen einzigen Eintrag; der Heap wächst nur um die Auflösungstabelle
+    @Test
+    void mappingWithoutVariantsIsIndependentOfCatalogSize() throws Exception {
+        assumeTrue(AllocationMeter.isSupported(), "Allokationsmessung pro Thread nicht verfügbar");
+        PriceTable itemsOnly = TestCatalogs.table(Registries.ITEM.size(), 0);
+        PriceSnapshotFile.write(dir.resolve("prices.bin"), dir.resolve("prices.tmp"), new PriceSnapshot(1L, 1L, itemsOnly));
+
+        long bytes = AllocationMeter.minAllocatedBytes(RUNS, this::loadBinary);
+
+        assertTrue(bytes < 64 * 1024 + itemsOnly.capacity() * 4L, "Mappen " + bytes + " B");
+    }
+
+    private static Map<String, String> prices(PriceTable table) {
+        Map<String, String> result = new TreeMap<>();
+        table.toMap().forEach((id, price) -> result.put(id, price.stueckpreis + "/" + price.stackpreis + "/" + price.dkpreis));
+        return result;
+    }
+}
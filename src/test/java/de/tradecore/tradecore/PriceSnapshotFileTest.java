@@ -0,0 +1,167 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.Items;
+import net.minecraft.registry.Registries;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceSnapshotFileTest {
+
+    private static final int MAGIC = 0x54435053;
+    private static final long VERSION = 42L;
+    private static final long FETCHED_AT = 1_700_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    private static PriceTable itemsOnly() {
+        return PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 1)
+                .put("minecraft:diamond", 6400, 345600, 100)
+                .put("minecraft:oak_log", 128, 6912, 0)
+                .build();
+    }
+
+    private Path writeV3(PriceTable table) throws IOException {
+        Path file = dir.resolve("prices.bin");
+        PriceSnapshotFile.write(file, dir.resolve("prices.tmp"), new PriceSnapshot(VERSION, FETCHED_AT, table));
+        return file;
+    }
+
+    @Test
+    void v3RoundTripKeepsPricesVariantsAndHeader() throws Exception {
+        String variant = VariantPrices.toVariantId("minecraft:diamond_sword", 0xABCDEF0123456789L);
+        PriceTable table = PriceTable.builder()
+                .put("minecraft:stone", 64, 3456, 1)
+                .put("minecraft:diamond", 6400, 345600, 100)
+                .put(variant, 0, 0, 2500)
+                .build();
+
+        PriceSnapshot loaded = PriceSnapshotFile.map(writeV3(table));
+
+        assertInstanceOf(MappedPriceTable.class, loaded.getTable());
+        assertEquals(VERSION, loaded.getVersion());
+        assertEquals(FETCHED_AT, loaded.getFetchedAt());
+        assertEquals(prices(table), prices(loaded.getTable()));
+        assertEquals(1, loaded.getTable().getVariants().size());
+        assertEquals(2500, loaded.getTable().get(variant).stueckpreis);
+        assertTrue(((MappedPriceTable) loaded.getTable()).verifyChecksum());
+    }
+
+    @Test
+    void v2FileIsMappedWithoutVariants() throws Exception {
+        Path file = writeV3(itemsOnly());
+        // v3 ohne Variantenblock (letztes int vor der Prüfsumme) mit Formatversion 2 ist genau v2
+        byte[] v3 = Files.readAllBytes(file);
+        ByteBuffer payload = ByteBuffer.wrap(v3, 0, v3.length - 8).slice();
+        ByteBuffer v2 = ByteBuffer.allocate(payload.remaining());
+        v2.put(payload).putInt(4, 2);
+        Files.write(file, withChecksum(v2.array()));
+
+        PriceSnapshot loaded = PriceSnapshotFile.map(file);
+
+        assertInstanceOf(MappedPriceTable.class, loaded.getTable());
+        assertEquals(prices(itemsOnly()), prices(loaded.getTable()));
+        assertTrue(loaded.getTable().getVariants().isEmpty());
+        assertTrue(((MappedPriceTable) loaded.getTable()).verifyChecksum());
+    }
+
+    @Test
+    void v1FileIsReadOntoTheHeap() throws Exception {
+        Path file = dir.resolve("prices.v1.bin");
+        Files.write(file, encodeV1(itemsOnly()));
+
+        PriceSnapshot loaded = PriceSnapshotFile.map(file);
+
+        assertInstanceOf(ArrayPriceTable.class, loaded.getTable());
+        assertEquals(VERSION, loaded.getVersion());
+        assertEquals(FETCHED_AT, loaded.getFetchedAt());
+        assertEquals(prices(itemsOnly()), prices(loaded.getTable()));
+    }
+
+    @Test
+    void readFetchedAtReadsOnlyTheHeader() throws Exception {
+        assertEquals(FETCHED_AT, PriceSnapshotFile.readFetchedAt(writeV3(itemsOnly())));
+        Path garbage = dir.resolve("garbage.bin");
+        Files.writeString(garbage, "kein Snapshot");
+        assertEquals(-1L, PriceSnapshotFile.readFetchedAt(garbage));
+    }
+
+    // v2/v3 prüfen die Prüfsumme erst im Hintergrund, v1 schon beim Lesen
+    @Test
+    void corruptionIsDetected() throws Exception {
+        Path file = writeV3(itemsOnly());
+        byte[] bytes = Files.readAllBytes(file);
+        int stone = Registries.ITEM.getRawId(Items.STONE);
+        // Letztes Byte der DK-Spalte: vor Prüfsumme, Variantenanzahl und Index (3 Einträge à 8 Bytes)
+        bytes[bytes.length - 4 - 4 - 3 * 8 - 1] ^= 0x01;
+        Files.write(file, bytes);
+        PriceTable mapped = PriceSnapshotFile.map(file).getTable();
+        assertFalse(((MappedPriceTable) mapped).verifyChecksum());
+        assertTrue(mapped.contains(stone));
+
+        Path v1 = dir.resolve("prices.v1.bin");
+        byte[] v1Bytes = encodeV1(itemsOnly());
+        v1Bytes[40] ^= 0x01;
+        Files.write(v1, v1Bytes);
+        assertThrows(IOException.class, () -> PriceSnapshotFile.map(v1));
+
+        Files.write(v1, new byte[]{0x54, 0x43});
+        assertThrows(IOException.class, () -> PriceSnapshotFile.map(v1));
+    }
+
+    // Format v1: Header, Längen-präfixierte IDs, drei Preisspalten, CRC32C
+    private static byte[] encodeV1(PriceTable table) {
+        Map<String, PriceAPIClient.PriceResult> prices = new TreeMap<>(table.toMap());
+        byte[][] ids = prices.keySet().stream().map(id -> id.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        int idBytes = 0;
+        for (byte[] id : ids) {
+            idBytes += 2 + id.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 8 + 8 + 4 + idBytes + prices.size() * 12);
+        buffer.putInt(MAGIC).putInt(1).putLong(VERSION).putLong(FETCHED_AT).putInt(prices.size());
+        for (byte[] id : ids) {
+            buffer.putShort((short) id.length).put(id);
+        }
+        prices.values().forEach(price -> buffer.putInt(price.stueckpreis));
+        prices.values().forEach(price -> buffer.putInt(price.stackpreis));
+        prices.values().forEach(price -> buffer.putInt(price.dkpreis));
+        return withChecksum(buffer.array());
+    }
+
+    private static byte[] withChecksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return ByteBuffer.allocate(payload.length + 4).put(payload).putInt((int) crc.getValue()).array();
+    }
+
+    private static Map<String, String> prices(PriceTable table) {
+        Map<String, String> result = new TreeMap<>();
+        table.toMap().forEach((id, price) -> result.put(id, price.stueckpreis + "/" + price.stackpreis + "/" + price.dkpreis));
+        return result;
+    }
+}
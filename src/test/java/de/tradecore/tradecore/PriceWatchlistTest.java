@@ -0,0 +1,78 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceWatchlistTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void parseAndSerializeRoundTrip() {
+        PriceWatchlist watchlist = PriceWatchlist.parse(" minecraft:diamond|5 , minecraft:stone|5.25,minecraft:dirt ,minecraft:emerald|0.5");
+
+        assertEquals(500, watchlist.getThreshold("minecraft:diamond"));
+        assertEquals(525, watchlist.getThreshold("minecraft:stone"));
+        assertEquals(PriceWatchlist.DEFAULT_THRESHOLD_BASIS_POINTS, watchlist.getThreshold("minecraft:dirt"));
+        assertEquals(50, watchlist.getThreshold("minecraft:emerald"));
+
+        String serialized = watchlist.serialize();
+        assertEquals("minecraft:diamond|5,minecraft:stone|5.25,minecraft:dirt|5,minecraft:emerald|0.50", serialized);
+        assertEquals(serialized, PriceWatchlist.parse(serialized).serialize());
+    }
+
+    @Test
+    void malformedPercentagesSkipOnlyTheirEntry() {
+        PriceWatchlist watchlist = PriceWatchlist.parse(
+                "minecraft:diamond|abc,minecraft:stone|-3,minecraft:dirt|0,minecraft:emerald|NaN,|5,minecraft:oak_log|,minecraft:gold_ingot|7");
+
+        assertFalse(watchlist.contains("minecraft:diamond"));
+        assertFalse(watchlist.contains("minecraft:stone"));
+        assertFalse(watchlist.contains("minecraft:dirt"));
+        assertFalse(watchlist.contains("minecraft:emerald"));
+        assertFalse(watchlist.contains("minecraft:oak_log"));
+        assertEquals(700, watchlist.getThreshold("minecraft:gold_ingot"));
+        assertEquals("minecraft:gold_ingot|7", watchlist.serialize());
+
+        // Zu große Werte werden begrenzt statt überzulaufen
+        assertEquals(Integer.MAX_VALUE, PriceWatchlist.parse("minecraft:diamond|1e12").getThreshold("minecraft:diamond"));
+    }
+
+    @Test
+    void emptyInputGivesEmptyList() {
+        assertSame(PriceWatchlist.EMPTY, PriceWatchlist.parse(null));
+        assertSame(PriceWatchlist.EMPTY, PriceWatchlist.parse("  "));
+        assertSame(PriceWatchlist.EMPTY, PriceWatchlist.parse("minecraft:diamond|x"));
+        assertEquals("", PriceWatchlist.EMPTY.serialize());
+    }
+
+    @Test
+    void withThresholdAddsAndRemoves() {
+        PriceWatchlist watchlist = PriceWatchlist.EMPTY.withThreshold("minecraft:diamond", 250);
+        assertEquals("minecraft:diamond|2.50", watchlist.serialize());
+
+        PriceWatchlist removed = watchlist.withThreshold("minecraft:diamond", 0);
+        assertSame(PriceWatchlist.EMPTY, removed);
+        assertTrue(removed.isEmpty());
+    }
+
+    @Test
+    void thresholdsResolveByRawId() {
+        PriceWatchlist watchlist = PriceWatchlist.parse("minecraft:diamond|5,minecraft:not_an_item|5");
+
+        assertEquals(500, watchlist.thresholdFor(ArrayPriceTable.resolveRawId("minecraft:diamond")));
+        assertEquals(0, watchlist.thresholdFor(ArrayPriceTable.resolveRawId("minecraft:stone")));
+        assertEquals(0, watchlist.thresholdFor(-1));
+    }
+}
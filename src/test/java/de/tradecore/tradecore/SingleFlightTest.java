@@ -0,0 +1,146 @@
+package de.tradecore.tradecore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final String PLAYER = "00000000-0000-0000-0000-000000000001";
+    private static final String LEVEL_JSON = "{\"success\":true,\"playerName\":\"Steve\",\"level\":7,\"currentXp\":30,\"xpForNextLevel\":100}";
+
+    @TempDir
+    Path dataDir;
+
+    private StandInApiServer server;
+    private PriceAPIClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInApiServer();
+        client = new PriceAPIClient(server.baseUrl(), dataDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    // Solange die Anfrage hängt, teilen sich alle Aufrufer einen Roundtrip; danach startet der nächste Aufruf neu
+    @Test
+    void concurrentCallersShareOneRequest() throws Exception {
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+        server.handle("get_user_level.php", exchange -> {
+            requestStarted.countDown();
+            try {
+                releaseResponse.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StandInApiServer.respond(exchange, 200, LEVEL_JSON);
+        });
+
+        long coalescedBefore = client.getCoalescedRequestCount();
+        CompletableFuture<PriceAPIClient.UserLevelResult> first = client.fetchUserLevelAsync(PLAYER);
+        assertTrue(requestStarted.await(5, TimeUnit.SECONDS), "Anfrage kam nicht an");
+        CompletableFuture<PriceAPIClient.UserLevelResult> second = client.fetchUserLevelAsync(PLAYER);
+        CompletableFuture<PriceAPIClient.UserLevelResult> third = client.fetchUserLevelAsync(PLAYER);
+
+        assertEquals(2, client.getCoalescedRequestCount() - coalescedBefore);
+        assertFalse(first.isDone() || second.isDone() || third.isDone());
+
+        releaseResponse.countDown();
+        assertEquals(7, first.get(5, TimeUnit.SECONDS).level);
+        assertEquals(7, second.get(5, TimeUnit.SECONDS).level);
+        assertEquals(7, third.get(5, TimeUnit.SECONDS).level);
+        assertEquals(1, server.requestCount("get_user_level.php"));
+
+        // Nach dem Abschluss ist der Schlüssel frei
+        assertTrue(client.fetchUserLevelAsync(PLAYER).get(5, TimeUnit.SECONDS).success);
+        assertEquals(2, server.requestCount("get_user_level.php"));
+        assertEquals(2, client.getCoalescedRequestCount() - coalescedBefore);
+    }
+
+    // Auch eine fehlgeschlagene Anfrage gibt den Schlüssel frei
+    @Test
+    void failedRequestReleasesKey() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        server.handle("get_user_level.php", exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                StandInApiServer.respond(exchange, 404, "");
+            } else {
+                StandInApiServer.respond(exchange, 200, LEVEL_JSON);
+            }
+        });
+
+        assertFalse(client.fetchUserLevelAsync(PLAYER).get(5, TimeUnit.SECONDS).success);
+        assertTrue(client.fetchUserLevelAsync(PLAYER).get(5, TimeUnit.SECONDS).success);
+        assertEquals(2, server.requestCount("get_user_level.php"));
+    }
+
+    @Test
+    void exceptionalCompletionReleasesKey() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.run("key", () -> pending);
+        CompletableFuture<String> second = singleFlight.run("key", () -> CompletableFuture.completedFuture("zweiter Start"));
+        assertEquals(1, singleFlight.getExecutedCount());
+        assertEquals(1, singleFlight.getCoalescedCount());
+
+        pending.completeExceptionally(new IllegalStateException("Verbindung abgebrochen"));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertTrue(first.isCompletedExceptionally());
+
+        assertEquals("neu", singleFlight.run("key", () -> CompletableFuture.completedFuture("neu")).get(5, TimeUnit.SECONDS));
+        assertEquals(2, singleFlight.getExecutedCount());
+    }
+
+    // Ein Supplier, der wirft, darf den Schlüssel nicht dauerhaft belegen
+    @Test
+    void throwingSupplierReleasesKey() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+
+        CompletableFuture<String> failed = singleFlight.run("key", () -> {
+            throw new IllegalArgumentException("ungültige URL");
+        });
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+
+        assertEquals("ok", singleFlight.run("key", () -> CompletableFuture.completedFuture("ok")).get(5, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    // Jeder Aufrufer bekommt eine Kopie; wer seine abschließt, beeinflusst die anderen nicht
+    @Test
+    void callersCannotCompleteTheSharedFuture() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.run("key", () -> pending);
+        CompletableFuture<String> second = singleFlight.run("key", () -> pending);
+        first.complete("vorzeitig");
+        assertFalse(second.isDone());
+
+        pending.complete("Antwort");
+        assertEquals("Antwort", second.get(5, TimeUnit.SECONDS));
+        assertEquals("vorzeitig", first.get());
+    }
+}
@@ -0,0 +1,43 @@
+package de.tradecore.tradecore;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotPriceBadgesTest {
+
+    @Test
+    void formatsWithOneDecimalBelowTenAndTruncates() {
+        assertEquals("0", SlotPriceBadges.formatCompact(0L));
+        assertEquals("999", SlotPriceBadges.formatCompact(999L));
+        assertEquals("1.0k", SlotPriceBadges.formatCompact(1_000L));
+        // Abgeschnitten, nicht gerundet: 9.999 würde sonst zu "10.0k"
+        assertEquals("9.9k", SlotPriceBadges.formatCompact(9_999L));
+        assertEquals("10k", SlotPriceBadges.formatCompact(10_000L));
+        assertEquals("999k", SlotPriceBadges.formatCompact(999_999L));
+        assertEquals("1.0M", SlotPriceBadges.formatCompact(1_000_000L));
+        assertEquals("4.5M", SlotPriceBadges.formatCompact(4_567_890L));
+        assertEquals("999M", SlotPriceBadges.formatCompact(999_999_999L));
+        assertEquals("1.0B", SlotPriceBadges.formatCompact(1_000_000_000L));
+        assertEquals("1.0T", SlotPriceBadges.formatCompact(1_000_000_000_000L));
+        assertEquals("999T", SlotPriceBadges.formatCompact(Long.MAX_VALUE));
+    }
+
+    @Test
+    void neverExceedsFourCharacters() {
+        // Jede Zehnerpotenz und die Werte knapp darunter
+        for (long power = 1L; power > 0 && power <= Long.MAX_VALUE / 10; power *= 10) {
+            assertFitsBadge(power);
+            assertFitsBadge(power - 1);
+            assertFitsBadge(power * 10 - 1);
+            assertFitsBadge(power * 5 + power / 2);
+        }
+        assertFitsBadge(Long.MAX_VALUE);
+    }
+
+    private static void assertFitsBadge(long value) {
+        String label = SlotPriceBadges.formatCompact(value);
+        assertTrue(label.length() <= 4, value + " -> " + label);
+    }
+}
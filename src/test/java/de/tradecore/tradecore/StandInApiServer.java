@@ -0,0 +1,73 @@
+package de.tradecore.tradecore;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lokaler Ersatz für die TradeCore-API auf einem freien Port. Jeder Endpunkt bekommt einen eigenen Handler;
+ * Anfragen laufen auf einem eigenen Pool, damit ein absichtlich langsamer Handler die anderen nicht blockiert.
+ * Alle eingegangenen Anfragen werden für Prüfungen mitgeschrieben.
+ */
+final class StandInApiServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final List<HttpExchange> requests = new CopyOnWriteArrayList<>();
+
+    StandInApiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(pool);
+        server.start();
+    }
+
+    // Basis-URL wie im Client erwartet, mit abschließendem '/'
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/API/";
+    }
+
+    void handle(String endpoint, HttpHandler handler) {
+        server.createContext("/API/" + endpoint, exchange -> {
+            requests.add(exchange);
+            try {
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    List<HttpExchange> requests() {
+        return requests;
+    }
+
+    long requestCount(String endpoint) {
+        return requests.stream().filter(exchange -> exchange.getRequestURI().getPath().endsWith("/" + endpoint)).count();
+    }
+
+    static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.registry.Registries;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Synthetische Preiskataloge für Tests und Benchmarks. Die Registry hat nur wenige tausend Items; größere Kataloge
+ * werden daher mit Varianten ({@code itemId@hex}) aufgefüllt, wie sie der Server für Verzauberungen usw. liefert.
+ */
+final class TestCatalogs {
+
+    private TestCatalogs() {
+    }
+
+    static String itemId(int index) {
+        int items = Registries.ITEM.size();
+        String base = Registries.ITEM.getId(Registries.ITEM.get(index % items)).toString();
+        return index < items ? base : VariantPrices.toVariantId(base, 0x9E3779B97F4A7C15L * index);
+    }
+
+    static int stueckpreis(int index, int generation) {
+        return 1 + (index * 7 + generation) % 1000;
+    }
+
+    static int stackpreis(int index, int generation) {
+        return stueckpreis(index, generation) * 64;
+    }
+
+    static int dkpreis(int index, int generation) {
+        return stackpreis(index, generation) * 54;
+    }
+
+    // get_price.php-Antwort mit {@code entries} Einträgen
+    static byte[] catalogJson(int entries, int generation) {
+        StringBuilder json = new StringBuilder(entries * 80).append("{\"success\":true,\"prices\":{");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(itemId(i)).append("\":{\"stueckpreis\":").append(stueckpreis(i, generation))
+                    .append(",\"stackpreis\":").append(stackpreis(i, generation))
+                    .append(",\"dkpreis\":").append(dkpreis(i, generation)).append('}');
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static PriceTable table(int entries, int generation) {
+        PriceTable.Builder builder = PriceTable.builder();
+        for (int i = 0; i < entries; i++) {
+            builder.put(itemId(i), stackpreis(i, generation), dkpreis(i, generation), stueckpreis(i, generation));
+        }
+        return builder.build();
+    }
+}
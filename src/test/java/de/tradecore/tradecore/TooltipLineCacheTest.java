@@ -0,0 +1,106 @@
+package de.tradecore.tradecore;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.Items;
+import net.minecraft.registry.Registries;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TooltipLineCacheTest {
+
+    private static final long VARIANT_HASH = 0x1234_5678_9ABC_DEF0L;
+    private static final int WARM_GETS = 100_000;
+
+    private static int stone;
+    private static int diamond;
+    private static int dirt;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        stone = Registries.ITEM.getRawId(Items.STONE);
+        diamond = Registries.ITEM.getRawId(Items.DIAMOND);
+        dirt = Registries.ITEM.getRawId(Items.DIRT);
+    }
+
+    private static PriceSnapshot snapshot(long version, int stueckpreis) {
+        PriceTable table = PriceTable.builder()
+                .put("minecraft:stone", stueckpreis * 64, 0, stueckpreis)
+                .put("minecraft:diamond", 6400, 345600, 100)
+                .put(VariantPrices.toVariantId("minecraft:diamond", VARIANT_HASH), 0, 0, 2500)
+                .build();
+        return new PriceSnapshot(version, version, table);
+    }
+
+    private static String[] strings(Text[] lines) {
+        String[] result = new String[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            result[i] = lines[i].getString();
+        }
+        return result;
+    }
+
+    @Test
+    void linesAreBuiltOncePerSnapshot() {
+        TooltipLineCache cache = new TooltipLineCache();
+        PriceSnapshot first = snapshot(1L, 2);
+
+        Text[] lines = cache.get(first, stone, -1);
+
+        assertArrayEquals(new String[]{"Stückpreis: 2$", "Stackpreis: 128$"}, strings(lines));
+        assertSame(lines, cache.get(first, stone, -1));
+
+        Text[] updated = cache.get(snapshot(2L, 3), stone, -1);
+        assertNotSame(lines, updated);
+        assertArrayEquals(new String[]{"Stückpreis: 3$", "Stackpreis: 192$"}, strings(updated));
+    }
+
+    @Test
+    void variantsAndUnpricedItems() {
+        TooltipLineCache cache = new TooltipLineCache();
+        PriceSnapshot snapshot = snapshot(1L, 2);
+        int variant = snapshot.getTable().getVariants().find(diamond, VARIANT_HASH);
+
+        assertTrue(variant >= 0);
+        assertArrayEquals(new String[]{"Stückpreis: 2500$"}, strings(cache.get(snapshot, diamond, variant)));
+        assertArrayEquals(new String[]{"Stückpreis: 100$", "Stackpreis: 6400$", "DK-Preis: 345600$"}, strings(cache.get(snapshot, diamond, -1)));
+        assertSame(TooltipLineCache.UNKNOWN_LINE, cache.get(snapshot, dirt, -1)[0]);
+        assertSame(TooltipLineCache.UNKNOWN_LINE, cache.get(snapshot, -1, -1)[0]);
+    }
+
+    @Test
+    void warmGetDoesNotAllocate() throws Exception {
+        assumeTrue(AllocationMeter.isSupported(), "Allokationsmessung pro Thread nicht verfügbar");
+        TooltipLineCache cache = new TooltipLineCache();
+        PriceSnapshot snapshot = snapshot(1L, 2);
+        int variant = snapshot.getTable().getVariants().find(diamond, VARIANT_HASH);
+        AllocationMeter.Task hovers = () -> {
+            for (int i = 0; i < WARM_GETS; i++) {
+                cache.get(snapshot, stone, -1);
+                cache.get(snapshot, diamond, variant);
+                cache.get(snapshot, dirt, -1);
+            }
+        };
+        hovers.run();
+
+        long bytes = AllocationMeter.minAllocatedBytes(3, hovers);
+        PriceSnapshot next = snapshot(2L, 2);
+        long coldBytes = AllocationMeter.allocatedBytes(() -> cache.get(next, stone, -1));
+
+        TradeCore.LOGGER.info("Tooltip-Zeilen: {} Bytes für {} warme Abfragen, {} Bytes für einen Neuaufbau", bytes, 3 * WARM_GETS, coldBytes);
+        // Toleranz für Messrauschen der JVM, nicht für eine Allokation pro Abfrage
+        assertTrue(bytes < 1024, bytes + " Bytes für " + 3 * WARM_GETS + " warme Abfragen");
+        assertTrue(coldBytes > 0);
+        assertEquals(2, cache.get(snapshot, stone, -1).length);
+    }
+}
@@ -0,0 +1,84 @@
+package de.tradecore.tradecore;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TradeCoreConfigTest {
+
+    private final Path configPath = FabricLoader.getInstance().getConfigDir().resolve(TradeCore.MOD_ID + ".properties");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(configPath.getParent());
+        writeConfig(new Properties());
+        TradeCoreConfig.loadConfig();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(configPath);
+    }
+
+    private void writeConfig(Properties props) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(configPath)) {
+            props.store(outputStream, null);
+        }
+    }
+
+    @Test
+    void changedKeysAreApplied() throws IOException {
+        Properties props = new Properties();
+        props.setProperty("showSlotBadges", "true");
+        props.setProperty("priceCacheTtlHours", "12");
+        writeConfig(props);
+
+        TradeCoreConfig.reloadChangedKeys();
+
+        assertTrue(TradeCoreConfig.showSlotBadges);
+        assertEquals(12L, TradeCoreConfig.priceCacheTtlHours);
+    }
+
+    @Test
+    void deletedKeysFallBackToDefaults() throws IOException {
+        Properties props = new Properties();
+        props.setProperty("showSlotBadges", "true");
+        props.setProperty("modEnabled", "false");
+        props.setProperty("priceCacheTtlHours", "12");
+        props.setProperty("fremderSchluessel", "x");
+        writeConfig(props);
+        TradeCoreConfig.reloadChangedKeys();
+
+        props.remove("showSlotBadges");
+        props.remove("modEnabled");
+        props.remove("fremderSchluessel");
+        writeConfig(props);
+        TradeCoreConfig.reloadChangedKeys();
+
+        assertFalse(TradeCoreConfig.showSlotBadges);
+        assertTrue(TradeCoreConfig.modEnabled);
+        assertEquals(12L, TradeCoreConfig.priceCacheTtlHours);
+
+        // Gelöschte Schlüssel tauchen beim nächsten Speichern nicht wieder mit altem Wert auf
+        TradeCoreConfig.toggleShowInventoryValue();
+        TradeCoreConfig.flushPendingChanges();
+        Properties saved = new Properties();
+        try (var inputStream = Files.newInputStream(configPath)) {
+            saved.load(inputStream);
+        }
+        assertFalse(saved.containsKey("fremderSchluessel"));
+        assertFalse(saved.containsKey("showSlotBadges"));
+        assertEquals("true", saved.getProperty("showInventoryValue"));
+    }
+}